@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import static top.spco.spcobot.wiki.util.MapUtil.paramsMap;
 
@@ -24,10 +25,11 @@ public abstract class ActionRequest<T extends ActionResponse<?, ?>> {
     public final Wiki wiki;
     public final RequestMethod method;
     public final String actionDescription;
-    protected final HashMap<String, String> queryParams = paramsMap("format", "json");
+    protected final HashMap<String, String> queryParams = paramsMap("format", "json", "formatversion", "2", "utf8", "1");
     protected final HashMap<String, String> formParams = new HashMap<>();
     private final PermissionRule requiredPermissions = new PermissionRule(PermissionRule.RuleType.ALL, new HashSet<>());
     private final HashSet<PermissionRule> requiredMultipleChoicePermissions = new HashSet<>();
+    private boolean releaseResponses;
 
     /**
      * @since 1.0.1
@@ -36,6 +38,7 @@ public abstract class ActionRequest<T extends ActionResponse<?, ?>> {
         this.wiki = Objects.requireNonNull(wiki, "Wiki cannot be null");
         this.method = Objects.requireNonNull(method, "RequestMethod cannot be null");
         this.actionDescription = Objects.requireNonNull(actionDescription, "Action description cannot be null");
+        this.releaseResponses = wiki.isReleaseResponses();
         try {
             applyActionType(action);
         } catch (Exception e) {
@@ -164,6 +167,29 @@ public abstract class ActionRequest<T extends ActionResponse<?, ?>> {
         return this;
     }
 
+    /**
+     * 设置是否使用低内存模式，默认值由 {@link WikiBuilder#setReleaseResponses(boolean)} 决定。
+     * <p>
+     * 低内存模式下响应体直接从响应流解析为 JSON，不保留响应文本；{@link top.spco.spcobot.wiki.action.request.QueryRequest 查询请求}
+     * 的每一页在子模块解析完成后会被{@link ActionResponse#release() 释放}。
+     *
+     * @param releaseResponses 是否使用低内存模式
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public ActionRequest<T> setReleaseResponses(boolean releaseResponses) {
+        this.releaseResponses = releaseResponses;
+        return this;
+    }
+
+    /**
+     * @return 是否使用低内存模式
+     * @since 1.0.1
+     */
+    public boolean isReleaseResponses() {
+        return releaseResponses;
+    }
+
     /**
      * @since 1.0.1
      */
@@ -197,4 +223,15 @@ public abstract class ActionRequest<T extends ActionResponse<?, ?>> {
             throw new RuntimeException("Failed to " + actionDescription + ": " + e.getMessage(), e);
         }
     }
+
+    /**
+     * 在 {@link Wiki#getAsyncExecutor()} 中异步执行请求。
+     * 如果Wiki实例设置了 {@link Wiki#getConcurrencyLimiter() 并发限制器}，同时进行中的请求数会受其限制。
+     *
+     * @return 请求的响应
+     * @since 1.0.1
+     */
+    public CompletableFuture<T> executeAsync() {
+        return CompletableFuture.supplyAsync(this::execute, wiki.getAsyncExecutor());
+    }
 }
\ No newline at end of file
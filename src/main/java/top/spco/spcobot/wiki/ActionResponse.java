@@ -1,11 +1,14 @@
 package top.spco.spcobot.wiki;
 
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import okhttp3.Response;
+import top.spco.spcobot.wiki.util.JsonPath;
 import top.spco.spcobot.wiki.util.JsonUtil;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
@@ -25,6 +28,8 @@ public abstract class ActionResponse<R extends ActionRequest<?>, T> {
     private final Map<String, BiConsumer<String, String>> expectedApiExceptions = new HashMap<>();
     protected String responseBody;
     protected JsonObject responseBodyJson;
+    private ParsedResponse parsedResponse;
+    private boolean released = false;
 
     /**
      * @since 1.0.1
@@ -44,6 +49,11 @@ public abstract class ActionResponse<R extends ActionRequest<?>, T> {
      * @since 1.0.1
      */
     public String getResponseBody() {
+        checkNotReleased();
+        if (responseBody == null && responseBodyJson != null && request.isReleaseResponses()) {
+            // 低内存模式下响应流已被直接解析，只能由 JSON 重新生成文本
+            return responseBodyJson.toString();
+        }
         if (responseBody == null) {
             try {
                 responseBody = Wiki.checkAndGetBody(getResponse(), actionDescription);
@@ -58,12 +68,75 @@ public abstract class ActionResponse<R extends ActionRequest<?>, T> {
      * @since 1.0.1
      */
     public JsonObject getResponseBodyJson() {
+        checkNotReleased();
         if (responseBodyJson == null) {
-            responseBodyJson = JsonUtil.GSON.fromJson(getResponseBody(), JsonObject.class);
+            Map<JsonPath, TypeAdapter<?>> adapters = streamedLists();
+            if (responseBody == null && request.isReleaseResponses()) {
+                try {
+                    parsedResponse = ParsedResponse.read(getResponse(), actionDescription, adapters);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read response body: " + e.getMessage(), e);
+                }
+                responseBodyJson = parsedResponse.json();
+            } else if (!adapters.isEmpty()) {
+                parsedResponse = ParsedResponse.parse(getResponseBody(), adapters);
+                responseBodyJson = parsedResponse.json();
+            } else {
+                responseBodyJson = JsonUtil.GSON.fromJson(getResponseBody(), JsonObject.class);
+            }
         }
         return responseBodyJson;
     }
 
+    /**
+     * 需要在解析响应时直接由适配器读取的数组。这些数组的元素不会出现在 {@link #getResponseBodyJson()} 中，
+     * 而是通过 {@link #getStreamedList(JsonPath)} 获取。
+     *
+     * @return 数组的键路径及其元素的适配器
+     * @since 1.0.1
+     */
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        return Map.of();
+    }
+
+    /**
+     * @param path 数组的键路径，必须是{@link #streamedLists() 直接读取的数组}之一
+     * @return 由适配器读取的数组元素，响应中没有此数组时返回 {@code null}
+     * @since 1.0.1
+     */
+    public <E> List<E> getStreamedList(JsonPath path) {
+        getResponseBodyJson();
+        return parsedResponse == null ? null : parsedResponse.getList(path);
+    }
+
+    /**
+     * 释放响应文本和 JSON 树，并关闭响应。释放后不能再读取响应体，{@link #parse()} 也不会再检查错误，
+     * 因此释放前应已完成解析。
+     *
+     * @since 1.0.1
+     */
+    public void release() {
+        responseBody = null;
+        responseBodyJson = null;
+        parsedResponse = null;
+        released = true;
+        response.close();
+    }
+
+    /**
+     * @return 响应是否已被{@link #release() 释放}
+     * @since 1.0.1
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Response of " + actionDescription + " has been released");
+        }
+    }
+
     /**
      * @since 1.0.1
      */
@@ -100,8 +173,13 @@ public abstract class ActionResponse<R extends ActionRequest<?>, T> {
             }
             ActionResponse<R, T> newResponse = (ActionResponse<R, T>) request.execute();
             responseBody = null;
+            responseBodyJson = null;
+            parsedResponse = null;
+            // 失败的响应已不再需要，关闭以归还连接
+            response.close();
             response = newResponse.getResponse();
             beforeParseBody();
+            return;
         }
         if (expectedApiExceptions.containsKey(code)) {
             expectedApiExceptions.get(code).accept(code, info);
@@ -114,6 +192,9 @@ public abstract class ActionResponse<R extends ActionRequest<?>, T> {
      * @since 1.0.1
      */
     protected void beforeParseBody() {
+        if (released) {
+            return;
+        }
         getResponseBodyJson();
         checkError();
     }
@@ -12,13 +12,41 @@ import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
  * 一条日志事件。
  *
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class LogEntry {
     public int ids;
+    /**
+     * @since 1.0.1
+     */
+    public long logid;
+    /**
+     * 日志对应页面的ID，页面已被删除时为 {@code 0}。
+     *
+     * @since 1.0.1
+     */
+    public long pageid;
+    /**
+     * 记录日志时页面的ID。
+     *
+     * @since 1.0.1
+     */
+    public long logpage;
     public String title;
     public LogType type;
+    /**
+     * 日志的具体操作，例如删除日志中的 {@code delete}、{@code restore}。
+     *
+     * @since 1.0.1
+     */
+    public String action;
+    /**
+     * 日志的附加参数，例如移动日志中的 {@code target_title}。
+     *
+     * @since 1.0.1
+     */
+    public JsonObject params;
     public String user;
     public int userid;
     public Instant timestamp;
@@ -0,0 +1,23 @@
+package top.spco.spcobot.wiki;
+
+/**
+ * 以用户或机器人身份创建Wiki实例时的登录方式。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public enum LoginMode {
+    /**
+     * 在创建Wiki实例时同步登录，登录完成后才返回。
+     */
+    EAGER,
+    /**
+     * 创建Wiki实例时不登录，直到第一次写操作或需要用户信息、权限、令牌的请求时才登录。只读的任务不会产生任何登录请求。
+     */
+    LAZY,
+    /**
+     * 创建Wiki实例时立即返回，并在后台同时开始登录、获取站点信息和获取用户信息，只在实际需要结果时才等待。
+     */
+    PREFETCH
+}
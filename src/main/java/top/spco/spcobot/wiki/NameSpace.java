@@ -7,16 +7,20 @@ import top.spco.spcobot.wiki.action.parameter.Timestamp;
 import top.spco.spcobot.wiki.util.CollectionUtil;
 import top.spco.spcobot.wiki.util.ParamUtil;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public final class NameSpace {
-    private static final HashMap<Integer, NameSpace> mapping = new HashMap<>();
+    /**
+     * 以命名空间ID为下标的注册表，注册时复制整个数组，因此读取时无需加锁。
+     */
+    private static volatile NameSpace[] registry = new NameSpace[0];
     /**
      * 主空间，是标准命名空间。
      *
@@ -307,17 +311,57 @@ public final class NameSpace {
     public final int value;
 
     public NameSpace(int value) {
+        this(value, value >= 0);
+    }
+
+    private NameSpace(int value, boolean register) {
         this.value = value;
-        if (value >= 0) {
-            mapping.put(value, this);
+        if (register) {
+            register(this);
         }
     }
 
+    private static synchronized void register(NameSpace nameSpace) {
+        NameSpace[] copy = Arrays.copyOf(registry, Math.max(registry.length, nameSpace.value + 1));
+        copy[nameSpace.value] = nameSpace;
+        registry = copy;
+    }
+
+    /**
+     * 获取指定ID的命名空间。
+     * <p>
+     * 预定义的命名空间（包括 {@link #ALL}）总是返回同一个实例。对于未预定义的命名空间（例如某个Wiki特有的命名空间），
+     * 每次调用都会返回一个新的、不会被注册的实例，而不是抛出异常，因此应使用 {@link #equals(Object)} 比较。
+     * 同一个Wiki的命名空间实例及其名称等信息可以通过 {@link Wiki#getNameSpaceRegistry()} 获取。
+     *
+     * @param value 命名空间ID
+     * @return 命名空间
+     * @since 0.1.0
+     */
     public static NameSpace from(int value) {
-        if (mapping.containsKey(value)) {
-            return mapping.get(value);
+        NameSpace[] current = registry;
+        if (value >= 0 && value < current.length && current[value] != null) {
+            return current[value];
         }
-        throw new IllegalArgumentException("Unknown namespace value: " + value);
+        if (value == ALL.value) {
+            return ALL;
+        }
+        return new NameSpace(value, false);
+    }
+
+    /**
+     * ID相同的命名空间相等。
+     *
+     * @since 1.0.1
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof NameSpace nameSpace && value == nameSpace.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
     }
 
     @Override
@@ -335,7 +379,7 @@ public final class NameSpace {
      */
     @Deprecated
     public static NameSpace[] allNameSpaces() {
-        return mapping.values().toArray(new NameSpace[0]);
+        return Arrays.stream(registry).filter(Objects::nonNull).toArray(NameSpace[]::new);
     }
 
     public static String toApiParam(boolean supportAll, NameSpace... nameSpaces) {
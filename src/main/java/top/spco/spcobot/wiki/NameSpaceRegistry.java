@@ -0,0 +1,176 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import top.spco.spcobot.wiki.util.JsonUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 某个Wiki的命名空间表，由站点信息中的 {@code namespaces} 和 {@code namespacealiases} 构建。
+ * <p>
+ * 按ID查找时直接索引数组，按名称查找时忽略大小写，并将下划线视为空格。构建后不可变。
+ * <p>
+ * 此Wiki特有的命名空间的 {@link NameSpace} 实例由此表持有，不会注册到全局，因此不会影响其他Wiki。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class NameSpaceRegistry {
+    /**
+     * 最小的命名空间ID为 {@code -2}（媒体）。
+     */
+    private static final int OFFSET = 2;
+    private final NameSpaceInfo[] byId;
+    private final Map<String, NameSpaceInfo> byName = new HashMap<>();
+    private final List<NameSpaceInfo> all;
+
+    private NameSpaceRegistry(List<NameSpaceInfo> nameSpaces, Map<String, Integer> aliases) {
+        int max = -OFFSET;
+        for (NameSpaceInfo info : nameSpaces) {
+            if (info.id() < -OFFSET) {
+                throw new IllegalArgumentException("Invalid namespace ID: " + info.id());
+            }
+            max = Math.max(max, info.id());
+        }
+        this.byId = new NameSpaceInfo[max + OFFSET + 1];
+        for (NameSpaceInfo info : nameSpaces) {
+            byId[info.id() + OFFSET] = info;
+            byName.put(normalize(info.name()), info);
+            if (info.canonicalName() != null) {
+                byName.putIfAbsent(normalize(info.canonicalName()), info);
+            }
+        }
+        for (var alias : aliases.entrySet()) {
+            NameSpaceInfo info = get(alias.getValue());
+            if (info != null) {
+                byName.putIfAbsent(normalize(alias.getKey()), info);
+            }
+        }
+        this.all = Collections.unmodifiableList(new ArrayList<>(nameSpaces));
+    }
+
+    /**
+     * 从站点信息构建命名空间表。
+     *
+     * @param query 站点信息响应中的 {@code query} 对象，需要包含 {@code namespaces}，{@code namespacealiases} 可选
+     * @return 命名空间表
+     * @since 1.0.1
+     */
+    public static NameSpaceRegistry fromSiteInfo(JsonObject query) {
+        List<NameSpaceInfo> nameSpaces = new ArrayList<>();
+        for (JsonElement element : query.getAsJsonObject("namespaces").asMap().values()) {
+            JsonObject json = element.getAsJsonObject();
+            nameSpaces.add(new NameSpaceInfo(
+                    json.get("id").getAsInt(),
+                    nameOf(json),
+                    json.has("canonical") ? json.get("canonical").getAsString() : null,
+                    JsonUtil.flag(json, "content"),
+                    JsonUtil.flag(json, "subpages"),
+                    NameSpace.from(json.get("id").getAsInt())));
+        }
+        nameSpaces.sort((a, b) -> Integer.compare(a.id(), b.id()));
+        Map<String, Integer> aliases = new HashMap<>();
+        if (query.has("namespacealiases")) {
+            for (JsonElement element : query.getAsJsonArray("namespacealiases")) {
+                JsonObject json = element.getAsJsonObject();
+                aliases.put(nameOf(json), json.get("id").getAsInt());
+            }
+        }
+        return new NameSpaceRegistry(nameSpaces, aliases);
+    }
+
+    private static String nameOf(JsonObject json) {
+        // formatversion=1 中命名空间和别名的名称都位于 "*"；formatversion=2 中命名空间的名称位于 "name"，别名位于 "alias"
+        for (String key : new String[]{"name", "alias", "*"}) {
+            JsonElement name = json.get(key);
+            if (name != null && !name.isJsonNull()) {
+                return name.getAsString();
+            }
+        }
+        throw new IllegalArgumentException("Name space entry has no name: " + json);
+    }
+
+    private static String normalize(String name) {
+        return name.replace('_', ' ').trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 按ID查找命名空间。
+     *
+     * @param id 命名空间ID
+     * @return 命名空间，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public NameSpaceInfo get(int id) {
+        int index = id + OFFSET;
+        return index >= 0 && index < byId.length ? byId[index] : null;
+    }
+
+    /**
+     * 按本地名称、规范名称或别名查找命名空间。
+     *
+     * @param name 命名空间的名称
+     * @return 命名空间，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public NameSpaceInfo get(String name) {
+        return byName.get(normalize(name));
+    }
+
+    /**
+     * 获取页面标题所在的命名空间。
+     *
+     * @param title 页面标题
+     * @return 页面所在的命名空间，标题没有命名空间前缀时返回主命名空间
+     * @since 1.0.1
+     */
+    public NameSpaceInfo nameSpaceOf(String title) {
+        int colon = title.indexOf(':');
+        if (colon > 0) {
+            NameSpaceInfo info = get(title.substring(0, colon));
+            if (info != null) {
+                return info;
+            }
+        }
+        return get(0);
+    }
+
+    /**
+     * @return 按ID排序的所有命名空间
+     * @since 1.0.1
+     */
+    public List<NameSpaceInfo> all() {
+        return all;
+    }
+
+    /**
+     * 可以包含页面的命名空间（ID不小于 {@code 0}），可直接用作请求参数。
+     *
+     * @return 按ID排序的命名空间
+     * @since 1.0.1
+     */
+    public NameSpace[] nameSpaces() {
+        return all.stream().filter(info -> info.id() >= 0).map(NameSpaceInfo::nameSpace).toArray(NameSpace[]::new);
+    }
+
+    /**
+     * 一个命名空间的信息。
+     *
+     * @param id            命名空间ID
+     * @param name          本地名称，主命名空间为空字符串
+     * @param canonicalName 规范（英文）名称，没有时为 {@code null}
+     * @param content       是否为内容命名空间
+     * @param subpages      是否启用了子页面
+     * @param nameSpace     对应的 {@link NameSpace}，预定义的命名空间为其常量，其余为此命名空间表持有的实例
+     * @since 1.0.1
+     */
+    public record NameSpaceInfo(int id, String name, String canonicalName, boolean content, boolean subpages, NameSpace nameSpace) {
+    }
+}
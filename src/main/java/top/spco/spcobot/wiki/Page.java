@@ -5,10 +5,11 @@ import top.spco.spcobot.wiki.util.JsonUtil;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class Page extends WikiBase {
@@ -50,6 +51,26 @@ public class Page extends WikiBase {
         return title;
     }
 
+    /**
+     * 异步获取页面内容，与其他页面的请求一起经 {@link Wiki#loadPageText(String)} 批量获取。
+     *
+     * @return 页面内容
+     * @since 1.0.1
+     */
+    public CompletableFuture<String> loadText() {
+        return wiki.loadPageText(title);
+    }
+
+    /**
+     * 异步获取页面的最新修订状态，与其他页面的请求一起经 {@link Wiki#loadPageState(String)} 批量获取。
+     *
+     * @return 页面的修订状态
+     * @since 1.0.1
+     */
+    public CompletableFuture<PageState> loadState() {
+        return wiki.loadPageState(title);
+    }
+
     @Override
     public String toString() {
         return title;
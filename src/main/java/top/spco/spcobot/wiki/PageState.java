@@ -0,0 +1,22 @@
+package top.spco.spcobot.wiki;
+
+/**
+ * 页面的最新修订状态，由 {@code prop=info} 查询得到。
+ *
+ * @param title     查询时传入的页面标题
+ * @param pageId    页面ID，页面不存在时为 {@code 0}
+ * @param lastRevId 最新修订版本的ID，页面不存在时为 {@code 0}
+ * @param touched   页面最后一次被更新（包括缓存失效）的时间戳，页面不存在时为 {@code null}
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public record PageState(String title, long pageId, long lastRevId, String touched) {
+    /**
+     * @return 页面是否不存在
+     * @since 1.0.1
+     */
+    public boolean missing() {
+        return pageId == 0;
+    }
+}
@@ -0,0 +1,294 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import top.spco.spcobot.wiki.util.JsonPath;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 只解析一次的 API 响应。
+ * <p>
+ * 响应体直接从响应流解析为 {@code JsonObject}，之后的所有读取都通过{@link JsonPath 键路径}在同一个对象上完成，
+ * 不会像 {@link top.spco.spcobot.wiki.util.JsonUtil#checkAndGetAsString(String, String...)} 那样每次读取都重新解析整个响应体。
+ * <p>
+ * 对于列表数据，可以在读取时为键路径指定 {@link TypeAdapter}：这些路径上的数组元素直接从响应流交给适配器，
+ * 不会先构建 {@code JsonObject}，读取后通过 {@link #getList(JsonPath)} 获取；这些路径不会出现在 {@link #json()} 中。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class ParsedResponse {
+    public static final JsonPath ERROR_CODE = JsonPath.of("error", "code");
+    public static final JsonPath ERROR_INFO = JsonPath.of("error", "info");
+    private final JsonObject json;
+    private final Map<JsonPath, List<?>> lists;
+
+    /**
+     * @param json 已解析的响应体
+     * @since 1.0.1
+     */
+    public ParsedResponse(JsonObject json) {
+        this(json, Map.of());
+    }
+
+    private ParsedResponse(JsonObject json, Map<JsonPath, List<?>> lists) {
+        this.json = json;
+        this.lists = lists;
+    }
+
+    /**
+     * 读取并解析响应体。
+     *
+     * @param response   响应
+     * @param actionName 所执行的操作名称
+     * @return 解析后的响应
+     * @throws IOException      如果读取响应体失败
+     * @throws RuntimeException 如果响应体为空或不是 JSON 对象
+     * @since 1.0.1
+     */
+    public static ParsedResponse read(Response response, String actionName) throws IOException {
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            throw new RuntimeException("Failed to " + actionName);
+        }
+        try (Reader reader = responseBody.charStream()) {
+            return new ParsedResponse(JsonParser.parseReader(reader).getAsJsonObject());
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new RuntimeException("Failed to " + actionName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取并解析响应体，指定路径上的数组元素直接由对应的适配器读取。
+     *
+     * @param response   响应
+     * @param actionName 所执行的操作名称
+     * @param adapters   数组的键路径及其元素的适配器
+     * @return 解析后的响应
+     * @throws IOException      如果读取响应体失败
+     * @throws RuntimeException 如果响应体为空或不是 JSON 对象
+     * @since 1.0.1
+     */
+    public static ParsedResponse read(Response response, String actionName, Map<JsonPath, ? extends TypeAdapter<?>> adapters) throws IOException {
+        if (adapters.isEmpty()) {
+            return read(response, actionName);
+        }
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            throw new RuntimeException("Failed to " + actionName);
+        }
+        try (JsonReader reader = new JsonReader(responseBody.charStream())) {
+            return read(reader, adapters);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new RuntimeException("Failed to " + actionName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 解析响应体文本。
+     *
+     * @param body 响应体
+     * @return 解析后的响应
+     * @since 1.0.1
+     */
+    public static ParsedResponse parse(String body) {
+        return new ParsedResponse(JsonParser.parseString(body).getAsJsonObject());
+    }
+
+    /**
+     * 解析响应体文本，指定路径上的数组元素直接由对应的适配器读取。
+     *
+     * @param body     响应体
+     * @param adapters 数组的键路径及其元素的适配器
+     * @return 解析后的响应
+     * @since 1.0.1
+     */
+    public static ParsedResponse parse(String body, Map<JsonPath, ? extends TypeAdapter<?>> adapters) {
+        if (adapters.isEmpty()) {
+            return parse(body);
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            return read(reader, adapters);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse response body: " + e.getMessage(), e);
+        }
+    }
+
+    private static ParsedResponse read(JsonReader reader, Map<JsonPath, ? extends TypeAdapter<?>> adapters) throws IOException {
+        reader.setLenient(true);
+        // 需要逐个键读取的对象，其余的值直接解析为 JSON 树
+        Set<JsonPath> parents = new HashSet<>();
+        for (JsonPath path : adapters.keySet()) {
+            for (JsonPath parent = path.parent(); parent != null; parent = parent.parent()) {
+                parents.add(parent);
+            }
+        }
+        Map<JsonPath, List<?>> lists = new HashMap<>();
+        JsonObject json = readObject(reader, null, parents, adapters, lists);
+        return new ParsedResponse(json, lists);
+    }
+
+    private static JsonObject readObject(JsonReader reader, JsonPath path, Set<JsonPath> parents,
+                                         Map<JsonPath, ? extends TypeAdapter<?>> adapters, Map<JsonPath, List<?>> lists) throws IOException {
+        JsonObject object = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonPath child = path == null ? JsonPath.of(name) : path.resolve(name);
+            JsonToken token = reader.peek();
+            TypeAdapter<?> adapter = adapters.get(child);
+            if (adapter != null && token == JsonToken.BEGIN_ARRAY) {
+                List<Object> list = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    list.add(adapter.read(reader));
+                }
+                reader.endArray();
+                lists.put(child, list);
+            } else if (token == JsonToken.BEGIN_OBJECT && parents.contains(child)) {
+                object.add(name, readObject(reader, child, parents, adapters, lists));
+            } else {
+                object.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+        return object;
+    }
+
+    /**
+     * @return 解析后的响应体
+     * @since 1.0.1
+     */
+    public JsonObject json() {
+        return json;
+    }
+
+    /**
+     * @return 响应体顶层是否包含此键
+     * @since 1.0.1
+     */
+    public boolean has(String key) {
+        return json.has(key);
+    }
+
+    /**
+     * @return 键路径指向的元素，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonElement get(JsonPath path) {
+        return path.get(json);
+    }
+
+    /**
+     * @return 键路径指向的字符串，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String getString(JsonPath path) {
+        return path.getString(json);
+    }
+
+    /**
+     * @return 键路径指向的对象，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonObject getObject(JsonPath path) {
+        return path.getObject(json);
+    }
+
+    /**
+     * @return 键路径指向的数组，不存在时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonArray getArray(JsonPath path) {
+        return path.getArray(json);
+    }
+
+    /**
+     * @return 读取时由适配器读取的键路径上的数组元素，响应中没有此数组时返回 {@code null}
+     * @since 1.0.1
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(JsonPath path) {
+        return (List<T>) lists.get(path);
+    }
+
+    /**
+     * @return 读取时由适配器读取的键路径上的数组元素
+     * @throws IllegalArgumentException 如果响应中没有此数组
+     * @since 1.0.1
+     */
+    public <T> @NotNull List<T> getNonNullList(JsonPath path) {
+        List<T> list = getList(path);
+        if (list == null) {
+            throw new IllegalArgumentException("Failed to get non-null list at " + path + ", original json: " + json);
+        }
+        return list;
+    }
+
+    /**
+     * @return 键路径指向的元素
+     * @throws IllegalArgumentException 如果键路径未找到或值为 {@code null}
+     * @since 1.0.1
+     */
+    public @NotNull JsonElement getNonNull(JsonPath path) {
+        JsonElement element = path.get(json);
+        if (element == null) {
+            throw new IllegalArgumentException("Failed to get non-null element at " + path + ", original json: " + json);
+        }
+        return element;
+    }
+
+    /**
+     * @return 键路径指向的字符串
+     * @throws IllegalArgumentException 如果键路径未找到或值为 {@code null}
+     * @since 1.0.1
+     */
+    public @NotNull String getNonNullString(JsonPath path) {
+        String string = path.getString(json);
+        if (string == null) {
+            throw new IllegalArgumentException("Failed to get non-null string at " + path + ", original json: " + json);
+        }
+        return string;
+    }
+
+    /**
+     * @return API 错误代码，没有错误时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String errorCode() {
+        return ERROR_CODE.getString(json);
+    }
+
+    /**
+     * @return API 错误信息，没有错误时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String errorInfo() {
+        return ERROR_INFO.getString(json);
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+}
@@ -7,7 +7,7 @@ import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
 
 /**
  * @author SpCo
- * @version 0.1.2
+ * @version 1.0.1
  * @since 0.1.0
  */
 public record RecentChange(@SerializedName("rcid") int id,
@@ -17,7 +17,18 @@ public record RecentChange(@SerializedName("rcid") int id,
                            String title,
                            @SerializedName("ns") NameSpace nameSpace,
                            String user,
-                           @SerializedName("comment") String summary) {
+                           @SerializedName("comment") String summary,
+                           @SerializedName("type") String type,
+                           @SerializedName("pageid") int pageId) {
+    /**
+     * 创建一条不含更改类型和页面ID的最近更改。
+     *
+     * @since 0.1.0
+     */
+    public RecentChange(int id, int revisionId, int oldRevisionId, String timestamp, String title, NameSpace nameSpace, String user, String summary) {
+        this(id, revisionId, oldRevisionId, timestamp, title, nameSpace, user, summary, null, 0);
+    }
+
     public static RecentChange fromJson(String json) {
         return GSON.fromJson(json, RecentChange.class);
     }
@@ -0,0 +1,244 @@
+package top.spco.spcobot.wiki;
+
+import com.google.common.collect.MapMaker;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.action.parameter.TokenType;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
+
+/**
+ * 将登录会话（Cookie 和令牌）加密保存到文件中，使进程重启后可以直接复用会话，而不必重新登录。
+ * <p>
+ * 文件使用 AES-GCM 加密，密钥由口令经 PBKDF2 派生，每次保存时使用新的盐和初始向量。
+ * 会话与 API 地址和用户名绑定，读取时两者不匹配则视为没有会话。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class SessionStore {
+    private static final Logger LOGGER = LogUtil.getLogger();
+    private static final byte[] MAGIC = {'S', 'P', 'C', 'S'};
+    private static final byte VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KEY_ITERATIONS = 120_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private final Path file;
+    private final char[] passphrase;
+    /**
+     * 每个 Cookie 对象的绝对过期时间。{@link HttpCookie#getMaxAge()} 是相对于 Cookie 创建时的有效期，而创建时间无法获取，
+     * 因此在第一次读取或保存时记录过期时间，之后的保存沿用此时间，不会每保存一次就延长一次有效期。键按对象比较并被弱引用。
+     */
+    private final Map<HttpCookie, Long> expiries = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * @param file       会话文件，所在目录不存在时会被创建
+     * @param passphrase 用于加密会话的口令
+     * @since 1.0.1
+     */
+    public SessionStore(Path file, char[] passphrase) {
+        this.file = file;
+        this.passphrase = passphrase.clone();
+    }
+
+    /**
+     * 读取会话，并将其中未过期的 Cookie 放入 {@code cookies}。
+     *
+     * @param api      API 地址
+     * @param username 用户名
+     * @param cookies  要放入 Cookie 的存储
+     * @return 会话中保存的令牌，文件不存在、无法解密、无法解析或与 API 地址和用户名不匹配时返回 {@code null}
+     * @since 1.0.1
+     */
+    public Map<TokenType, String> load(String api, String username, CookieStore cookies) {
+        try {
+            JsonObject session = GSON.fromJson(new String(decrypt(Files.readAllBytes(file)), StandardCharsets.UTF_8), JsonObject.class);
+            if (!api.equals(session.get("api").getAsString()) || !username.equals(session.get("username").getAsString())) {
+                return null;
+            }
+            // 先解析整个会话，解析失败时不会留下一半的 Cookie
+            long now = System.currentTimeMillis();
+            List<Map.Entry<URI, HttpCookie>> restored = new ArrayList<>();
+            for (JsonElement element : session.getAsJsonArray("cookies")) {
+                JsonObject json = element.getAsJsonObject();
+                long expires = json.get("expires").getAsLong();
+                if (expires >= 0 && expires <= now) {
+                    continue;
+                }
+                HttpCookie cookie = new HttpCookie(json.get("name").getAsString(), json.get("value").getAsString());
+                if (json.has("domain")) {
+                    cookie.setDomain(json.get("domain").getAsString());
+                }
+                if (json.has("path")) {
+                    cookie.setPath(json.get("path").getAsString());
+                }
+                cookie.setSecure(json.get("secure").getAsBoolean());
+                cookie.setHttpOnly(json.get("httpOnly").getAsBoolean());
+                cookie.setMaxAge(expires < 0 ? -1 : (expires - now) / 1000);
+                if (expires >= 0) {
+                    expiries.put(cookie, expires);
+                }
+                restored.add(Map.entry(URI.create(json.get("uri").getAsString()), cookie));
+            }
+            Map<TokenType, String> tokens = new EnumMap<>(TokenType.class);
+            for (Map.Entry<String, JsonElement> token : session.getAsJsonObject("tokens").entrySet()) {
+                tokens.put(TokenType.valueOf(token.getKey()), token.getValue().getAsString());
+            }
+            restored.forEach(cookie -> cookies.add(cookie.getKey(), cookie.getValue()));
+            return tokens;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // 文件损坏、被截断、格式较旧或令牌类型已更改时都视为没有会话
+            LOGGER.warn("读取登录会话失败：{}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存会话。
+     *
+     * @param api      API 地址
+     * @param username 用户名
+     * @param cookies  当前的 Cookie 存储
+     * @param tokens   当前缓存的令牌
+     * @throws UncheckedIOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void save(String api, String username, CookieStore cookies, Map<TokenType, String> tokens) {
+        JsonObject session = new JsonObject();
+        session.addProperty("api", api);
+        session.addProperty("username", username);
+        JsonArray cookiesJson = new JsonArray();
+        long now = System.currentTimeMillis();
+        for (URI uri : cookies.getURIs()) {
+            for (HttpCookie cookie : cookies.get(uri)) {
+                JsonObject json = new JsonObject();
+                json.addProperty("uri", uri.toString());
+                json.addProperty("name", cookie.getName());
+                json.addProperty("value", cookie.getValue());
+                if (cookie.getDomain() != null) {
+                    json.addProperty("domain", cookie.getDomain());
+                }
+                if (cookie.getPath() != null) {
+                    json.addProperty("path", cookie.getPath());
+                }
+                json.addProperty("secure", cookie.getSecure());
+                json.addProperty("httpOnly", cookie.isHttpOnly());
+                json.addProperty("expires", cookie.getMaxAge() < 0 ? -1 : expiries.computeIfAbsent(cookie, c -> now + c.getMaxAge() * 1000));
+                cookiesJson.add(json);
+            }
+        }
+        session.add("cookies", cookiesJson);
+        JsonObject tokensJson = new JsonObject();
+        tokens.forEach((type, token) -> {
+            if (token != null) {
+                tokensJson.addProperty(type.name(), token);
+            }
+        });
+        session.add("tokens", tokensJson);
+        try {
+            byte[] data = encrypt(GSON.toJson(session).getBytes(StandardCharsets.UTF_8));
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "session-", ".tmp");
+            Files.write(temp, data);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save session: " + e.getMessage(), e);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to save session: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 删除保存的会话。
+     *
+     * @since 1.0.1
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("删除登录会话失败：{}", file, e);
+        }
+    }
+
+    private byte[] encrypt(byte[] plain) throws GeneralSecurityException {
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] iv = new byte[IV_LENGTH];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, deriveKey(salt), new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(MAGIC);
+        byte[] encrypted = cipher.doFinal(plain);
+        return ByteBuffer.allocate(MAGIC.length + 1 + SALT_LENGTH + IV_LENGTH + encrypted.length)
+                .put(MAGIC).put(VERSION).put(salt).put(iv).put(encrypted).array();
+    }
+
+    private byte[] decrypt(byte[] data) throws GeneralSecurityException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte[] magic = new byte[MAGIC.length];
+        if (data.length < MAGIC.length + 1 + SALT_LENGTH + IV_LENGTH) {
+            throw new GeneralSecurityException("Unrecognized session file");
+        }
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.get() != VERSION) {
+            throw new GeneralSecurityException("Unrecognized session file");
+        }
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] iv = new byte[IV_LENGTH];
+        buffer.get(salt).get(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, deriveKey(salt), new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(MAGIC);
+        return cipher.doFinal(data, buffer.position(), buffer.remaining());
+    }
+
+    private SecretKey deriveKey(byte[] salt) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, KEY_ITERATIONS, 256);
+        try {
+            byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(key, "AES");
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
+
+/**
+ * 某一时刻的站点信息快照，包括站点的基本信息、命名空间和支持的语言。
+ * <p>
+ * 快照可以保存到磁盘，在下次启动时直接读取，避免重复请求站点信息。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class SiteInfo {
+    private static final Logger LOGGER = LogUtil.getLogger();
+    /**
+     * 快照所需的站点信息。
+     *
+     * @since 1.0.1
+     */
+    public static final String[] PROPS = {"general", "namespaces", "namespacealiases", "languages"};
+    private final JsonObject query;
+    private final Instant fetchedAt;
+    private final Set<String> languages;
+    private final NameSpaceRegistry nameSpaces;
+
+    /**
+     * @param query     站点信息响应中的 {@code query} 对象，需要包含 {@link #PROPS} 中的所有信息
+     * @param fetchedAt 获取站点信息的时间
+     * @since 1.0.1
+     */
+    public SiteInfo(JsonObject query, Instant fetchedAt) {
+        this.query = query;
+        this.fetchedAt = fetchedAt;
+        Set<String> languages = new HashSet<>();
+        for (JsonElement language : query.getAsJsonArray("languages")) {
+            languages.add(language.getAsJsonObject().get("code").getAsString());
+        }
+        this.languages = Collections.unmodifiableSet(languages);
+        this.nameSpaces = NameSpaceRegistry.fromSiteInfo(query);
+    }
+
+    /**
+     * 从磁盘读取快照。
+     *
+     * @param file 快照文件
+     * @return 快照，文件不存在或已损坏时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static SiteInfo read(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject json = GSON.fromJson(reader, JsonObject.class);
+            return new SiteInfo(json.getAsJsonObject("query"), Instant.ofEpochMilli(json.get("fetched").getAsLong()));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("读取站点信息快照失败：{}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 将快照保存到磁盘。
+     *
+     * @param file 快照文件，所在目录不存在时会被创建
+     * @throws UncheckedIOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(Path file) {
+        JsonObject json = new JsonObject();
+        json.addProperty("fetched", fetchedAt.toEpochMilli());
+        json.add("query", query);
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "siteinfo-", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(json, writer);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write site info: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return 站点信息中的 {@code general} 对象
+     * @since 1.0.1
+     */
+    public JsonObject general() {
+        return query.getAsJsonObject("general");
+    }
+
+    /**
+     * @return MediaWiki 支持的语言代码
+     * @since 1.0.1
+     */
+    public Set<String> languages() {
+        return languages;
+    }
+
+    /**
+     * @return 命名空间表
+     * @since 1.0.1
+     */
+    public NameSpaceRegistry nameSpaces() {
+        return nameSpaces;
+    }
+
+    /**
+     * @return 获取站点信息的时间
+     * @since 1.0.1
+     */
+    public Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * 快照是否已经过期。
+     *
+     * @param maxAge 快照的最长有效时间
+     * @return 获取站点信息的时间早于 {@code maxAge} 之前时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean isStale(Duration maxAge) {
+        return fetchedAt.plus(maxAge).isBefore(Instant.now());
+    }
+}
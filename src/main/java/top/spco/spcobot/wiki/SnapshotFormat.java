@@ -0,0 +1,112 @@
+package top.spco.spcobot.wiki;
+
+/**
+ * 快照格式中的字段编号，由 {@link SnapshotWriter} 和 {@link SnapshotReader} 共用。
+ * <p>
+ * 编号与 {@code src/main/proto/wiki_snapshot.proto} 中的定义一致。该文件只作为格式的说明，不参与构建，
+ * 修改此处的编号时需要同时修改该文件。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+final class SnapshotFormat {
+    /*
+     * Record 中各类记录的字段编号
+     */
+    static final int PAGE = 1;
+    static final int REVISION = 2;
+    static final int RECENT_CHANGE = 3;
+    static final int LOG_ENTRY = 4;
+    static final int ABUSE_FILTER_LOG_ENTRY = 5;
+    static final int USER = 6;
+
+    private SnapshotFormat() {
+    }
+
+    static final class PageField {
+        static final int PAGE_ID = 1;
+        static final int TITLE = 2;
+        static final int NAMESPACE = 3;
+
+        private PageField() {
+        }
+    }
+
+    static final class RevisionField {
+        static final int ID = 1;
+        static final int PARENT_ID = 2;
+        static final int TIMESTAMP = 3;
+        static final int COMMENT = 4;
+        static final int USER = 5;
+
+        private RevisionField() {
+        }
+    }
+
+    static final class RecentChangeField {
+        static final int ID = 1;
+        static final int REVISION_ID = 2;
+        static final int OLD_REVISION_ID = 3;
+        static final int TIMESTAMP = 4;
+        static final int TITLE = 5;
+        static final int NAMESPACE = 6;
+        static final int USER = 7;
+        static final int SUMMARY = 8;
+        static final int TYPE = 9;
+        static final int PAGE_ID = 10;
+
+        private RecentChangeField() {
+        }
+    }
+
+    static final class LogEntryField {
+        static final int ID = 1;
+        static final int PAGE_ID = 2;
+        static final int LOG_PAGE = 3;
+        static final int TITLE = 4;
+        static final int TYPE = 5;
+        static final int ACTION = 6;
+        static final int PARAMS = 7;
+        static final int USER = 8;
+        static final int USER_ID = 9;
+        static final int TIMESTAMP_SECONDS = 10;
+        static final int TIMESTAMP_NANOS = 11;
+        static final int SUMMARY = 12;
+        static final int PARSED_COMMENT = 13;
+        static final int TAGS = 14;
+        static final int IDS = 15;
+
+        private LogEntryField() {
+        }
+    }
+
+    static final class AbuseFilterLogEntryField {
+        static final int ID = 1;
+        static final int FILTER_ID = 2;
+        static final int FILTER = 3;
+        static final int USER = 4;
+        static final int NAMESPACE = 5;
+        static final int TITLE = 6;
+        static final int ACTION = 7;
+        static final int RESULT = 8;
+        static final int TIMESTAMP = 9;
+        static final int DETAILS = 10;
+
+        private AbuseFilterLogEntryField() {
+        }
+    }
+
+    static final class UserField {
+        static final int NAME = 1;
+        static final int PROPERTIES = 2;
+        /*
+         * properties 中每一项的键和值
+         */
+        static final int PROPERTY_KEY = 1;
+        static final int PROPERTY_VALUE = 2;
+
+        private UserField() {
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import top.spco.spcobot.wiki.action.filter.AbuseFilterLogEntry;
+import top.spco.spcobot.wiki.action.parameter.LogType;
+import top.spco.spcobot.wiki.action.parameter.UserProperty;
+import top.spco.spcobot.wiki.user.User;
+import top.spco.spcobot.wiki.util.StringPool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static top.spco.spcobot.wiki.SnapshotFormat.*;
+import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
+
+/**
+ * 依次读取 {@link SnapshotWriter} 写入的记录。未知类型的记录和未知字段会被跳过，因此可以读取较新版本写入的快照。
+ * <p>
+ * 读取时不会把整个流读入内存，标题、用户名等重复出现的字符串经 {@link StringPool#SHARED} 去重。此类不是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class SnapshotReader implements Closeable {
+    private static final int VARINT = WireFormat.WIRETYPE_VARINT;
+    private static final int LENGTH_DELIMITED = WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final Map<String, UserProperty> USER_PROPERTIES = new HashMap<>();
+    private final Wiki wiki;
+    private final InputStream in;
+    private final CodedInputStream input;
+
+    static {
+        for (UserProperty property : UserProperty.values()) {
+            USER_PROPERTIES.put(property.value, property);
+        }
+    }
+
+    /**
+     * @param wiki 读取的页面和用户所属的Wiki实例
+     * @param in   要读取的流，在 {@link #close()} 时关闭
+     * @since 1.0.1
+     */
+    public SnapshotReader(Wiki wiki, InputStream in) {
+        this.wiki = wiki;
+        this.in = in;
+        this.input = CodedInputStream.newInstance(in);
+    }
+
+    /**
+     * 读取下一条记录。
+     *
+     * @return {@link Page}、{@link Revision}、{@link RecentChange}、{@link LogEntry}、{@link AbuseFilterLogEntry} 或 {@link User}，
+     * 已到达流的末尾时返回 {@code null}
+     * @throws IOException 如果读取失败或数据已损坏
+     * @since 1.0.1
+     */
+    public Object read() throws IOException {
+        while (!input.isAtEnd()) {
+            // 大小限制是对整个流累计的，每条记录重新计数，使超过 2 GB 的快照也可以读取
+            input.resetSizeCounter();
+            int limit = input.pushLimit(input.readRawVarint32());
+            Object result = null;
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                if (WireFormat.getTagWireType(tag) != LENGTH_DELIMITED) {
+                    input.skipField(tag);
+                    continue;
+                }
+                int messageLimit = input.pushLimit(input.readRawVarint32());
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case PAGE -> result = readPage();
+                    case REVISION -> result = readRevision();
+                    case RECENT_CHANGE -> result = readRecentChange();
+                    case LOG_ENTRY -> result = readLogEntry();
+                    case ABUSE_FILTER_LOG_ENTRY -> result = readAbuseFilterLogEntry();
+                    case USER -> result = readUser();
+                    // 未知类型的记录不一定是可以解析的消息，按长度整体跳过
+                    default -> input.skipRawBytes(input.getBytesUntilLimit());
+                }
+                input.popLimit(messageLimit);
+            }
+            input.popLimit(limit);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取所有剩余的记录，并按类型交给访问者处理。
+     *
+     * @param visitor 访问者
+     * @throws IOException 如果读取失败或数据已损坏
+     * @since 1.0.1
+     */
+    public void readAll(Visitor visitor) throws IOException {
+        for (Object record = read(); record != null; record = read()) {
+            if (record instanceof Page page) {
+                visitor.page(page);
+            } else if (record instanceof Revision revision) {
+                visitor.revision(revision);
+            } else if (record instanceof RecentChange change) {
+                visitor.recentChange(change);
+            } else if (record instanceof LogEntry entry) {
+                visitor.logEntry(entry);
+            } else if (record instanceof AbuseFilterLogEntry entry) {
+                visitor.abuseFilterLogEntry(entry);
+            } else if (record instanceof User user) {
+                visitor.user(user);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Page readPage() throws IOException {
+        int pageId = 0;
+        String title = null;
+        NameSpace nameSpace = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case PageField.PAGE_ID << 3 | VARINT -> pageId = input.readInt32();
+                case PageField.TITLE << 3 | LENGTH_DELIMITED -> title = readPooledString();
+                case PageField.NAMESPACE << 3 | VARINT -> nameSpace = NameSpace.from(input.readInt32());
+                default -> input.skipField(tag);
+            }
+        }
+        return new Page(pageId, title, nameSpace, wiki);
+    }
+
+    private Revision readRevision() throws IOException {
+        int id = 0;
+        int parentId = 0;
+        String timestamp = null;
+        String comment = null;
+        String user = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case RevisionField.ID << 3 | VARINT -> id = input.readInt32();
+                case RevisionField.PARENT_ID << 3 | VARINT -> parentId = input.readInt32();
+                case RevisionField.TIMESTAMP << 3 | LENGTH_DELIMITED -> timestamp = input.readString();
+                case RevisionField.COMMENT << 3 | LENGTH_DELIMITED -> comment = input.readString();
+                case RevisionField.USER << 3 | LENGTH_DELIMITED -> user = readPooledString();
+                default -> input.skipField(tag);
+            }
+        }
+        return new Revision(id, parentId, timestamp, comment, user);
+    }
+
+    private RecentChange readRecentChange() throws IOException {
+        int id = 0;
+        int revisionId = 0;
+        int oldRevisionId = 0;
+        String timestamp = null;
+        String title = null;
+        NameSpace nameSpace = null;
+        String user = null;
+        String summary = null;
+        String type = null;
+        int pageId = 0;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case RecentChangeField.ID << 3 | VARINT -> id = input.readInt32();
+                case RecentChangeField.REVISION_ID << 3 | VARINT -> revisionId = input.readInt32();
+                case RecentChangeField.OLD_REVISION_ID << 3 | VARINT -> oldRevisionId = input.readInt32();
+                case RecentChangeField.TIMESTAMP << 3 | LENGTH_DELIMITED -> timestamp = input.readString();
+                case RecentChangeField.TITLE << 3 | LENGTH_DELIMITED -> title = readPooledString();
+                case RecentChangeField.NAMESPACE << 3 | VARINT -> nameSpace = NameSpace.from(input.readInt32());
+                case RecentChangeField.USER << 3 | LENGTH_DELIMITED -> user = readPooledString();
+                case RecentChangeField.SUMMARY << 3 | LENGTH_DELIMITED -> summary = input.readString();
+                case RecentChangeField.TYPE << 3 | LENGTH_DELIMITED -> type = readPooledString();
+                case RecentChangeField.PAGE_ID << 3 | VARINT -> pageId = input.readInt32();
+                default -> input.skipField(tag);
+            }
+        }
+        return new RecentChange(id, revisionId, oldRevisionId, timestamp, title, nameSpace, user, summary, type, pageId);
+    }
+
+    private LogEntry readLogEntry() throws IOException {
+        LogEntry entry = new LogEntry();
+        List<String> tags = null;
+        boolean hasTimestamp = false;
+        long seconds = 0;
+        int nanos = 0;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case LogEntryField.ID << 3 | VARINT -> entry.logid = input.readInt64();
+                case LogEntryField.PAGE_ID << 3 | VARINT -> entry.pageid = input.readInt64();
+                case LogEntryField.LOG_PAGE << 3 | VARINT -> entry.logpage = input.readInt64();
+                case LogEntryField.TITLE << 3 | LENGTH_DELIMITED -> entry.title = readPooledString();
+                case LogEntryField.TYPE << 3 | LENGTH_DELIMITED -> entry.type = LogType.toLogType(input.readString());
+                case LogEntryField.ACTION << 3 | LENGTH_DELIMITED -> entry.action = readPooledString();
+                case LogEntryField.PARAMS << 3 | LENGTH_DELIMITED -> entry.params = GSON.fromJson(input.readString(), JsonObject.class);
+                case LogEntryField.USER << 3 | LENGTH_DELIMITED -> entry.user = readPooledString();
+                case LogEntryField.USER_ID << 3 | VARINT -> entry.userid = input.readInt32();
+                case LogEntryField.TIMESTAMP_SECONDS << 3 | VARINT -> {
+                    hasTimestamp = true;
+                    seconds = input.readInt64();
+                }
+                case LogEntryField.TIMESTAMP_NANOS << 3 | VARINT -> {
+                    hasTimestamp = true;
+                    nanos = input.readInt32();
+                }
+                case LogEntryField.SUMMARY << 3 | LENGTH_DELIMITED -> entry.summary = input.readString();
+                case LogEntryField.PARSED_COMMENT << 3 | LENGTH_DELIMITED -> entry.parsedComment = input.readString();
+                case LogEntryField.TAGS << 3 | LENGTH_DELIMITED -> {
+                    if (tags == null) {
+                        tags = new ArrayList<>();
+                    }
+                    tags.add(readPooledString());
+                }
+                case LogEntryField.IDS << 3 | VARINT -> entry.ids = input.readInt32();
+                default -> input.skipField(tag);
+            }
+        }
+        if (hasTimestamp) {
+            entry.timestamp = Instant.ofEpochSecond(seconds, nanos);
+        }
+        if (tags != null) {
+            entry.tags = tags.toArray(new String[0]);
+        }
+        return entry;
+    }
+
+    private AbuseFilterLogEntry readAbuseFilterLogEntry() throws IOException {
+        int id = 0;
+        String filterId = null;
+        String filter = null;
+        String user = null;
+        NameSpace nameSpace = null;
+        String title = null;
+        String action = null;
+        String result = null;
+        String timestamp = null;
+        JsonObject details = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case AbuseFilterLogEntryField.ID << 3 | VARINT -> id = input.readInt32();
+                case AbuseFilterLogEntryField.FILTER_ID << 3 | LENGTH_DELIMITED -> filterId = readPooledString();
+                case AbuseFilterLogEntryField.FILTER << 3 | LENGTH_DELIMITED -> filter = readPooledString();
+                case AbuseFilterLogEntryField.USER << 3 | LENGTH_DELIMITED -> user = readPooledString();
+                case AbuseFilterLogEntryField.NAMESPACE << 3 | VARINT -> nameSpace = NameSpace.from(input.readInt32());
+                case AbuseFilterLogEntryField.TITLE << 3 | LENGTH_DELIMITED -> title = readPooledString();
+                case AbuseFilterLogEntryField.ACTION << 3 | LENGTH_DELIMITED -> action = readPooledString();
+                case AbuseFilterLogEntryField.RESULT << 3 | LENGTH_DELIMITED -> result = readPooledString();
+                case AbuseFilterLogEntryField.TIMESTAMP << 3 | LENGTH_DELIMITED -> timestamp = input.readString();
+                case AbuseFilterLogEntryField.DETAILS << 3 | LENGTH_DELIMITED -> details = GSON.fromJson(input.readString(), JsonObject.class);
+                default -> input.skipField(tag);
+            }
+        }
+        return new AbuseFilterLogEntry(id, filterId, filter, user, nameSpace, title, action, result, timestamp, details);
+    }
+
+    private User readUser() throws IOException {
+        User user = new User(wiki, null);
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (tag) {
+                case UserField.NAME << 3 | LENGTH_DELIMITED -> user.setName(readPooledString());
+                case UserField.PROPERTIES << 3 | LENGTH_DELIMITED -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    String key = null;
+                    String value = null;
+                    for (int entryTag = input.readTag(); entryTag != 0; entryTag = input.readTag()) {
+                        switch (entryTag) {
+                            case UserField.PROPERTY_KEY << 3 | LENGTH_DELIMITED -> key = input.readString();
+                            case UserField.PROPERTY_VALUE << 3 | LENGTH_DELIMITED -> value = input.readString();
+                            default -> input.skipField(entryTag);
+                        }
+                    }
+                    input.popLimit(limit);
+                    UserProperty property = USER_PROPERTIES.get(key);
+                    if (property != null && value != null) {
+                        user.setProperty(property, GSON.fromJson(value, JsonElement.class));
+                    }
+                }
+                default -> input.skipField(tag);
+            }
+        }
+        return user;
+    }
+
+    private String readPooledString() throws IOException {
+        return StringPool.SHARED.intern(input.readString());
+    }
+
+    /**
+     * 按类型处理快照中的记录。
+     *
+     * @since 1.0.1
+     */
+    public interface Visitor {
+        /**
+         * @param page 页面
+         * @since 1.0.1
+         */
+        default void page(Page page) {
+        }
+
+        /**
+         * @param revision 修订版本
+         * @since 1.0.1
+         */
+        default void revision(Revision revision) {
+        }
+
+        /**
+         * @param change 最近更改
+         * @since 1.0.1
+         */
+        default void recentChange(RecentChange change) {
+        }
+
+        /**
+         * @param entry 日志
+         * @since 1.0.1
+         */
+        default void logEntry(LogEntry entry) {
+        }
+
+        /**
+         * @param entry 滥用过滤器日志
+         * @since 1.0.1
+         */
+        default void abuseFilterLogEntry(AbuseFilterLogEntry entry) {
+        }
+
+        /**
+         * @param user 用户
+         * @since 1.0.1
+         */
+        default void user(User user) {
+        }
+    }
+}
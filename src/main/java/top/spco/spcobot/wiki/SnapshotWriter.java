@@ -0,0 +1,235 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import top.spco.spcobot.wiki.action.filter.AbuseFilterLogEntry;
+import top.spco.spcobot.wiki.action.parameter.UserProperty;
+import top.spco.spcobot.wiki.user.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import static top.spco.spcobot.wiki.SnapshotFormat.*;
+import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
+
+/**
+ * 将页面、修订版本、最近更改、日志、滥用过滤器日志和用户以 protobuf 格式依次写入流中，用于快照、本地缓存和进程间传递。
+ * <p>
+ * 格式由 {@code src/main/proto/wiki_snapshot.proto} 说明：每条记录是一个带有变长整数长度前缀的 {@code Record} 消息，
+ * 可以用 {@link SnapshotReader} 读取，也可以用其他语言根据此定义生成的代码读取。
+ * 编码直接使用 protobuf 运行库的 {@link CodedOutputStream}，字段编号见 {@link SnapshotFormat}，不需要生成代码。此类不是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class SnapshotWriter implements Closeable, Flushable {
+    private final OutputStream out;
+    private final CodedOutputStream output;
+    private final Buffer buffer = new Buffer();
+    private final CodedOutputStream message = CodedOutputStream.newInstance(buffer);
+
+    /**
+     * @param out 要写入的流，在 {@link #close()} 时关闭
+     * @since 1.0.1
+     */
+    public SnapshotWriter(OutputStream out) {
+        this.out = out;
+        this.output = CodedOutputStream.newInstance(out, 1 << 16);
+    }
+
+    /**
+     * @param page 页面
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(Page page) throws IOException {
+        try {
+            message.writeInt32(PageField.PAGE_ID, page.pageId());
+            writeString(PageField.TITLE, page.title());
+            if (page.nameSpace() != null) {
+                message.writeInt32(PageField.NAMESPACE, page.nameSpace().value);
+            }
+            writeRecord(PAGE);
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * @param revision 修订版本
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(Revision revision) throws IOException {
+        try {
+            message.writeInt32(RevisionField.ID, revision.id());
+            message.writeInt32(RevisionField.PARENT_ID, revision.parentId());
+            writeString(RevisionField.TIMESTAMP, revision.timestamp());
+            writeString(RevisionField.COMMENT, revision.comment());
+            writeString(RevisionField.USER, revision.user());
+            writeRecord(REVISION);
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * @param change 最近更改
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(RecentChange change) throws IOException {
+        try {
+            message.writeInt32(RecentChangeField.ID, change.id());
+            message.writeInt32(RecentChangeField.REVISION_ID, change.revisionId());
+            message.writeInt32(RecentChangeField.OLD_REVISION_ID, change.oldRevisionId());
+            writeString(RecentChangeField.TIMESTAMP, change.timestamp());
+            writeString(RecentChangeField.TITLE, change.title());
+            if (change.nameSpace() != null) {
+                message.writeInt32(RecentChangeField.NAMESPACE, change.nameSpace().value);
+            }
+            writeString(RecentChangeField.USER, change.user());
+            writeString(RecentChangeField.SUMMARY, change.summary());
+            writeString(RecentChangeField.TYPE, change.type());
+            message.writeInt32(RecentChangeField.PAGE_ID, change.pageId());
+            writeRecord(RECENT_CHANGE);
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * @param entry 日志
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(LogEntry entry) throws IOException {
+        try {
+            message.writeInt64(LogEntryField.ID, entry.logid);
+            message.writeInt64(LogEntryField.PAGE_ID, entry.pageid);
+            message.writeInt64(LogEntryField.LOG_PAGE, entry.logpage);
+            writeString(LogEntryField.TITLE, entry.title);
+            writeString(LogEntryField.TYPE, entry.type == null ? null : entry.type.toString());
+            writeString(LogEntryField.ACTION, entry.action);
+            writeString(LogEntryField.PARAMS, entry.params == null ? null : GSON.toJson(entry.params));
+            writeString(LogEntryField.USER, entry.user);
+            message.writeInt32(LogEntryField.USER_ID, entry.userid);
+            if (entry.timestamp != null) {
+                message.writeInt64(LogEntryField.TIMESTAMP_SECONDS, entry.timestamp.getEpochSecond());
+                message.writeInt32(LogEntryField.TIMESTAMP_NANOS, entry.timestamp.getNano());
+            }
+            writeString(LogEntryField.SUMMARY, entry.summary);
+            writeString(LogEntryField.PARSED_COMMENT, entry.parsedComment);
+            if (entry.tags != null) {
+                for (String tag : entry.tags) {
+                    writeString(LogEntryField.TAGS, tag);
+                }
+            }
+            message.writeInt32(LogEntryField.IDS, entry.ids);
+            writeRecord(LOG_ENTRY);
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * @param entry 滥用过滤器日志
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(AbuseFilterLogEntry entry) throws IOException {
+        try {
+            message.writeInt32(AbuseFilterLogEntryField.ID, entry.id());
+            writeString(AbuseFilterLogEntryField.FILTER_ID, entry.filterId());
+            writeString(AbuseFilterLogEntryField.FILTER, entry.filter());
+            writeString(AbuseFilterLogEntryField.USER, entry.user());
+            if (entry.ns() != null) {
+                message.writeInt32(AbuseFilterLogEntryField.NAMESPACE, entry.ns().value);
+            }
+            writeString(AbuseFilterLogEntryField.TITLE, entry.title());
+            writeString(AbuseFilterLogEntryField.ACTION, entry.action());
+            writeString(AbuseFilterLogEntryField.RESULT, entry.result());
+            writeString(AbuseFilterLogEntryField.TIMESTAMP, entry.timestamp());
+            writeString(AbuseFilterLogEntryField.DETAILS, entry.details() == null ? null : GSON.toJson(entry.details()));
+            writeRecord(ABUSE_FILTER_LOG_ENTRY);
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * 写入用户名和用户已获取的所有属性。
+     *
+     * @param user 用户
+     * @throws IOException 如果写入失败
+     * @since 1.0.1
+     */
+    public void write(User user) throws IOException {
+        try {
+            writeString(UserField.NAME, user.getName());
+            for (Map.Entry<UserProperty, JsonElement> property : user.getProperties().entrySet()) {
+                String key = property.getKey().value;
+                String value = GSON.toJson(property.getValue());
+                // map 的每一项都是一个包含键和值两个字段的嵌套消息
+                message.writeTag(UserField.PROPERTIES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                message.writeUInt32NoTag(CodedOutputStream.computeStringSize(UserField.PROPERTY_KEY, key)
+                        + CodedOutputStream.computeStringSize(UserField.PROPERTY_VALUE, value));
+                message.writeString(UserField.PROPERTY_KEY, key);
+                message.writeString(UserField.PROPERTY_VALUE, value);
+            }
+            writeRecord(USER);
+        } finally {
+            discard();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            output.flush();
+        }
+    }
+
+    private void writeString(int field, String value) throws IOException {
+        if (value != null) {
+            message.writeString(field, value);
+        }
+    }
+
+    /**
+     * 将已写入缓冲区的消息作为 {@code Record} 的字段 {@code field} 写出，并加上长度前缀。
+     */
+    private void writeRecord(int field) throws IOException {
+        message.flush();
+        int length = buffer.size();
+        output.writeUInt32NoTag(CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(length) + length);
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(length);
+        output.writeRawBytes(buffer.array(), 0, length);
+    }
+
+    /**
+     * 清空消息缓冲区。每条记录写入后都会调用，写入中途抛出异常时也不会把写了一半的消息留给下一条记录。
+     */
+    private void discard() throws IOException {
+        message.flush();
+        buffer.reset();
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -1,36 +1,144 @@
 package top.spco.spcobot.wiki;
 
-import java.util.HashSet;
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.text.AhoCorasick;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * 用于检测文本中是否包含特定的敏感词汇或词语片段。
+ * <p>
+ * 内置的词汇和通过 {@link #reload(Collection, Collection)} 加载的词汇被编译为一个忽略大小写的 {@link AhoCorasick} 自动机，
+ * 无法表示为字面量的条目被逐个编译为忽略大小写的正则表达式，语法有误的条目会被记录并跳过。重新加载时会原子地替换整个黑名单，正在进行的检查不受影响。
+ * <p>
+ * 自定义正则表达式每次匹配可访问的字符数有上限，超出上限（例如发生灾难性回溯）的表达式会被记录并在当前黑名单中停用。
+ * <p>
+ * {@link #check(Reader)} 和 {@link #purify(Reader, Writer, String)} 逐行处理文本，因此不会检测到跨越换行符的匹配（例如包含 {@code \s} 的正则表达式）。
  *
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class SpanBlacklist {
-    private static final HashSet<String> snippets = new HashSet<>();
-    private static final Pattern pattern;
-
-    static {
-        snippets.add("asp[eu]r?gite");
-        snippets.add("asshole");
-        snippets.add("butthurt");
-        snippets.add("cunt");
-        snippets.add("dick");
-        snippets.add("faggot");
-        snippets.add("freeminecraft");
-        snippets.add("fuck");
-        snippets.add("nigger");
-        snippets.add("penis");
-        snippets.add("queer");
-        snippets.add("rap(?:e|list)");
-        snippets.add("vagina");
-        snippets.add("viagra");
-        pattern = Pattern.compile(String.join("|", snippets), Pattern.CASE_INSENSITIVE);
+    private static final Logger LOGGER = LogUtil.getLogger();
+    private static final List<String> BUILTIN_SNIPPETS = List.of(
+            // asp[eu]r?gite
+            "aspegite", "aspergite", "aspugite", "aspurgite",
+            "asshole",
+            "butthurt",
+            "cunt",
+            "dick",
+            "faggot",
+            "freeminecraft",
+            "fuck",
+            "nigger",
+            "penis",
+            "queer",
+            // rap(?:e|list)
+            "rape", "raplist",
+            "vagina",
+            "viagra");
+    private static final String REGEX_METACHARACTERS = ".[]()*+?{}|^$";
+    /**
+     * 自定义正则表达式每匹配一个字符平均允许访问的字符数
+     */
+    private static final long REGEX_STEPS_PER_CHAR = 1000;
+    /**
+     * 自定义正则表达式匹配一段文本至少允许访问的字符数
+     */
+    private static final long REGEX_MIN_STEPS = 1_000_000;
+    private static volatile Matchers matchers = new Matchers(BUILTIN_SNIPPETS, List.of());
+
+    /**
+     * 使用内置的词汇和给定的自定义条目重新构建黑名单，之前加载的自定义条目会被丢弃。
+     *
+     * @param words   自定义的字面量词汇
+     * @param regexes 自定义的正则表达式，语法有误的会被记录并跳过
+     * @since 1.0.1
+     */
+    public static void reload(Collection<String> words, Collection<String> regexes) {
+        List<String> literals = new ArrayList<>(BUILTIN_SNIPPETS);
+        for (String word : words) {
+            if (word != null && !word.isEmpty() && word.indexOf('\n') < 0) {
+                literals.add(word);
+            }
+        }
+        matchers = new Matchers(literals, regexes);
+    }
+
+    /**
+     * 从 Wiki 页面加载自定义条目，例如 {@code MediaWiki:Spam-blacklist}。
+     * <p>
+     * 页面的格式与 MediaWiki 的垃圾链接黑名单相同：每行一个正则表达式片段，{@code #} 之后的内容为注释。
+     * 不含正则表达式元字符的条目会作为字面量加入自动机，语法有误的条目会被记录并跳过，不会影响其他条目。
+     *
+     * @param wiki      Wiki实例
+     * @param pageTitle 页面标题
+     * @since 1.0.1
+     */
+    public static void loadFromPage(Wiki wiki, String pageTitle) {
+        List<String> words = new ArrayList<>();
+        List<String> regexes = new ArrayList<>();
+        parseList(wiki.getPageText(pageTitle), words, regexes);
+        reload(words, regexes);
+    }
+
+    /**
+     * 恢复为只包含内置词汇的黑名单。
+     *
+     * @since 1.0.1
+     */
+    public static void reset() {
+        matchers = new Matchers(BUILTIN_SNIPPETS, List.of());
+    }
+
+    private static void parseList(String text, List<String> words, List<String> regexes) {
+        for (String line : text.split("\n")) {
+            int comment = line.indexOf('#');
+            String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            String literal = toLiteral(entry);
+            if (literal != null) {
+                words.add(literal);
+            } else {
+                regexes.add(entry);
+            }
+        }
+    }
+
+    /**
+     * 将只包含转义标点的正则表达式片段转为字面量。
+     *
+     * @return 对应的字面量，包含元字符时返回 {@code null}
+     */
+    private static String toLiteral(String entry) {
+        StringBuilder literal = new StringBuilder(entry.length());
+        for (int i = 0; i < entry.length(); i++) {
+            char c = entry.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= entry.length() || Character.isLetterOrDigit(entry.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(entry.charAt(++i));
+            } else if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
     }
 
     /**
@@ -41,7 +149,27 @@ public class SpanBlacklist {
      * @since 0.1.0
      */
     public static boolean check(String text) {
-        return pattern.matcher(text).find();
+        return matchers.find(text);
+    }
+
+    /**
+     * 逐行检查文本流是否会被过滤器#67阻止，找到匹配后立即返回。
+     *
+     * @param reader 需要检查的文本流，不会被关闭
+     * @return 是否会被过滤器#67阻止
+     * @throws UncheckedIOException 如果读取文本时发生错误
+     * @since 1.0.1
+     */
+    public static boolean check(Reader reader) {
+        Matchers current = matchers;
+        LineReader lines = new LineReader(reader);
+        String line;
+        while ((line = lines.next()) != null) {
+            if (current.find(line)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -53,8 +181,7 @@ public class SpanBlacklist {
      * @since 0.1.0
      */
     public static String purify(String text, String replacement) {
-        Matcher matcher = pattern.matcher(text);
-        return matcher.replaceAll(replacement);
+        return matchers.replace(text, replacement);
     }
 
     /**
@@ -67,4 +194,233 @@ public class SpanBlacklist {
     public static String purify(String text) {
         return purify(text, "■");
     }
+
+    /**
+     * 逐行读取文本流，将敏感词汇替换为指定的替换字符串后写出。
+     *
+     * @param reader      需要净化的文本流，不会被关闭
+     * @param writer      写出净化文本的流，不会被关闭
+     * @param replacement 替换敏感词汇的字符串
+     * @throws UncheckedIOException 如果读写文本时发生错误
+     * @since 1.0.1
+     */
+    public static void purify(Reader reader, Writer writer, String replacement) {
+        Matchers current = matchers;
+        LineReader lines = new LineReader(reader);
+        String line;
+        try {
+            while ((line = lines.next()) != null) {
+                writer.write(current.replace(line, replacement));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write purified text: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 某一时刻的黑名单，构建后除了停用超时的正则表达式外不可变。
+     */
+    private static final class Matchers {
+        private final AhoCorasick words;
+        private final List<UserRegex> regexes;
+
+        private Matchers(List<String> words, Collection<String> regexes) {
+            this.words = AhoCorasick.compile(words, true);
+            List<UserRegex> compiled = new ArrayList<>(regexes.size());
+            for (String regex : regexes) {
+                try {
+                    compiled.add(new UserRegex(Pattern.compile(regex, Pattern.CASE_INSENSITIVE)));
+                } catch (PatternSyntaxException e) {
+                    LOGGER.warn("跳过语法有误的正则表达式 {}：{}", regex, e.getDescription());
+                }
+            }
+            this.regexes = List.copyOf(compiled);
+        }
+
+        private boolean find(String text) {
+            if (words.containsAny(text)) {
+                return true;
+            }
+            for (UserRegex regex : regexes) {
+                Matcher matcher = regex.matcher(text);
+                if (matcher != null && regex.find(matcher, 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String replace(String text, String replacement) {
+            StringBuilder out = null;
+            int last = 0;
+            AhoCorasick.Match word = words.find(text, 0);
+            int count = regexes.size();
+            Matcher[] matchers = new Matcher[count];
+            for (int i = 0; i < count; i++) {
+                Matcher matcher = regexes.get(i).matcher(text);
+                if (matcher != null && regexes.get(i).find(matcher, 0)) {
+                    matchers[i] = matcher;
+                }
+            }
+            while (true) {
+                // 最靠前的正则表达式匹配，起点相同时取最长的
+                Matcher regex = null;
+                for (Matcher matcher : matchers) {
+                    if (matcher != null && (regex == null || matcher.start() < regex.start()
+                            || (matcher.start() == regex.start() && matcher.end() > regex.end()))) {
+                        regex = matcher;
+                    }
+                }
+                if (word == null && regex == null) {
+                    break;
+                }
+                boolean useRegex = regex != null && (word == null || regex.start() < word.start()
+                        || (regex.start() == word.start() && regex.end() > word.end()));
+                int start = useRegex ? regex.start() : word.start();
+                int end = useRegex ? regex.end() : word.end();
+                if (out == null) {
+                    out = new StringBuilder(text.length());
+                }
+                out.append(text, last, start).append(replacement);
+                last = end;
+                int next = start == end ? end + 1 : end;
+                if (next > text.length()) {
+                    break;
+                }
+                if (word != null && word.start() < next) {
+                    word = words.find(text, next);
+                }
+                for (int i = 0; i < count; i++) {
+                    if (matchers[i] != null && matchers[i].start() < next && !regexes.get(i).find(matchers[i], next)) {
+                        matchers[i] = null;
+                    }
+                }
+            }
+            if (out == null) {
+                return text;
+            }
+            return out.append(text, last, text.length()).toString();
+        }
+    }
+
+    /**
+     * 自定义的正则表达式。匹配时访问的字符数超出上限后会被停用。
+     */
+    private static final class UserRegex {
+        private final Pattern pattern;
+        private volatile boolean disabled = false;
+
+        private UserRegex(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * @return 匹配给定文本的匹配器，已停用时返回 {@code null}
+         */
+        private Matcher matcher(String text) {
+            if (disabled) {
+                return null;
+            }
+            return pattern.matcher(new BoundedCharSequence(text, Math.max(REGEX_MIN_STEPS, text.length() * REGEX_STEPS_PER_CHAR)));
+        }
+
+        /**
+         * 从 {@code from} 开始查找下一个匹配，超出上限时停用此正则表达式并返回 {@code false}。
+         */
+        private boolean find(Matcher matcher, int from) {
+            if (disabled) {
+                return false;
+            }
+            try {
+                return matcher.find(from);
+            } catch (StepLimitExceededException e) {
+                disabled = true;
+                LOGGER.warn("正则表达式 {} 匹配时间过长，已停用", pattern.pattern());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 限制可访问字符数的文本，用于中断灾难性回溯的正则表达式。
+     */
+    private static final class BoundedCharSequence implements CharSequence {
+        private final String text;
+        private long remaining;
+
+        private BoundedCharSequence(String text, long limit) {
+            this.text = text;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw new StepLimitExceededException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class StepLimitExceededException extends RuntimeException {
+        private StepLimitExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 按行读取文本，返回的每一行都包含行尾的换行符。
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position = 0;
+        private int limit = 0;
+
+        private LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        private String next() {
+            line.setLength(0);
+            try {
+                while (true) {
+                    if (position >= limit) {
+                        limit = reader.read(buffer);
+                        position = 0;
+                        if (limit < 0) {
+                            limit = 0;
+                            return line.isEmpty() ? null : line.toString();
+                        }
+                    }
+                    int start = position;
+                    while (position < limit) {
+                        if (buffer[position++] == '\n') {
+                            line.append(buffer, start, position - start);
+                            return line.toString();
+                        }
+                    }
+                    line.append(buffer, start, position - start);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read text: " + e.getMessage(), e);
+            }
+        }
+    }
 }
@@ -15,10 +15,13 @@
  */
 package top.spco.spcobot.wiki;
 
+import com.google.common.base.Suppliers;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import okhttp3.*;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.logging.log4j.Logger;
 import top.spco.spcobot.wiki.action.ActionType;
 import top.spco.spcobot.wiki.action.ActionTypes;
@@ -33,20 +36,46 @@ import top.spco.spcobot.wiki.action.query.AllUsersListModule;
 import top.spco.spcobot.wiki.action.request.BlockRequest;
 import top.spco.spcobot.wiki.action.request.QueryRequest;
 import top.spco.spcobot.wiki.action.request.UnblockRequest;
+import top.spco.spcobot.wiki.cache.PageContentCache;
+import top.spco.spcobot.wiki.cache.RecentWrites;
+import top.spco.spcobot.wiki.cache.ResponseCacheInterceptor;
+import top.spco.spcobot.wiki.collection.IntHashSet;
+import top.spco.spcobot.wiki.collection.LongHashSet;
+import top.spco.spcobot.wiki.collection.MappedTitleIndex;
+import top.spco.spcobot.wiki.collection.MappedTitleList;
+import top.spco.spcobot.wiki.concurrent.BatchLoader;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimitInterceptor;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimiter;
+import top.spco.spcobot.wiki.concurrent.SingleFlightInterceptor;
 import top.spco.spcobot.wiki.exception.InsufficientPermissionsException;
 import top.spco.spcobot.wiki.user.*;
 import top.spco.spcobot.wiki.util.CollectionUtil;
+import top.spco.spcobot.wiki.util.JsonPath;
+import top.spco.spcobot.wiki.util.JsonReaderUtil;
 import top.spco.spcobot.wiki.util.JsonUtil;
 import top.spco.spcobot.wiki.util.MapUtil;
 import top.spco.spcobot.wiki.util.ParamUtil;
 import top.spco.spcobot.wiki.util.LogUtil;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.CookieManager;
-import java.net.Proxy;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
@@ -62,13 +91,36 @@ import static top.spco.spcobot.wiki.util.MapUtil.paramsMap;
 @SuppressWarnings("unused")
 public final class Wiki implements UserAction {
     private final static Logger LOGGER = LogUtil.getLogger();
+    private static final RecentChangeField[] DEFAULT_RECENT_CHANGE_FIELDS = {
+            RecentChangeField.USER, RecentChangeField.COMMENT, RecentChangeField.TIMESTAMP, RecentChangeField.TITLE, RecentChangeField.ID};
+    private static final JsonPath QUERY = JsonPath.of("query");
+    private static final JsonPath QUERY_TOKENS = JsonPath.of("query", "tokens");
+    private static final JsonPath QUERY_PAGES = JsonPath.of("query", "pages");
+    private static final JsonPath QUERY_USERS = JsonPath.of("query", "users");
+    private static final JsonPath QUERY_USER_INFO = JsonPath.of("query", "userinfo");
+    private static final JsonPath QUERY_ALL_REVISIONS = JsonPath.of("query", "allrevisions");
+    private static final JsonPath QUERY_RECENT_CHANGES = JsonPath.of("query", "recentchanges");
+    private static final JsonPath QUERY_LOG_EVENTS = JsonPath.of("query", "logevents");
+    private static final JsonPath QUERY_ABUSE_LOG = JsonPath.of("query", "abuselog");
+    private static final JsonPath CONTINUE = JsonPath.of("continue");
+    private static final JsonPath ERROR_ABUSE_FILTER = JsonPath.of("error", "abusefilter");
+    private static final JsonPath LOGIN_RESULT = JsonPath.of("login", "result");
+    private static final JsonPath LOGIN_REASON = JsonPath.of("login", "reason");
+    private static final JsonPath CLIENT_LOGIN_STATUS = JsonPath.of("clientlogin", "status");
+    private static final JsonPath CLIENT_LOGIN_MESSAGE = JsonPath.of("clientlogin", "message");
+    private static final JsonPath CLIENT_LOGIN_MESSAGE_CODE = JsonPath.of("clientlogin", "messagecode");
+    private static final JsonPath COMPARE = JsonPath.of("compare");
+    private static final JsonPath EDIT = JsonPath.of("edit");
+    private static final JsonPath EDIT_RESULT = JsonPath.of("edit", "result");
+    private static final JsonPath MOVE = JsonPath.of("move");
+    private static final JsonPath DELETE_TITLE = JsonPath.of("delete", "title");
     private final OkHttpClient client;
     private final HttpUrl actionApi;
     private final CookieManager cookieManager;
     private final String username;
     private final String password;
     private final Assert loginAssert;
-    private final HashMap<String, String> basicRequestParams = paramsMap("format", "json");
+    private final HashMap<String, String> basicRequestParams = paramsMap("format", "json", "formatversion", "2", "utf8", "1");
     private String csrfToken;
     private String patrolToken;
     private String userRightToken;
@@ -76,6 +128,24 @@ public final class Wiki implements UserAction {
     private String accountCreateToken;
     private String rollbackToken;
     private final Supplier<String> otpSupplier;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final PageContentCache pageContentCache;
+    private final SessionStore sessionStore;
+    private final RecentWrites recentWrites;
+    private final Path siteInfoFile;
+    private final Duration siteInfoMaxAge;
+    private volatile SiteInfo siteInfo;
+    private final Duration rightsCacheTtl;
+    private volatile CachedRights cachedRights;
+    private volatile ExecutorService asyncExecutor;
+    private final CompletableFuture<Void> loginResult = new CompletableFuture<>();
+    private final AtomicBoolean loginStarted = new AtomicBoolean(false);
+    private volatile CompletableFuture<JsonObject> prefetchedUserInfo;
+    private final Duration batchWindow;
+    private final boolean releaseResponses;
+    private final Supplier<BatchLoader<UserKey, JsonObject>> userLoader = lazyBatchLoader((keys, batchSize) -> loadUsers(keys));
+    private final Supplier<BatchLoader<String, PageState>> pageStateLoader = lazyBatchLoader(this::getPageStates);
+    private final Supplier<BatchLoader<String, String>> pageTextLoader = lazyBatchLoader(this::getPageTexts);
     private int normalApiLimit = 50;
     private int higherApiLimit = 500;
 
@@ -85,37 +155,209 @@ public final class Wiki implements UserAction {
      * 可以把每个不同query查询的请求看成不同的模块，
      */
 
-    Wiki(HttpUrl actionApi, CookieManager cookieManager, Proxy proxy, String username, String password, Assert loginAssert, Supplier<String> otpSupplier) {
+    Wiki(WikiBuilder options, String username, String password, Assert loginAssert) {
         this.username = username;
         this.password = password;
         this.loginAssert = loginAssert;
-        this.actionApi = actionApi;
-        this.cookieManager = cookieManager == null ? new CookieManager() : cookieManager;
-        this.otpSupplier = otpSupplier;
+        this.actionApi = options.actionApi;
+        this.cookieManager = options.cookieManager == null ? new CookieManager() : options.cookieManager;
+        this.otpSupplier = options.otpSupplier;
+        this.concurrencyLimiter = options.concurrencyLimiter;
+        this.pageContentCache = options.pageContentCache;
+        this.sessionStore = options.sessionStore;
+        this.recentWrites = options.recentWritesTtl.isZero() ? null : new RecentWrites(options.recentWritesTtl);
+        this.releaseResponses = options.releaseResponses;
+        this.siteInfoFile = options.siteInfoDirectory == null ? null : options.siteInfoDirectory.resolve(DigestUtils.sha1Hex(actionApi.toString()) + ".json");
+        this.siteInfoMaxAge = options.siteInfoMaxAge;
+        this.rightsCacheTtl = options.rightsCacheTtl;
+        this.batchWindow = options.batchWindow;
+        if (siteInfoFile != null) {
+            SiteInfo snapshot = SiteInfo.read(siteInfoFile);
+            if (snapshot != null && !snapshot.isStale(siteInfoMaxAge)) {
+                this.siteInfo = snapshot;
+            }
+        }
         OkHttpClient.Builder builder = new OkHttpClient.Builder();
         builder.cookieJar(new JavaNetCookieJar(this.cookieManager));
         builder.readTimeout(2, TimeUnit.MINUTES);
-        if (proxy != null) {
-            builder.proxy(proxy);
+        if (options.proxy != null) {
+            builder.proxy(options.proxy);
+        }
+        if (options.coalesceRequests) {
+            // 放在最前面，使等待共享响应的请求不会占用并发许可
+            builder.addInterceptor(new SingleFlightInterceptor());
+        }
+        if (concurrencyLimiter != null) {
+            // 由限制器决定并发数，避免被 OkHttp 默认的每主机 5 个异步请求的上限卡住
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(concurrencyLimiter.getMaxLimit());
+            dispatcher.setMaxRequestsPerHost(concurrencyLimiter.getMaxLimit());
+            builder.dispatcher(dispatcher);
+            builder.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter));
+        }
+        if (options.responseCacheDirectory != null) {
+            ResponseCacheInterceptor cacheInterceptor = new ResponseCacheInterceptor(options.responseCachePolicy);
+            builder.cache(new Cache(options.responseCacheDirectory.toFile(), options.responseCacheMaxBytes));
+            builder.addInterceptor(cacheInterceptor.application());
+            builder.addNetworkInterceptor(cacheInterceptor.network());
         }
         this.client = builder.build();
         if (loginAssert == Assert.USER || loginAssert == Assert.BOT) {
+            switch (options.loginMode) {
+                case EAGER -> ensureLoggedIn();
+                case PREFETCH -> prefetch();
+                case LAZY -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * 在后台同时开始登录和获取站点信息，登录完成后再获取用户信息。
+     */
+    private void prefetch() {
+        ExecutorService executor = getAsyncExecutor();
+        startLogin(executor);
+        executor.execute(() -> {
             try {
-                login();
+                getSiteInfo();
             } catch (Exception e) {
-                throw new RuntimeException("Failed to login: " + e.getMessage(), e);
+                LOGGER.warn("预先获取站点信息失败", e);
+            }
+        });
+        prefetchedUserInfo = loginResult.thenApplyAsync(ignored -> fetchUserInfo("groups|rights|editcount|ratelimits"), executor);
+    }
+
+    /**
+     * 开始登录，同一实例只会登录一次。
+     *
+     * @param executor 执行登录的线程池，为 {@code null} 时在当前线程中登录
+     */
+    private void startLogin(ExecutorService executor) {
+        if (!loginStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                if (sessionStore == null || !restoreSession()) {
+                    login();
+                    saveSession();
+                }
+                loginResult.complete(null);
+            } catch (Throwable e) {
+                loginResult.completeExceptionally(e);
             }
+        };
+        if (executor == null) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * 确保已经登录：尚未登录时在当前线程中登录，正在后台登录时等待其完成。匿名实例直接返回。
+     *
+     * @throws RuntimeException 如果登录失败
+     */
+    private void ensureLoggedIn() {
+        if (loginAssert != Assert.USER && loginAssert != Assert.BOT) {
+            return;
+        }
+        if (!loginResult.isDone()) {
+            startLogin(null);
+        }
+        try {
+            loginResult.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw new RuntimeException("Failed to login: " + cause.getMessage(), cause);
         }
     }
 
-    Wiki(HttpUrl actionApi, CookieManager cookieManager, Proxy proxy) {
-        this(actionApi, cookieManager, proxy, null, null, Assert.ANON, null);
+    Wiki(WikiBuilder options) {
+        this(options, null, null, Assert.ANON);
     }
 
     public CookieManager getCookieManager() {
         return cookieManager;
     }
 
+    /**
+     * 获取此Wiki实例所有请求共用的自适应并发限制器。
+     *
+     * @return 并发限制器，未设置时返回 {@code null}
+     * @see WikiBuilder#setConcurrencyLimiter(ConcurrencyLimiter)
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 获取此Wiki实例的 HTTP 响应缓存，可用于查看命中率或清空缓存。
+     *
+     * @return HTTP 响应缓存，未启用时返回 {@code null}
+     * @see WikiBuilder#setResponseCache(Path, long, top.spco.spcobot.wiki.cache.ResponseCachePolicy)
+     * @since 1.0.1
+     */
+    public Cache getResponseCache() {
+        return client.cache();
+    }
+
+    /**
+     * 获取此Wiki实例的页面内容缓存。
+     *
+     * @return 页面内容缓存，未设置时返回 {@code null}
+     * @see WikiBuilder#setPageContentCache(PageContentCache)
+     * @since 1.0.1
+     */
+    public PageContentCache getPageContentCache() {
+        return pageContentCache;
+    }
+
+    /**
+     * 获取此Wiki实例最近写入的页面状态。
+     *
+     * @return 最近写入的页面状态，未启用时返回 {@code null}
+     * @see WikiBuilder#setRecentWritesTtl(Duration)
+     * @since 1.0.1
+     */
+    public RecentWrites getRecentWrites() {
+        return recentWrites;
+    }
+
+    /**
+     * @return 请求默认是否使用低内存模式
+     * @see WikiBuilder#setReleaseResponses(boolean)
+     * @since 1.0.1
+     */
+    public boolean isReleaseResponses() {
+        return releaseResponses;
+    }
+
+    /**
+     * 获取用于异步执行请求的线程池。
+     *
+     * @return 异步执行请求的线程池，其中的线程均为守护线程
+     * @see ActionRequest#executeAsync()
+     * @since 1.0.1
+     */
+    public ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            synchronized (this) {
+                if (asyncExecutor == null) {
+                    asyncExecutor = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "spco-wiki-async");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return asyncExecutor;
+    }
+
     /**
      * 设置用于消息翻译的语言。
      *
@@ -124,7 +366,7 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public void useLanguage(String languageCode) {
-        if (!supportedLanguages().contains(languageCode)) {
+        if (!getSiteInfo().languages().contains(languageCode)) {
             throw new IllegalArgumentException("Unsupported language code: " + languageCode);
         }
         basicRequestParams.put("uselang", languageCode);
@@ -253,6 +495,9 @@ public final class Wiki implements UserAction {
      */
     @Deprecated
     public Response post(ActionTypes type, Map<String, String> form) throws IOException {
+        if (type.getTokenType() != TokenType.LOGIN) {
+            ensureLoggedIn();
+        }
         FormBody.Builder formBodyBuilder = new FormBody.Builder();
         form.forEach(formBodyBuilder::add);
         if (type.needToken()) {
@@ -279,6 +524,9 @@ public final class Wiki implements UserAction {
      * @since 1.0.1
      */
     public Response post(ActionType type, Map<String, String> form) throws IOException {
+        if (type.getTokenType() != TokenType.LOGIN) {
+            ensureLoggedIn();
+        }
         FormBody.Builder formBodyBuilder = new FormBody.Builder();
         form.forEach(formBodyBuilder::add);
         if (type.needToken()) {
@@ -305,6 +553,7 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public Response post(Map<String, String> params, Map<String, String> form) throws IOException {
+        ensureLoggedIn();
         FormBody.Builder formBodyBuilder = new FormBody.Builder();
         form.forEach(formBodyBuilder::add);
 
@@ -330,8 +579,7 @@ public final class Wiki implements UserAction {
                 paramsMap.putAll(continueParam);
             }
             try (Response response = get(type, paramsMap)) {
-                String body = checkAndGetBody(response, action);
-                JsonObject bodyJson = GSON.fromJson(body, JsonObject.class);
+                JsonObject bodyJson = ParsedResponse.read(response, action).json();
                 continuable = bodyJson.has("continue");
                 if (continuable) {
                     JsonObject continueJson = bodyJson.getAsJsonObject("continue");
@@ -344,6 +592,39 @@ public final class Wiki implements UserAction {
         } while (continuable);
     }
 
+    /**
+     * 可继续的列表操作。每一批响应中 {@code path} 上的数组元素直接从响应流交给 {@code adapter} 读取，不会先构建 {@code JsonObject}。
+     *
+     * @param type        操作类型
+     * @param baseParams  基础请求参数
+     * @param action      操作描述
+     * @param path        数组的键路径
+     * @param adapter     数组元素的适配器
+     * @param itemHandler 处理每个元素的函数
+     * @since 1.0.1
+     */
+    public <T> void continuableList(ActionTypes type, Map<String, String> baseParams, String action, JsonPath path, TypeAdapter<T> adapter, Consumer<? super T> itemHandler) {
+        boolean continuable = false;
+        Map<String, String> continueParam = new HashMap<>();
+        do {
+            Map<String, String> paramsMap = new HashMap<>(baseParams);
+            if (continuable) {
+                paramsMap.putAll(continueParam);
+            }
+            try (Response response = get(type, paramsMap)) {
+                ParsedResponse body = ParsedResponse.read(response, action, Map.of(path, adapter));
+                JsonObject continueJson = body.getObject(CONTINUE);
+                continuable = continueJson != null;
+                if (continuable) {
+                    continueParam = MapUtil.jsonToMap(continueJson);
+                }
+                body.<T>getNonNullList(path).forEach(itemHandler);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to " + action + " : " + e.getMessage(), e);
+            }
+        } while (continuable);
+    }
+
     /**
      * 刷新令牌。
      *
@@ -354,15 +635,85 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public void refreshToken() throws IOException {
-        if (!assertLogged()) {
-            throw new RuntimeException("Login information does not match");
+        // 在同一个请求中检查登录状态并获取所有需要缓存的令牌
+        String types = "csrf|patrol|watch|userrights|rollback|createaccount";
+        try (Response response = get(paramsMap("action", "query", "meta", "tokens", "type", types, "assert", this.loginAssert.getValue()))) {
+            ParsedResponse body = ParsedResponse.read(response, "obtain tokens");
+            String code = body.errorCode();
+            if (code != null) {
+                if (code.equals("assert" + this.loginAssert.getValue() + "failed")) {
+                    throw new RuntimeException("Login information does not match");
+                }
+                throw new RuntimeException("Failed to obtain tokens: " + body.errorInfo() + " (" + code + ")");
+            }
+            JsonObject tokens = body.getNonNull(QUERY_TOKENS).getAsJsonObject();
+            Map<TokenType, String> refreshed = new EnumMap<>(TokenType.class);
+            for (TokenType tokenType : TokenType.values()) {
+                JsonElement token = tokens.get(tokenType + "token");
+                if (token != null) {
+                    refreshed.put(tokenType, token.getAsString());
+                }
+            }
+            setTokens(refreshed);
+        }
+    }
+
+    private void setTokens(Map<TokenType, String> tokens) {
+        csrfToken = tokens.get(TokenType.CSRF);
+        patrolToken = tokens.get(TokenType.PATROL);
+        watchToken = tokens.get(TokenType.WATCH);
+        userRightToken = tokens.get(TokenType.USER_RIGHTS);
+        rollbackToken = tokens.get(TokenType.ROLLBACK);
+        accountCreateToken = tokens.get(TokenType.CREATE_ACCOUNT);
+    }
+
+    private Map<TokenType, String> getTokens() {
+        // 会在登录过程中调用，不能经过 getTokenCache 的登录检查
+        Map<TokenType, String> tokens = new EnumMap<>(TokenType.class);
+        tokens.put(TokenType.CSRF, csrfToken);
+        tokens.put(TokenType.PATROL, patrolToken);
+        tokens.put(TokenType.WATCH, watchToken);
+        tokens.put(TokenType.USER_RIGHTS, userRightToken);
+        tokens.put(TokenType.ROLLBACK, rollbackToken);
+        tokens.put(TokenType.CREATE_ACCOUNT, accountCreateToken);
+        tokens.values().removeIf(Objects::isNull);
+        return tokens;
+    }
+
+    /**
+     * 将当前的登录会话保存到 {@link WikiBuilder#setSessionStore(SessionStore) 会话存储}中。登录成功后会自动保存，
+     * 长时间运行的程序可以在会话 Cookie 更新后再次调用。
+     *
+     * @since 1.0.1
+     */
+    public void saveSession() {
+        if (sessionStore != null && username != null) {
+            sessionStore.save(actionApi.toString(), username, cookieManager.getCookieStore(), getTokens());
+        }
+    }
+
+    /**
+     * 尝试复用会话存储中保存的会话。
+     *
+     * @return 会话仍然有效时返回 {@code true}
+     */
+    private boolean restoreSession() {
+        Map<TokenType, String> tokens = sessionStore.load(actionApi.toString(), username, cookieManager.getCookieStore());
+        if (tokens == null) {
+            return false;
         }
-        csrfToken = getCSRFToken();
-        patrolToken = getPatrolToken();
-        watchToken = getToken(TokenType.WATCH);
-        userRightToken = getToken(TokenType.USER_RIGHTS);
-        rollbackToken = getToken(TokenType.ROLLBACK);
-        accountCreateToken = getToken(TokenType.CREATE_ACCOUNT);
+        setTokens(tokens);
+        try {
+            if (assertLogged() && csrfToken != null) {
+                return true;
+            }
+        } catch (Exception e) {
+            LOGGER.warn("验证保存的登录会话失败", e);
+        }
+        LOGGER.info("保存的登录会话已失效，重新登录");
+        cookieManager.getCookieStore().removeAll();
+        setTokens(Map.of());
+        return false;
     }
 
     /**
@@ -391,8 +742,7 @@ public final class Wiki implements UserAction {
      */
     public String getToken(TokenType tokenType) throws IOException {
         try (Response response = get(paramsMap("action", "query", "meta", "tokens", "type", tokenType.toString()))) {
-            String body = checkAndGetBody(response, "obtain toke");
-            String token = JsonUtil.checkAndGetAsString(body, true, "query", "tokens", tokenType + "token");
+            String token = ParsedResponse.read(response, "obtain token").getString(QUERY_TOKENS.resolve(tokenType + "token"));
             if (token == null) {
                 throw new RuntimeException("Failed to obtain token");
             }
@@ -408,6 +758,9 @@ public final class Wiki implements UserAction {
      * @since 1.0.1
      */
     public String getTokenCache(TokenType tokenType) {
+        if (tokenType != TokenType.LOGIN) {
+            ensureLoggedIn();
+        }
         switch (tokenType) {
             case PATROL -> {
                 return patrolToken;
@@ -440,8 +793,8 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public boolean assertLogged() throws IOException {
-        try (Response response = get(paramsMap("action", "query", " meta", "userinfo", "assert", this.loginAssert.getValue()))) {
-            String code = JsonUtil.checkAndGetAsString(checkAndGetBody(response, "assert"), true, "error", "code");
+        try (Response response = get(paramsMap("action", "query", "meta", "userinfo", "assert", this.loginAssert.getValue()))) {
+            String code = ParsedResponse.read(response, "assert").errorCode();
             if (code == null) {
                 return true;
             } else if (code.equals("assert" + this.loginAssert.getValue() + "failed")) {
@@ -481,6 +834,78 @@ public final class Wiki implements UserAction {
         return getToken(TokenType.PATROL);
     }
 
+    /**
+     * 获取站点信息快照，包括站点的基本信息、命名空间和支持的语言。
+     * <p>
+     * 快照在第一次调用时获取，之后直接返回。设置了 {@link WikiBuilder#setSiteInfoCache(Path, Duration) 快照目录} 时，
+     * 快照会被保存到磁盘并在过期前重复使用；获取新快照失败时会继续使用已过期的快照。
+     *
+     * @return 站点信息快照
+     * @since 1.0.1
+     */
+    public SiteInfo getSiteInfo() {
+        SiteInfo current = siteInfo;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (siteInfo == null) {
+                siteInfo = loadSiteInfo();
+            }
+            return siteInfo;
+        }
+    }
+
+    /**
+     * 重新获取站点信息快照。
+     *
+     * @return 新的站点信息快照
+     * @since 1.0.1
+     */
+    public synchronized SiteInfo refreshSiteInfo() {
+        siteInfo = fetchSiteInfo();
+        return siteInfo;
+    }
+
+    private SiteInfo loadSiteInfo() {
+        SiteInfo snapshot = siteInfoFile == null ? null : SiteInfo.read(siteInfoFile);
+        if (snapshot != null && !snapshot.isStale(siteInfoMaxAge)) {
+            return snapshot;
+        }
+        try {
+            return fetchSiteInfo();
+        } catch (RuntimeException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            LOGGER.warn("获取站点信息失败，继续使用 {} 的快照", snapshot.fetchedAt(), e);
+            return snapshot;
+        }
+    }
+
+    private SiteInfo fetchSiteInfo() {
+        JsonObject query = new ParsedResponse(siteInfo(SiteInfo.PROPS)).getNonNull(QUERY).getAsJsonObject();
+        SiteInfo snapshot = new SiteInfo(query, Instant.now());
+        if (siteInfoFile != null) {
+            try {
+                snapshot.write(siteInfoFile);
+            } catch (UncheckedIOException e) {
+                LOGGER.warn("保存站点信息快照失败：{}", siteInfoFile, e);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 获取此Wiki的命名空间表，其中包含Wiki特有的命名空间及其名称和别名。
+     *
+     * @return 命名空间表
+     * @since 1.0.1
+     */
+    public NameSpaceRegistry getNameSpaceRegistry() {
+        return getSiteInfo().nameSpaces();
+    }
+
     /**
      * 返回有关网站的一般信息。
      *
@@ -490,27 +915,20 @@ public final class Wiki implements UserAction {
      */
     public JsonObject siteInfo(String... prop) {
         try (Response response = get(ActionTypes.SITE_INFO, paramsMap("siprop", ParamUtil.toListParam(prop)))) {
-            String body = checkAndGetBody(response, "get site info");
-            return GSON.fromJson(body, JsonObject.class);
+            return ParsedResponse.read(response, "get site info").json();
         } catch (Exception e) {
             throw new RuntimeException("Failed to get site info: " + e.getMessage(), e);
         }
     }
 
     /**
-     * MediaWiki 支持的语言代码。
+     * MediaWiki 支持的语言代码，取自 {@link #getSiteInfo() 站点信息快照}。
      *
      * @return MediaWiki 支持的语言代码集合
      * @since 0.1.0
      */
     public HashSet<String> supportedLanguages() {
-        HashSet<String> supportedLanguages = new HashSet<>();
-        JsonObject languages = siteInfo("languages");
-        JsonArray languagesArray = JsonUtil.checkAndGetNonNullElement(languages, "query", "languages").getAsJsonArray();
-        for (JsonElement language : languagesArray) {
-            supportedLanguages.add(language.getAsJsonObject().get("code").getAsString());
-        }
-        return supportedLanguages;
+        return new HashSet<>(getSiteInfo().languages());
     }
 
     /**
@@ -594,13 +1012,41 @@ public final class Wiki implements UserAction {
      * @since 0.1.1
      */
     public Set<String> getRightsName() {
+        CachedRights cached = cachedRights;
+        if (cached != null && cached.expiresAt() > System.nanoTime()) {
+            return new HashSet<>(cached.rights());
+        }
         Set<String> rights = new HashSet<>();
         for (JsonElement e : userInfo().get("rights").getAsJsonArray()) {
             rights.add(e.getAsString());
         }
+        if (!rightsCacheTtl.isZero()) {
+            cachedRights = new CachedRights(Set.copyOf(rights), System.nanoTime() + rightsCacheTtl.toNanos());
+        }
         return rights;
     }
 
+    /**
+     * 使缓存的当前用户权限失效，下次调用 {@link #getRightsName()} 时会重新获取。
+     *
+     * @see WikiBuilder#setRightsCacheTtl(Duration)
+     * @since 1.0.1
+     */
+    public void invalidateRights() {
+        cachedRights = null;
+    }
+
+    /**
+     * @return 登录时使用的用户名，匿名时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    private record CachedRights(Set<String> rights, long expiresAt) {
+    }
+
     private void login() throws IOException {
         if (this.loginAssert == Assert.BOT) {
             login(username, password);
@@ -615,15 +1061,15 @@ public final class Wiki implements UserAction {
 
     private void login(String username, String password) throws IOException {
         try (Response response = post(ActionType.LOGIN, paramsMap("lgname", username, "lgpassword", password))) {
-            String body = checkAndGetBody(response, "login");
-            String result = JsonUtil.checkAndGetNonNullString(body, "login", "result");
+            ParsedResponse body = ParsedResponse.read(response, "login");
+            String result = body.getNonNullString(LOGIN_RESULT);
             switch (result) {
                 case "Success" -> refreshToken();
                 case "Failed" -> throw new RuntimeException("Failed to login: Incorrect username or password entered");
                 case "Aborted" ->
                         throw new RuntimeException("Failed to login: Authentication requires user interaction，please use the 'normal()' instead of the 'bot()' to login");
                 default -> {
-                    String reason = JsonUtil.checkAndGetAsString(body, true, "login", "reason");
+                    String reason = body.getString(LOGIN_REASON);
                     throw new RuntimeException("Failed to login: " + (reason == null ? body : reason));
                 }
             }
@@ -632,11 +1078,11 @@ public final class Wiki implements UserAction {
 
     private void clientLogin(String username, String password) throws IOException {
         try (Response response = post(ActionType.CLIENT_LOGIN, paramsMap("username", username, "password", password, "loginreturnurl", "https://example.com"))) {
-            String body = checkAndGetBody(response, "login");
-            String status = JsonUtil.checkAndGetNonNullString(body, "clientlogin", "status");
-            String message = JsonUtil.checkAndGetNonNullString(body, "clientlogin", "message");
+            ParsedResponse body = ParsedResponse.read(response, "login");
+            String status = body.getNonNullString(CLIENT_LOGIN_STATUS);
+            String message = body.getNonNullString(CLIENT_LOGIN_MESSAGE);
             String messageToThrow = message.replace('\n', ' ');
-            String messageCode = JsonUtil.checkAndGetNonNullString(body, "clientlogin", "messagecode");
+            String messageCode = body.getNonNullString(CLIENT_LOGIN_MESSAGE_CODE);
             Supplier<RuntimeException> defaultException = () -> new RuntimeException("Failed to login: " + messageToThrow + " (" + messageCode + ")");
             switch (status) {
                 case "PASS" -> refreshToken();
@@ -660,15 +1106,15 @@ public final class Wiki implements UserAction {
                             }
                         }
                         try (Response tfaResponse = post(ActionType.CLIENT_LOGIN, paramsMap("OATHToken", tfaCode, "logincontinue", "true"))) {
-                            String tfaBody = checkAndGetBody(tfaResponse, "client-login");
-                            String tfaStatus = JsonUtil.checkAndGetNonNullString(tfaBody, "clientlogin", "status");
+                            ParsedResponse tfaBody = ParsedResponse.read(tfaResponse, "client-login");
+                            String tfaStatus = tfaBody.getNonNullString(CLIENT_LOGIN_STATUS);
                             if (tfaStatus.equals("PASS")) {
                                 refreshToken();
                             } else {
                                 throw new RuntimeException(
                                         "Failed to login: " +
-                                                JsonUtil.checkAndGetNonNullString(tfaBody, "clientlogin", "message") +
-                                                " (" + JsonUtil.checkAndGetNonNullString(tfaBody, "clientlogin", "messagecode") + ")");
+                                                tfaBody.getNonNullString(CLIENT_LOGIN_MESSAGE) +
+                                                " (" + tfaBody.getNonNullString(CLIENT_LOGIN_MESSAGE_CODE) + ")");
                             }
                         }
                     } else {
@@ -688,8 +1134,7 @@ public final class Wiki implements UserAction {
             paramsMap.put("revid", revisionId + "");
         }
         try (Response response = post(ActionType.PATROL, paramsMap)) {
-            String body = checkAndGetBody(response, "patrol");
-            return GSON.fromJson(body, JsonObject.class).has("patrol");
+            return ParsedResponse.read(response, "patrol").has("patrol");
         } catch (Exception e) {
             throw new RuntimeException("Failed to patrol: " + e.getMessage(), e);
         }
@@ -846,8 +1291,7 @@ public final class Wiki implements UserAction {
             params.put("difftype", diffType.toString());
         }
         try (Response response = post(ActionType.COMPARE, params)) {
-            String body = checkAndGetBody(response, "compare pages");
-            return DifferentComparison.fromJson(JsonUtil.checkAndGetNonNullElement(body, "compare").getAsJsonObject());
+            return DifferentComparison.fromJson(ParsedResponse.read(response, "compare pages").getNonNull(COMPARE).getAsJsonObject());
         } catch (Exception e) {
             throw new RuntimeException("Failed to compare pages: " + e.getMessage(), e);
         }
@@ -914,13 +1358,12 @@ public final class Wiki implements UserAction {
             paramsMap.put("bot", "true");
         }
         try (Response response = post(ActionType.EDIT, paramsMap)) {
-            String body = checkAndGetBody(response, "edit");
-            String errorCode = JsonUtil.checkAndGetAsString(body, "error", "code");
-            String errorInfo = JsonUtil.checkAndGetAsString(body, "error", "info");
+            ParsedResponse body = ParsedResponse.read(response, "edit");
+            String errorCode = body.errorCode();
             if (errorCode != null) {
                 switch (errorCode) {
                     case "abusefilter-disallowed" -> {
-                        AbuseFilter abuseFilter = AbuseFilter.fromJson(JsonUtil.checkAndGetNonNullString(body, "error", "abusefilter"));
+                        AbuseFilter abuseFilter = AbuseFilter.fromJson(body.getNonNull(ERROR_ABUSE_FILTER).getAsJsonObject());
                         throw new RuntimeException("Failed to edit: Triggered AbuseFilter#" + abuseFilter.id() + ". " + "Actions taken: " +
                                 Arrays.toString(abuseFilter.actions()) + ", description: " + abuseFilter.description());
                     }
@@ -933,17 +1376,116 @@ public final class Wiki implements UserAction {
                         }
                         throw new RuntimeException("Failed to edit: Create conflict");
                     }
-                    default -> throw new RuntimeException("Failed to edit: " + errorInfo + " (" + errorCode + ")");
+                    default -> throw new RuntimeException("Failed to edit: " + body.errorInfo() + " (" + errorCode + ")");
                 }
             }
-            String result = JsonUtil.checkAndGetNonNullString(body, "edit", "result");
-
-            return result.equals("Success");
+            String result = body.getNonNullString(EDIT_RESULT);
+            if (result.equals("Success")) {
+                edited(body.getObject(EDIT));
+                return true;
+            }
+            return false;
         } catch (Exception e) {
             throw new RuntimeException("Failed to edit: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 将成功编辑后页面的修订状态记录到本地，使之后的读取不必重新查询。
+     * <p>
+     * 提交的文本不会作为新修订版本的内容写入 {@link PageContentCache}：保存前转换（签名、{@code subst:}、管道技巧、去除行尾空白等）
+     * 可能使实际保存的内容与提交的文本不同，而内容缓存不会过期。新修订版本的内容在下次读取时从Wiki获取。
+     */
+    private void edited(JsonObject edit) {
+        String title = edit.get("title").getAsString();
+        evictResponseCache(title);
+        if (JsonUtil.flag(edit, "nochange") || !edit.has("newrevid")) {
+            return;
+        }
+        long pageId = edit.get("pageid").getAsLong();
+        long revId = edit.get("newrevid").getAsLong();
+        if (recentWrites != null) {
+            recentWrites.edited(title, pageId, revId, edit.has("newtimestamp") ? edit.get("newtimestamp").getAsString() : null);
+        }
+    }
+
+    private void evictResponseCache(String... titles) {
+        Cache cache = client.cache();
+        if (cache == null) {
+            return;
+        }
+        try {
+            ResponseCacheInterceptor.evictTitles(cache, titles);
+        } catch (IOException e) {
+            LOGGER.warn("移除 HTTP 响应缓存失败", e);
+        }
+    }
+
+    /**
+     * 移动页面。
+     *
+     * @param from       要移动的页面标题
+     * @param to         新标题
+     * @param reason     移动原因
+     * @param noRedirect 不创建重定向
+     * @return 移动是否成功
+     * @since 1.0.1
+     */
+    public boolean move(String from, String to, String reason, boolean noRedirect) {
+        Map<String, String> paramsMap = paramsMap("from", from, "to", to, "reason", reason);
+        if (noRedirect) {
+            paramsMap.put("noredirect", "true");
+        }
+        try (Response response = post(ActionType.MOVE, paramsMap)) {
+            ParsedResponse body = ParsedResponse.read(response, "move");
+            String errorCode = body.errorCode();
+            if (errorCode != null) {
+                throw new RuntimeException(body.errorInfo() + " (" + errorCode + ")");
+            }
+            JsonObject move = body.getNonNull(MOVE).getAsJsonObject();
+            String movedFrom = move.get("from").getAsString();
+            String movedTo = move.get("to").getAsString();
+            // 移动会在页面上产生一个新的空修订版本，原标题可能变为重定向，新旧标题的状态都需要重新查询
+            evictResponseCache(from, to, movedFrom, movedTo);
+            if (recentWrites != null) {
+                recentWrites.forget(from);
+                recentWrites.forget(movedFrom);
+                recentWrites.forget(to);
+                recentWrites.forget(movedTo);
+            }
+            return true;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to move page: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 删除页面。
+     *
+     * @param title  要删除的页面标题
+     * @param reason 删除原因
+     * @return 删除是否成功
+     * @since 1.0.1
+     */
+    public boolean delete(String title, String reason) {
+        try (Response response = post(ActionType.DELETE, paramsMap("title", title, "reason", reason))) {
+            ParsedResponse body = ParsedResponse.read(response, "delete");
+            String errorCode = body.errorCode();
+            if (errorCode != null) {
+                throw new RuntimeException(body.errorInfo() + " (" + errorCode + ")");
+            }
+            String deleted = body.getNonNullString(DELETE_TITLE);
+            evictResponseCache(title, deleted);
+            if (recentWrites != null) {
+                recentWrites.deleted(title);
+                recentWrites.deleted(deleted);
+            }
+            return true;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete page: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 创建和编辑页面。
      *
@@ -1077,6 +1619,111 @@ public final class Wiki implements UserAction {
         return allPages.getResult();
     }
 
+    /**
+     * 循序列举在指定多个命名空间中的所有页面，每获取到一批页面就立即交给消费者处理，而不会将所有页面保存在内存中。
+     *
+     * @param pagePrefix     搜索所有以此值开头的页面标题，为 {@code null} 时忽略
+     * @param filterRedirect 要列出哪些页面，为 {@code null} 时为 {@link FilterRedirect#ALL}
+     * @param consumer       页面的消费者
+     * @param nameSpaces     要列举的多个命名空间
+     * @since 1.0.1
+     */
+    public void forEachPage(String pagePrefix, FilterRedirect filterRedirect, Consumer<Page> consumer, NameSpace... nameSpaces) {
+        for (NameSpace nameSpace : nameSpaces) {
+            QueryRequest queryRequest = new QueryRequest(this, "list all pages");
+            AllPagesListModule allPages = new AllPagesListModule(queryRequest);
+            if (pagePrefix != null) {
+                allPages.prefix(pagePrefix);
+            }
+            if (filterRedirect != null) {
+                allPages.filterRedirect(filterRedirect);
+            }
+            if (nameSpace != null) {
+                allPages.nameSpace(nameSpace);
+            }
+            allPages.forEach(consumer);
+            queryRequest.addSubmodule(allPages);
+            queryRequest.execute().parse();
+        }
+    }
+
+    /**
+     * 循序列举在指定多个命名空间中的所有页面标题，边列举边写入文件，并返回映射该文件的{@link MappedTitleList 标题列表}。
+     * <p>
+     * 与 {@link #allPageTitles(String, FilterRedirect, NameSpace...)} 不同，标题不会保存在堆中，适合页面数量极多的Wiki。
+     * 返回的列表可以直接作为 {@link top.spco.spcobot.wiki.task.Task 任务}的目标。
+     *
+     * @param file           标题列表文件，已存在时在列举成功后被替换，列举失败时保持不变
+     * @param pagePrefix     搜索所有以此值开头的页面标题，为 {@code null} 时忽略
+     * @param filterRedirect 要列出哪些页面，为 {@code null} 时为 {@link FilterRedirect#ALL}
+     * @param nameSpaces     要列举的多个命名空间
+     * @return 指定多个命名空间中的所有页面标题
+     * @throws UncheckedIOException 如果写入文件失败
+     * @since 1.0.1
+     */
+    public MappedTitleList saveAllPageTitles(Path file, String pagePrefix, FilterRedirect filterRedirect, NameSpace... nameSpaces) {
+        Path temp = null;
+        try {
+            // 先写入同目录下的临时文件，列举完成后再替换目标文件，列举失败时不会留下看似完整的截断文件
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "titles-", ".tmp");
+            try (MappedTitleList.Writer writer = MappedTitleList.create(temp)) {
+                forEachPage(pagePrefix, filterRedirect, page -> {
+                    try {
+                        writer.add(page.title());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, nameSpaces);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            return MappedTitleList.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save page titles: " + e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOGGER.warn("删除临时文件失败：{}", temp, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 列举在指定多个命名空间中的所有页面标题，并建立本地的{@link MappedTitleIndex 标题索引}，
+     * 此后的精确查找、前缀查找和范围查找不再需要通过 API 查询。
+     * 索引可以通过 {@link top.spco.spcobot.wiki.cache.TitleIndexUpdater} 随Wiki上的更改更新。
+     *
+     * @param file           索引文件，已存在时在建立成功后被替换。列举期间会在同一目录下创建临时文件，完成或失败后删除
+     * @param filterRedirect 要列出哪些页面，为 {@code null} 时为 {@link FilterRedirect#ALL}
+     * @param nameSpaces     要列举的多个命名空间
+     * @return 标题索引
+     * @throws UncheckedIOException 如果写入文件失败
+     * @since 1.0.1
+     */
+    public MappedTitleIndex buildTitleIndex(Path file, FilterRedirect filterRedirect, NameSpace... nameSpaces) {
+        try (MappedTitleIndex.Builder builder = MappedTitleIndex.builder(file)) {
+            forEachPage(null, filterRedirect, page -> {
+                try {
+                    builder.add(page.title());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, nameSpaces);
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build title index: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 列举所有注册用户。
      *
@@ -1109,7 +1756,38 @@ public final class Wiki implements UserAction {
      */
     public HashSet<Revision> allRevisions(String user, Timestamp start, Timestamp end, NameSpace... nameSpaces) {
         HashSet<Revision> revisions = new HashSet<>();
-        Map<String, String> continueParam = new HashMap<>();
+        Map<String, String> baseParam = allRevisionsParams(user, start, end, nameSpaces);
+        continuableList(ActionTypes.ALL_REVISIONS, baseParam, "get all revisions", QUERY_ALL_REVISIONS,
+                JsonReaderUtil.nestedList("revisions", GSON.getAdapter(Revision.class)), revisions::addAll);
+        return revisions;
+    }
+
+    /**
+     * 列举所有修订的ID。只请求ID，不构建 {@link Revision} 对象，适合获取大量修订。
+     *
+     * @param user       只列出此用户做出的修订
+     * @param start      枚举的起始{@link Timestamp 时间戳}，为 {@code null} 时忽略
+     * @param end        结束枚举的时间戳，为 {@code null} 时忽略
+     * @param nameSpaces 只列出此命名空间的页面，此参数支持使用 {@link NameSpace#ALL} 表示指定所有命名空间
+     * @return 所有修订的ID
+     * @since 1.0.1
+     */
+    public LongHashSet allRevisionIds(String user, Timestamp start, Timestamp end, NameSpace... nameSpaces) {
+        LongHashSet revisionIds = new LongHashSet();
+        Map<String, String> baseParam = allRevisionsParams(user, start, end, nameSpaces);
+        baseParam.put("arvprop", "ids");
+        continuableAction(ActionTypes.ALL_REVISIONS, baseParam, "get all revision ids", (jsonObject -> {
+            JsonArray revisionsJson = JsonUtil.checkAndGetElement(jsonObject, "query", "allrevisions").getAsJsonArray();
+            for (JsonElement page : revisionsJson) {
+                for (JsonElement revision : page.getAsJsonObject().get("revisions").getAsJsonArray()) {
+                    revisionIds.add(revision.getAsJsonObject().get("revid").getAsLong());
+                }
+            }
+        }));
+        return revisionIds;
+    }
+
+    private static Map<String, String> allRevisionsParams(String user, Timestamp start, Timestamp end, NameSpace... nameSpaces) {
         Map<String, String> baseParam = paramsMap("arvlimit", "max");
         if (start != null) {
             baseParam.put("arvstart", start.toString());
@@ -1123,15 +1801,7 @@ public final class Wiki implements UserAction {
         if (nameSpaces != null && nameSpaces.length != 0) {
             baseParam.put("arvnamespace", NameSpace.toApiParam(true, nameSpaces));
         }
-        continuableAction(ActionTypes.ALL_REVISIONS, baseParam, "get all revisions", (jsonObject -> {
-            JsonArray revisionsJson = JsonUtil.checkAndGetElement(jsonObject, "query", "allrevisions").getAsJsonArray();
-            for (JsonElement page : revisionsJson) {
-                for (JsonElement revision : page.getAsJsonObject().get("revisions").getAsJsonArray()) {
-                    revisions.add(Revision.fromJson(revision.getAsJsonObject()));
-                }
-            }
-        }));
-        return revisions;
+        return baseParam;
     }
 
     /**
@@ -1158,8 +1828,52 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public HashSet<RecentChange> recentChanges(Timestamp start, Timestamp end, RevisionType[] show, NameSpace... nameSpaces) {
+        return recentChanges(start, end, show, DEFAULT_RECENT_CHANGE_FIELDS, nameSpaces);
+    }
+
+    /**
+     * 列举最近更改，只请求需要的字段。
+     *
+     * @param start      枚举的起始{@link Timestamp 时间戳}，为 {@code null} 时忽略
+     * @param end        结束枚举的时间戳，为 {@code null} 时忽略
+     * @param show       只显示满足这些标准的项目
+     * @param fields     需要的字段，未请求的字段在结果中为 {@code null} 或 {@code 0}
+     * @param nameSpaces 只列出此命名空间的页面，此参数支持使用 {@link NameSpace#ALL} 表示指定所有命名空间
+     * @return 列举的最近更改
+     * @since 1.0.1
+     */
+    public HashSet<RecentChange> recentChanges(Timestamp start, Timestamp end, RevisionType[] show, RecentChangeField[] fields, NameSpace... nameSpaces) {
         HashSet<RecentChange> recentChanges = new HashSet<>();
-        Map<String, String> baseParam = paramsMap("rclimit", "max", "rcprop", "user|comment|timestamp|title|ids");
+        Map<String, String> baseParam = recentChangesParams(start, end, show, fields, nameSpaces);
+        continuableList(ActionTypes.RECENT_CHANGES, baseParam, "get recent changes", QUERY_RECENT_CHANGES,
+                GSON.getAdapter(RecentChange.class), recentChanges::add);
+        return recentChanges;
+    }
+
+    /**
+     * 列举最近更改的ID。只请求ID，不构建 {@link RecentChange} 对象，适合获取大量最近更改。
+     *
+     * @param start      枚举的起始{@link Timestamp 时间戳}，为 {@code null} 时忽略
+     * @param end        结束枚举的时间戳，为 {@code null} 时忽略
+     * @param show       只显示满足这些标准的项目
+     * @param nameSpaces 只列出此命名空间的页面，此参数支持使用 {@link NameSpace#ALL} 表示指定所有命名空间
+     * @return 最近更改的ID
+     * @since 1.0.1
+     */
+    public IntHashSet recentChangeIds(Timestamp start, Timestamp end, RevisionType[] show, NameSpace... nameSpaces) {
+        IntHashSet ids = new IntHashSet();
+        Map<String, String> baseParam = recentChangesParams(start, end, show, new RecentChangeField[]{RecentChangeField.ID}, nameSpaces);
+        continuableAction(ActionTypes.RECENT_CHANGES, baseParam, "get recent change ids", (jsonObject -> {
+            JsonArray rcsJson = JsonUtil.checkAndGetNonNullElement(jsonObject, "query", "recentchanges").getAsJsonArray();
+            for (JsonElement rcJson : rcsJson) {
+                ids.add(rcJson.getAsJsonObject().get("rcid").getAsInt());
+            }
+        }));
+        return ids;
+    }
+
+    private Map<String, String> recentChangesParams(Timestamp start, Timestamp end, RevisionType[] show, RecentChangeField[] fields, NameSpace... nameSpaces) {
+        Map<String, String> baseParam = paramsMap("rclimit", "max", "rcprop", QueryField.toPropParam(fields));
         if (show != null && show.length > 0) {
             StringBuilder rcshowBuilder = new StringBuilder();
             for (int i = 0; i < show.length; i++) {
@@ -1183,37 +1897,218 @@ public final class Wiki implements UserAction {
         if (nameSpaces != null && nameSpaces.length != 0) {
             baseParam.put("rcnamespace", NameSpace.toApiParam(true, nameSpaces));
         }
-        continuableAction(ActionTypes.RECENT_CHANGES, baseParam, "get recent changes", (jsonObject -> {
-            JsonArray rcsJson = JsonUtil.checkAndGetNonNullElement(jsonObject, "query", "recentchanges").getAsJsonArray();
-            for (JsonElement rcJson : rcsJson) {
-                recentChanges.add(RecentChange.fromJson(rcJson.getAsJsonObject()));
-            }
-        }));
-        return recentChanges;
+        return baseParam;
     }
 
     /**
      * 获取页面内容。
+     * <p>
+     * 设置了 {@link #getPageContentCache() 页面内容缓存} 时，会先查询页面的最新修订版本，已缓存时不再下载内容。
      *
      * @param pageTitle 页面标题
      * @return 页面内容，页面不存在时返回空字符串
      * @since 0.1.0
      */
     public String getPageText(String pageTitle) {
-        try (Response response = get(ActionTypes.REVISIONS, paramsMap("rvlimit", "max", "rvprop", "content", "titles", pageTitle))) {
-            String body = checkAndGetBody(response, "get revisions");
-            JsonObject bodyJson = GSON.fromJson(body, JsonObject.class);
-            JsonObject page = JsonUtil.checkAndGetElement(bodyJson, "query", "pages").getAsJsonObject().asMap().entrySet().iterator().next().getValue().getAsJsonObject();
-            if (page.has("missing")) {
+        if (pageContentCache != null) {
+            return getPageTexts(List.of(pageTitle), 1).getOrDefault(pageTitle, "");
+        }
+        try (Response response = get(ActionTypes.REVISIONS, paramsMap("rvlimit", "1", "rvprop", "content", "rvslots", "main", "titles", pageTitle))) {
+            JsonObject page = JsonUtil.pages(ParsedResponse.read(response, "get revisions").getNonNull(QUERY_PAGES)).get(0);
+            if (JsonUtil.flag(page, "missing")) {
                 return "";
             }
             JsonArray pageRevisions = page.get("revisions").getAsJsonArray();
-            return pageRevisions.get(0).getAsJsonObject().get("*").getAsString();
+            return JsonUtil.revisionContent(pageRevisions.get(0).getAsJsonObject());
         } catch (Exception e) {
             throw new RuntimeException("Failed to get page text: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 批量获取多个页面的内容。
+     *
+     * @param pageTitles 页面标题
+     * @return 页面内容，键为传入的页面标题，值为页面内容。页面不存在时值为空字符串
+     * @since 1.0.1
+     */
+    public HashMap<String, String> getPageTexts(Collection<String> pageTitles) {
+        return getPageTexts(pageTitles, apiLimit());
+    }
+
+    /**
+     * 批量获取多个页面的内容。
+     * <p>
+     * 设置了 {@link #getPageContentCache() 页面内容缓存} 时，会先批量查询页面的最新修订版本，只下载未缓存的修订版本的内容。
+     *
+     * @param pageTitles 页面标题
+     * @param batchSize  每次请求获取的页面数量，不能超过 {@link #apiLimit()}
+     * @return 页面内容，键为传入的页面标题，值为页面内容。页面不存在时值为空字符串
+     * @since 1.0.1
+     */
+    public HashMap<String, String> getPageTexts(Collection<String> pageTitles, int batchSize) {
+        HashMap<String, String> texts = new HashMap<>();
+        if (pageTitles == null || pageTitles.isEmpty()) {
+            return texts;
+        }
+        if (pageContentCache == null) {
+            fetchPageTexts(pageTitles, batchSize, texts);
+            return texts;
+        }
+        return getPageTexts(pageTitles, batchSize, state -> true);
+    }
+
+    /**
+     * 按条件批量获取多个页面的内容。
+     * <p>
+     * 先以 {@code prop=info} 批量查询页面的最新修订状态，只下载满足条件的页面的内容。
+     * 设置了 {@link #getPageContentCache() 页面内容缓存} 时，已缓存的修订版本不会被重新下载。
+     *
+     * @param pageTitles 页面标题
+     * @param batchSize  每次请求获取的页面数量，不能超过 {@link #apiLimit()}
+     * @param condition  根据页面的修订状态判断是否需要获取内容
+     * @return 满足条件的页面的内容，键为传入的页面标题。页面不存在时值为空字符串
+     * @since 1.0.1
+     */
+    public HashMap<String, String> getPageTexts(Collection<String> pageTitles, int batchSize, Predicate<PageState> condition) {
+        HashMap<String, String> texts = new HashMap<>();
+        if (pageTitles == null || pageTitles.isEmpty()) {
+            return texts;
+        }
+        List<String> uncached = new ArrayList<>();
+        for (PageState state : getPageStates(pageTitles, batchSize).values()) {
+            if (!condition.test(state)) {
+                continue;
+            }
+            if (state.missing()) {
+                texts.put(state.title(), "");
+                continue;
+            }
+            String text = pageContentCache == null ? null : pageContentCache.get(state.pageId(), state.lastRevId());
+            if (text != null) {
+                texts.put(state.title(), text);
+            } else {
+                uncached.add(state.title());
+            }
+        }
+        fetchPageTexts(uncached, batchSize, texts);
+        return texts;
+    }
+
+    /**
+     * 只获取自上次处理以来有新修订版本的页面的内容，适用于定期对大量页面的全量扫描。
+     * <p>
+     * 返回后，{@code knownRevisions} 中内容被返回的页面的值会被更新为其最新修订版本的ID，可将其保存下来用于下一次扫描。
+     *
+     * @param knownRevisions 键为页面标题，值为上次处理时的修订版本ID，为 {@code null} 表示尚未处理过
+     * @param batchSize      每次请求获取的页面数量，不能超过 {@link #apiLimit()}
+     * @return 有新修订版本的页面的内容，键为页面标题。页面不存在时值为空字符串
+     * @since 1.0.1
+     */
+    public HashMap<String, String> getChangedPageTexts(Map<String, Long> knownRevisions, int batchSize) {
+        HashMap<String, Long> latest = new HashMap<>();
+        HashMap<String, String> texts = getPageTexts(knownRevisions.keySet(), batchSize, state -> {
+            Long known = knownRevisions.get(state.title());
+            if (known != null && known == state.lastRevId()) {
+                return false;
+            }
+            latest.put(state.title(), state.lastRevId());
+            return true;
+        });
+        knownRevisions.putAll(latest);
+        return texts;
+    }
+
+    /**
+     * 下载页面的最新内容并放入 {@code texts}，设置了页面内容缓存时同时写入缓存。
+     */
+    private void fetchPageTexts(Collection<String> pageTitles, int batchSize, Map<String, String> texts) {
+        if (pageTitles.isEmpty()) {
+            return;
+        }
+        for (HashSet<String> batch : CollectionUtil.split(new HashSet<>(pageTitles), batchSize)) {
+            // 标题会被规范化，需要将返回的标题映射回传入的标题
+            HashMap<String, String> normalized = new HashMap<>();
+            continuableAction(ActionTypes.REVISIONS, paramsMap("rvprop", "ids|content", "rvslots", "main", "titles", ParamUtil.toListParam(batch)), "get page texts", jsonObject -> {
+                readNormalized(jsonObject, normalized);
+                for (JsonObject page : JsonUtil.pages(QUERY_PAGES.get(jsonObject))) {
+                    String title = page.get("title").getAsString();
+                    String requested = normalized.getOrDefault(title, title);
+                    if (JsonUtil.flag(page, "missing") || JsonUtil.flag(page, "invalid")) {
+                        texts.put(requested, "");
+                    } else if (page.has("revisions")) {
+                        // 响应过大时部分页面的内容会在后续的请求中返回
+                        JsonObject revision = page.get("revisions").getAsJsonArray().get(0).getAsJsonObject();
+                        String text = JsonUtil.revisionContent(revision);
+                        texts.put(requested, text);
+                        if (pageContentCache != null) {
+                            pageContentCache.put(page.get("pageid").getAsLong(), revision.get("revid").getAsLong(), text);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量查询页面的最新修订状态，不会下载页面内容。
+     *
+     * @param pageTitles 页面标题
+     * @return 页面的修订状态，键为传入的页面标题
+     * @since 1.0.1
+     */
+    public HashMap<String, PageState> getPageStates(Collection<String> pageTitles) {
+        return getPageStates(pageTitles, apiLimit());
+    }
+
+    /**
+     * 批量查询页面的最新修订状态，不会下载页面内容。
+     *
+     * @param pageTitles 页面标题
+     * @param batchSize  每次请求查询的页面数量，不能超过 {@link #apiLimit()}
+     * @return 页面的修订状态，键为传入的页面标题
+     * @since 1.0.1
+     */
+    public HashMap<String, PageState> getPageStates(Collection<String> pageTitles, int batchSize) {
+        HashMap<String, PageState> states = new HashMap<>();
+        HashSet<String> unknown = new HashSet<>();
+        for (String title : pageTitles) {
+            // 刚刚写入过的页面直接使用写入时得到的状态
+            PageState written = recentWrites == null ? null : recentWrites.get(title);
+            if (written != null) {
+                states.put(title, written);
+            } else {
+                unknown.add(title);
+            }
+        }
+        for (HashSet<String> batch : CollectionUtil.split(unknown, batchSize)) {
+            HashMap<String, String> normalized = new HashMap<>();
+            continuableAction(ActionTypes.INFO, paramsMap("titles", ParamUtil.toListParam(batch)), "get page info", jsonObject -> {
+                readNormalized(jsonObject, normalized);
+                for (JsonObject page : JsonUtil.pages(QUERY_PAGES.get(jsonObject))) {
+                    String title = page.get("title").getAsString();
+                    String requested = normalized.getOrDefault(title, title);
+                    if (JsonUtil.flag(page, "missing") || JsonUtil.flag(page, "invalid")) {
+                        states.put(requested, new PageState(requested, 0, 0, null));
+                    } else {
+                        states.put(requested, new PageState(requested, page.get("pageid").getAsLong(), page.get("lastrevid").getAsLong(), page.get("touched").getAsString()));
+                    }
+                }
+            });
+        }
+        return states;
+    }
+
+    private static void readNormalized(JsonObject jsonObject, Map<String, String> normalized) {
+        JsonElement normalizedJson = JsonUtil.checkAndGetElement(jsonObject, "query", "normalized");
+        if (normalizedJson != null) {
+            for (JsonElement element : normalizedJson.getAsJsonArray()) {
+                JsonObject pair = element.getAsJsonObject();
+                normalized.put(pair.get("to").getAsString(), pair.get("from").getAsString());
+            }
+        }
+    }
+
     /**
      * 查找所有链接至指定页面的页面。
      *
@@ -1235,8 +2130,8 @@ public final class Wiki implements UserAction {
             baseParam.put("lhnamespace", NameSpace.toApiParam(true, nameSpaces));
         }
         continuableAction(ActionTypes.LINKS_HERE, baseParam, "get pages link here", (jsonObject -> {
-            JsonObject pageJson = JsonUtil.checkAndGetElement(jsonObject, "query", "pages").getAsJsonObject();
-            JsonArray linkHerePages = JsonUtil.checkAndGetNonNullElement(pageJson.asMap().entrySet().iterator().next().getValue().getAsJsonObject(), "linkshere").getAsJsonArray();
+            JsonObject pageJson = JsonUtil.pages(QUERY_PAGES.get(jsonObject)).get(0);
+            JsonArray linkHerePages = JsonUtil.checkAndGetNonNullElement(pageJson, "linkshere").getAsJsonArray();
             for (JsonElement linkHerePage : linkHerePages) {
                 pages.add(linkHerePage.getAsJsonObject().get("title").getAsString());
             }
@@ -1256,12 +2151,28 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public HashSet<AbuseFilterLogEntry> abuseLogs(Integer logId, String user, String title, Timestamp start, Timestamp end, AbuseFilter... filters) {
+        return abuseLogs(logId, user, title, start, end, AbuseLogField.values(), filters);
+    }
+
+    /**
+     * 显示滥用过滤器的捕获事件，只请求需要的字段。不请求 {@link AbuseLogField#DETAILS} 时不需要查看详细信息的权限。
+     *
+     * @param logId   显示指定日志ID的记录，为 {@code null} 时忽略
+     * @param user    只显示由指定的用户或IP地址完成的记录，为 {@code null} 时忽略
+     * @param title   只显示在指定页面上发生过的条项，为 {@code null} 时忽略
+     * @param start   枚举的起始{@link Timestamp 时间戳}，为 {@code null} 时忽略
+     * @param end     结束枚举的时间戳，为 {@code null} 时忽略
+     * @param fields  需要的字段，未请求的字段在结果中为 {@code null} 或 {@code 0}
+     * @param filters 只显示被指定过滤器捕获过的记录，为 {@code null} 时忽略
+     * @since 1.0.1
+     */
+    public HashSet<AbuseFilterLogEntry> abuseLogs(Integer logId, String user, String title, Timestamp start, Timestamp end, AbuseLogField[] fields, AbuseFilter... filters) {
         Set<String> rights = getRightsName();
         checkPermission(rights, "get abuse logs", true, UserRight.ABUSEFILTER_LOG);
         checkPermission(rights, "get private abuse logs", AbuseFilter.hasPrivateFilter(filters), UserRight.ABUSEFILTER_LOG_PRIVATE);
-        checkPermission(rights, "get details of abuse logs", true, UserRight.ABUSEFILTER_LOG_DETAIL);
+        checkPermission(rights, "get details of abuse logs", Arrays.asList(fields).contains(AbuseLogField.DETAILS), UserRight.ABUSEFILTER_LOG_DETAIL);
         HashSet<AbuseFilterLogEntry> result = new HashSet<>();
-        HashMap<String, String> baseParam = paramsMap("afllimit", "max", "aflprop", "action|details|filter|hidden|ids|result|revid|timestamp|title|user");
+        HashMap<String, String> baseParam = paramsMap("afllimit", "max", "aflprop", QueryField.toPropParam(fields));
         if (logId != null) {
             baseParam.put("afllogid", logId.toString());
         }
@@ -1287,12 +2198,8 @@ public final class Wiki implements UserAction {
             if (!set.isEmpty()) {
                 requestParam.put("aflfilter", ParamUtil.toListParam(set));
             }
-            continuableAction(ActionTypes.ABUSE_LOG, requestParam, "get abuse logs", (s) -> {
-                JsonArray array = JsonUtil.checkAndGetElement(s, "query", "abuselog").getAsJsonArray();
-                for (JsonElement obj : array) {
-                    result.add(AbuseFilterLogEntry.fromJson(obj.getAsJsonObject()));
-                }
-            });
+            continuableList(ActionTypes.ABUSE_LOG, requestParam, "get abuse logs", QUERY_ABUSE_LOG,
+                    GSON.getAdapter(AbuseFilterLogEntry.class), result::add);
         }
         return result;
     }
@@ -1315,12 +2222,8 @@ public final class Wiki implements UserAction {
         if (end != null) {
             baseParam.put("aflend", end.toString());
         }
-        continuableAction(ActionTypes.ABUSE_LOG, baseParam, "get abuse logs", (s) -> {
-            JsonArray array = JsonUtil.checkAndGetElement(s, "query", "abuselog").getAsJsonArray();
-            for (JsonElement obj : array) {
-                result.add(SimplifiedAbuseFilterLogEntry.fromJson(obj.getAsJsonObject()));
-            }
-        });
+        continuableList(ActionTypes.ABUSE_LOG, baseParam, "get abuse logs", QUERY_ABUSE_LOG,
+                GSON.getAdapter(SimplifiedAbuseFilterLogEntry.class), result::add);
         return result;
     }
 
@@ -1352,12 +2255,11 @@ public final class Wiki implements UserAction {
                 paramsMap.put("usprop", propParam);
             }
             try (Response response = get(ActionTypes.USERS, paramsMap)) {
-                String body = checkAndGetBody(response, "get users meta");
-                JsonUtil.checkAndGetNonNullElement(body, "query", "users").getAsJsonArray().forEach(
+                ParsedResponse.read(response, "get users meta").getNonNull(QUERY_USERS).getAsJsonArray().forEach(
                         e -> {
                             JsonObject json = e.getAsJsonObject();
                             String name = json.get("name").getAsString();
-                            if (json.has("missing")) {
+                            if (JsonUtil.flag(json, "missing")) {
                                 LOGGER.warn("There is no user named '{}'. Please check your spelling.", name);
                                 usersMeta.put(name, null);
                             } else {
@@ -1372,6 +2274,96 @@ public final class Wiki implements UserAction {
         return usersMeta;
     }
 
+    /**
+     * 批量加载用户信息。时间窗口内对不同用户的请求会被合并为一次 {@code list=users} 请求。
+     * <p>
+     * 逐个处理大量用户时，应先对所有用户调用此方法，再依次等待结果。
+     *
+     * @param name       用户名
+     * @param properties 要获取的信息
+     * @return 用户信息，用户不存在时结果为 {@code null}
+     * @see WikiBuilder#setBatchWindow(Duration)
+     * @since 1.0.1
+     */
+    public CompletableFuture<JsonObject> loadUser(String name, UserProperty... properties) {
+        UserProperty[] sorted = properties == null ? new UserProperty[0] : properties.clone();
+        Arrays.sort(sorted);
+        return userLoader.get().load(new UserKey(name, List.of(sorted)));
+    }
+
+    /**
+     * 创建一个在第一次使用时才构建的批量加载器。批量上限取决于登录后才能确定的 {@link #apiLimit()}，因此不能在构造时创建。
+     *
+     * @param batchFunction 批量加载函数，第二个参数为批量上限
+     */
+    private <K, V> Supplier<BatchLoader<K, V>> lazyBatchLoader(BiFunction<Set<K>, Integer, Map<K, V>> batchFunction) {
+        return Suppliers.memoize(() -> {
+            int batchSize = apiLimit();
+            return new BatchLoader<>(keys -> batchFunction.apply(keys, batchSize), batchSize, batchWindow, getAsyncExecutor());
+        });
+    }
+
+    private Map<UserKey, JsonObject> loadUsers(Set<UserKey> keys) {
+        // 同一批次中要获取的信息可能不同，按信息分组请求
+        Map<List<UserProperty>, List<UserKey>> groups = new HashMap<>();
+        for (UserKey key : keys) {
+            groups.computeIfAbsent(key.properties(), k -> new ArrayList<>()).add(key);
+        }
+        Map<UserKey, JsonObject> result = new HashMap<>();
+        groups.forEach((properties, group) -> {
+            String[] names = group.stream().map(UserKey::name).toArray(String[]::new);
+            // 返回的是规范化后的用户名，需要将传入的用户名同样规范化后再查找
+            HashMap<String, JsonObject> usersMeta = new HashMap<>();
+            usersMeta(names, properties.toArray(new UserProperty[0])).forEach((name, json) -> usersMeta.put(normalizeUserName(name), json));
+            for (UserKey key : group) {
+                result.put(key, usersMeta.get(normalizeUserName(key.name())));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 按 MediaWiki 的规则规范化用户名：下划线视为空格，合并连续的空格，去除首尾空格，首字母大写。
+     */
+    private static String normalizeUserName(String name) {
+        String normalized = name.replace('_', ' ').trim().replaceAll(" {2,}", " ");
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+        int first = normalized.codePointAt(0);
+        return new StringBuilder(normalized.length())
+                .appendCodePoint(Character.toUpperCase(first))
+                .append(normalized, Character.charCount(first), normalized.length())
+                .toString();
+    }
+
+    private record UserKey(String name, List<UserProperty> properties) {
+    }
+
+    /**
+     * 批量加载页面的最新修订状态。时间窗口内对不同页面的请求会被合并为一次 {@code prop=info} 请求。
+     *
+     * @param title 页面标题
+     * @return 页面的修订状态
+     * @see WikiBuilder#setBatchWindow(Duration)
+     * @since 1.0.1
+     */
+    public CompletableFuture<PageState> loadPageState(String title) {
+        return pageStateLoader.get().load(title);
+    }
+
+    /**
+     * 批量加载页面内容。时间窗口内对不同页面的请求会被合并为一次请求，设置了页面内容缓存时已缓存的修订版本不会被重新下载。
+     *
+     * @param title 页面标题
+     * @return 页面内容，页面不存在时为空字符串
+     * @see WikiBuilder#setBatchWindow(Duration)
+     * @since 1.0.1
+     */
+    public CompletableFuture<String> loadPageText(String title) {
+        return pageTextLoader.get().load(title);
+    }
+
     /**
      * 获取页面内容。
      *
@@ -1394,8 +2386,23 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public HashSet<LogEntry> logEvents(LogType type, String executor, Timestamp start, Timestamp end) {
+        return logEvents(type, executor, start, end, LogEventField.values());
+    }
+
+    /**
+     * 从日志获取事件，只请求需要的字段。
+     *
+     * @param type     过滤日志记录至仅限此类型，为 {@code null} 时忽略
+     * @param executor 过滤记录为这些由指定用户做出的，为 {@code null} 时忽略
+     * @param start    枚举的起始{@link Timestamp 时间戳}，为 {@code null} 时忽略
+     * @param end      结束枚举的时间戳，为 {@code null} 时忽略
+     * @param fields   需要的字段，未请求的字段在结果中为 {@code null} 或 {@code 0}
+     * @return 日志条目
+     * @since 1.0.1
+     */
+    public HashSet<LogEntry> logEvents(LogType type, String executor, Timestamp start, Timestamp end, LogEventField... fields) {
         HashSet<LogEntry> entries = new HashSet<>();
-        Map<String, String> baseParams = paramsMap("leprop", "ids|title|type|user|userid|timestamp|comment|parsedcomment|details|tags", "lelimit", "max");
+        Map<String, String> baseParams = paramsMap("leprop", QueryField.toPropParam(fields), "lelimit", "max");
         if (type != null) {
             baseParams.put("letype", type.toString());
         }
@@ -1408,12 +2415,8 @@ public final class Wiki implements UserAction {
         if (end != null) {
             baseParams.put("leend", end.toString());
         }
-        continuableAction(ActionTypes.LOG_EVENT, baseParams, "get log events", jsonObject -> {
-            JsonArray eventsJson = JsonUtil.checkAndGetNonNullElement(jsonObject, "query", "logevents").getAsJsonArray();
-            for (JsonElement event : eventsJson) {
-                entries.add(LogEntry.fromJson(event.getAsJsonObject()));
-            }
-        });
+        continuableList(ActionTypes.LOG_EVENT, baseParams, "get log events", QUERY_LOG_EVENTS,
+                GSON.getAdapter(LogEntry.class), entries::add);
         return entries;
     }
 
@@ -1424,9 +2427,23 @@ public final class Wiki implements UserAction {
      * @since 0.1.0
      */
     public JsonObject userInfo() {
-        try (Response response = get(ActionTypes.USER_INFO, paramsMap("uiprop", "groups|rights|editcount|ratelimits"))) {
-            String body = checkAndGetBody(response, "get user info");
-            return JsonUtil.checkAndGetNonNullElement(body, "query", "userinfo").getAsJsonObject();
+        ensureLoggedIn();
+        CompletableFuture<JsonObject> prefetched = prefetchedUserInfo;
+        if (prefetched != null) {
+            // 预先获取的用户信息只使用一次，之后仍然每次重新获取
+            prefetchedUserInfo = null;
+            try {
+                return prefetched.join();
+            } catch (CompletionException e) {
+                LOGGER.warn("预先获取用户信息失败，重新获取", e.getCause());
+            }
+        }
+        return fetchUserInfo("groups|rights|editcount|ratelimits");
+    }
+
+    private JsonObject fetchUserInfo(String propParam) {
+        try (Response response = get(ActionTypes.USER_INFO, paramsMap("uiprop", propParam))) {
+            return ParsedResponse.read(response, "get user info").getNonNull(QUERY_USER_INFO).getAsJsonObject();
         } catch (IOException e) {
             throw new RuntimeException("Failed to get user info: " + e.getMessage(), e);
         }
@@ -1443,13 +2460,8 @@ public final class Wiki implements UserAction {
         if (properties == null || properties.length == 0) {
             return userInfo();
         } else {
-            String propParam = ParamUtil.toListParam(properties);
-            try (Response response = get(ActionTypes.USER_INFO, paramsMap("uiprop", propParam))) {
-                String body = checkAndGetBody(response, "get user info");
-                return JsonUtil.checkAndGetNonNullElement(body, "query", "userinfo").getAsJsonObject();
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to get user info: " + e.getMessage(), e);
-            }
+            ensureLoggedIn();
+            return fetchUserInfo(ParamUtil.toListParam(properties));
         }
     }
 
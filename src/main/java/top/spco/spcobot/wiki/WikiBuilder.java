@@ -19,11 +19,16 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import okhttp3.HttpUrl;
 import top.spco.spcobot.wiki.action.parameter.Assert;
+import top.spco.spcobot.wiki.cache.PageContentCache;
+import top.spco.spcobot.wiki.cache.ResponseCachePolicy;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimiter;
 import top.spco.spcobot.wiki.util.JsonUtil;
 import top.spco.spcobot.wiki.util.TOTPUtil;
 
 import java.net.CookieManager;
 import java.net.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 /**
@@ -42,10 +47,25 @@ import java.util.function.Supplier;
  * @since 0.1.0
  */
 public class WikiBuilder {
-    private final HttpUrl actionApi;
-    private CookieManager cookieManager = null;
-    private Proxy proxy = null;
-    private Supplier<String> otpSupplier = null;
+    // 以下字段在构造 Wiki 实例时被读取
+    final HttpUrl actionApi;
+    CookieManager cookieManager = null;
+    Proxy proxy = null;
+    Supplier<String> otpSupplier = null;
+    ConcurrencyLimiter concurrencyLimiter = null;
+    PageContentCache pageContentCache = null;
+    Path siteInfoDirectory = null;
+    Duration siteInfoMaxAge = Duration.ofDays(1);
+    Path responseCacheDirectory = null;
+    long responseCacheMaxBytes = 0;
+    ResponseCachePolicy responseCachePolicy = null;
+    Duration rightsCacheTtl = Duration.ZERO;
+    Duration recentWritesTtl = Duration.ZERO;
+    SessionStore sessionStore = null;
+    LoginMode loginMode = LoginMode.EAGER;
+    Duration batchWindow = Duration.ofMillis(10);
+    boolean coalesceRequests = true;
+    boolean releaseResponses = false;
 
     /**
      * 使用指定的 API 地址创建一个新的 {@code WikiBuilder} 实例。
@@ -94,6 +114,157 @@ public class WikiBuilder {
         return this;
     }
 
+    /**
+     * 设置自适应并发限制器，通过该Wiki实例发出的所有请求都会受其限制。
+     *
+     * @param concurrencyLimiter 要设置的 {@code ConcurrencyLimiter} 实例
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * 设置页面内容缓存。设置后获取页面内容前会先查询页面的最新修订版本，已缓存的修订版本不会被重新下载。
+     *
+     * @param pageContentCache 要设置的 {@code PageContentCache} 实例
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setPageContentCache(PageContentCache pageContentCache) {
+        this.pageContentCache = pageContentCache;
+        return this;
+    }
+
+    /**
+     * 设置站点信息快照的保存目录。设置后，Wiki实例创建时会直接读取未过期的快照，过期或不存在时才会请求站点信息并保存。
+     *
+     * @param directory 保存快照的目录
+     * @param maxAge    快照的最长有效时间
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setSiteInfoCache(Path directory, Duration maxAge) {
+        this.siteInfoDirectory = directory;
+        this.siteInfoMaxAge = maxAge;
+        return this;
+    }
+
+    /**
+     * 启用查询请求的 HTTP 响应缓存。按缓存策略可缓存的 {@code action=query} GET 请求会自动附带 {@code maxage} 和 {@code smaxage} 参数，
+     * 缓存时间内重复的相同请求直接从本地缓存返回。
+     *
+     * @param directory 缓存目录
+     * @param maxBytes  缓存的最大字节数
+     * @param policy    缓存策略，例如 {@link ResponseCachePolicy#defaults()}
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setResponseCache(Path directory, long maxBytes, ResponseCachePolicy policy) {
+        this.responseCacheDirectory = directory;
+        this.responseCacheMaxBytes = maxBytes;
+        this.responseCachePolicy = policy;
+        return this;
+    }
+
+    /**
+     * 设置当前用户权限的缓存时间。缓存时间内 {@link Wiki#getRightsName()} 直接返回上次获取的权限，
+     * 可配合 {@link top.spco.spcobot.wiki.cache.CacheCoherence} 在用户权限变更时及时失效。
+     *
+     * @param ttl 缓存时间，为 {@link Duration#ZERO} 时每次都重新获取
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setRightsCacheTtl(Duration ttl) {
+        this.rightsCacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * 设置写后读记录的有效期。编辑、移动和删除成功后，响应中的页面ID和新修订版本会记录在本地，
+     * 有效期内再次读取这些页面时不会重新查询页面的最新修订版本。
+     * <p>
+     * 有效期内其他用户对这些页面的编辑只有在 {@link top.spco.spcobot.wiki.cache.CacheCoherence} 报告后才会被看到，
+     * 因此默认不启用。
+     *
+     * @param ttl 有效期，为 {@link Duration#ZERO} 时不记录，默认为 {@link Duration#ZERO}
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setRecentWritesTtl(Duration ttl) {
+        this.recentWritesTtl = ttl;
+        return this;
+    }
+
+    /**
+     * 设置登录会话的存储。设置后，以用户或机器人登录时会先读取保存的会话，只用一次请求验证其是否仍然有效，
+     * 有效时不再重新登录；登录成功后会话会被保存，供下次启动时使用。
+     *
+     * @param sessionStore 要设置的 {@code SessionStore} 实例
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setSessionStore(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+        return this;
+    }
+
+    /**
+     * 设置以用户或机器人身份创建Wiki实例时的登录方式，默认为 {@link LoginMode#EAGER}。
+     * 同时管理大量Wiki的程序可以使用 {@link LoginMode#LAZY} 或 {@link LoginMode#PREFETCH} 加快启动。
+     *
+     * @param loginMode 登录方式
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @since 1.0.1
+     */
+    public WikiBuilder setLoginMode(LoginMode loginMode) {
+        this.loginMode = loginMode;
+        return this;
+    }
+
+    /**
+     * 设置批量加载的时间窗口，默认为 10 毫秒。窗口内对用户信息、页面状态或页面内容的单个请求会被合并为一次批量请求。
+     *
+     * @param window 时间窗口
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @see Wiki#loadUser(String, top.spco.spcobot.wiki.action.parameter.UserProperty...)
+     * @since 1.0.1
+     */
+    public WikiBuilder setBatchWindow(Duration window) {
+        this.batchWindow = window;
+        return this;
+    }
+
+    /**
+     * 设置是否合并同时进行中的相同 GET 请求，默认启用。启用时相同的请求只会发出一次，其他请求共享它的响应。
+     * 写操作（POST 请求）之后发出的请求不会与写操作之前发出的请求合并，因此不会读到写操作之前的数据。
+     *
+     * @param coalesceRequests 是否合并
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @see top.spco.spcobot.wiki.concurrent.SingleFlightInterceptor
+     * @since 1.0.1
+     */
+    public WikiBuilder setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+        return this;
+    }
+
+    /**
+     * 设置请求默认是否使用低内存模式，默认不使用。低内存模式下响应体直接从响应流解析，
+     * 查询的每一页在子模块解析完成后立即释放响应文本和 JSON 树并关闭响应，长的续查链不会保留已经处理过的页面。
+     *
+     * @param releaseResponses 是否使用低内存模式
+     * @return 当前的 {@code WikiBuilder} 实例（支持链式调用）
+     * @see ActionRequest#setReleaseResponses(boolean)
+     * @since 1.0.1
+     */
+    public WikiBuilder setReleaseResponses(boolean releaseResponses) {
+        this.releaseResponses = releaseResponses;
+        return this;
+    }
+
     /**
      * 以匿名用户登录Wiki。
      *
@@ -101,7 +272,7 @@ public class WikiBuilder {
      * @since 0.1.0
      */
     public Wiki anonymous() {
-        return new Wiki(actionApi, cookieManager, proxy);
+        return new Wiki(this);
     }
 
     /**
@@ -111,7 +282,7 @@ public class WikiBuilder {
      * @since 0.1.0
      */
     public Wiki normal(String username, String password) {
-        return new Wiki(actionApi, cookieManager, proxy, username, password, Assert.USER, otpSupplier);
+        return new Wiki(this, username, password, Assert.USER);
     }
 
     /**
@@ -122,7 +293,7 @@ public class WikiBuilder {
      * @since 0.1.0
      */
     public Wiki bot(String username, String password) {
-        return new Wiki(actionApi, cookieManager, proxy, username, password, Assert.BOT, otpSupplier);
+        return new Wiki(this, username, password, Assert.BOT);
     }
 
     /**
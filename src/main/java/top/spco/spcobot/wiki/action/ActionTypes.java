@@ -86,6 +86,8 @@ public enum ActionTypes {
     LINKS_HERE(queryProp("linkshere")),
     @Deprecated
     REVISIONS(queryProp("revisions")),
+    @Deprecated
+    INFO(queryProp("info")),
     ;
 
     private final ImmutableMap<String, String> baseParams;
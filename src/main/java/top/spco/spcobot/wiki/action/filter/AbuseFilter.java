@@ -1,14 +1,12 @@
 package top.spco.spcobot.wiki.action.filter;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import top.spco.spcobot.wiki.util.JsonUtil;
 
 import static top.spco.spcobot.wiki.util.JsonUtil.GSON;
 
 /**
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public record AbuseFilter(
@@ -88,36 +86,14 @@ public record AbuseFilter(
      * @since 0.1.0
      */
     public static AbuseFilter fromJson(String json) {
-        JsonObject jsonObject = GSON.fromJson(json, JsonObject.class);
-        return fromJson(jsonObject);
+        return GSON.fromJson(json, AbuseFilter.class);
     }
 
     /**
      * @since 0.1.0
      */
     public static AbuseFilter fromJson(JsonObject json) {
-        int id = JsonUtil.checkAndGetNonNullElement(json, "id").getAsInt();
-        String description = JsonUtil.checkAndGetNonNullJsonString(json, "description");
-        String[] actions;
-        boolean enabled;
-        boolean deleted;
-        boolean isPrivate;
-        try {
-            JsonArray actionsJa = JsonUtil.checkAndGetNonNullElement(json, "actions").getAsJsonArray();
-            actions = JsonUtil.jsonArrayToStringArray(actionsJa);
-        } catch (IllegalStateException e) {
-            if (e.getMessage().startsWith("Not a JSON Array")) {
-                String actionsS = JsonUtil.checkAndGetNonNullJsonString(json, "actions");
-                actions = actionsS.split(",");
-            } else {
-                throw e;
-            }
-        }
-        enabled = json.has("enabled");
-        deleted = json.has("deleted");
-        isPrivate = json.has("private");
-
-        return new AbuseFilter(id, description, actions, enabled, deleted, isPrivate);
+        return GSON.fromJson(json, AbuseFilter.class);
     }
 
     @Override
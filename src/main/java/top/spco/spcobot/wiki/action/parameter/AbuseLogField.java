@@ -0,0 +1,35 @@
+package top.spco.spcobot.wiki.action.parameter;
+
+/**
+ * {@link top.spco.spcobot.wiki.action.filter.AbuseFilterLogEntry 滥用日志条目}中可以单独请求的字段。未请求的字段在结果中为 {@code null} 或 {@code 0}。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public enum AbuseLogField implements QueryField {
+    ID("ids"),
+    FILTER("filter"),
+    USER("user"),
+    TITLE("title"),
+    ACTION("action"),
+    RESULT("result"),
+    TIMESTAMP("timestamp"),
+    REVISION_ID("revid"),
+    HIDDEN("hidden"),
+    /**
+     * 触发过滤器时的变量，通常很大，并且需要 {@code abusefilter-log-detail} 权限。
+     */
+    DETAILS("details"),
+    ;
+    private final String prop;
+
+    AbuseLogField(String prop) {
+        this.prop = prop;
+    }
+
+    @Override
+    public String prop() {
+        return prop;
+    }
+}
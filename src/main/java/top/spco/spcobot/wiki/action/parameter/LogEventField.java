@@ -0,0 +1,41 @@
+package top.spco.spcobot.wiki.action.parameter;
+
+/**
+ * {@link top.spco.spcobot.wiki.LogEntry 日志条目}中可以单独请求的字段。未请求的字段在结果中为 {@code null} 或 {@code 0}。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public enum LogEventField implements QueryField {
+    /**
+     * 日志ID和页面ID。
+     */
+    ID("ids"),
+    TITLE("title"),
+    /**
+     * 日志类型和操作。
+     */
+    TYPE("type"),
+    USER("user"),
+    USER_ID("userid"),
+    TIMESTAMP("timestamp"),
+    COMMENT("comment"),
+    PARSED_COMMENT("parsedcomment"),
+    /**
+     * 日志的参数，例如移动的目标标题。
+     */
+    DETAILS("details"),
+    TAGS("tags"),
+    ;
+    private final String prop;
+
+    LogEventField(String prop) {
+        this.prop = prop;
+    }
+
+    @Override
+    public String prop() {
+        return prop;
+    }
+}
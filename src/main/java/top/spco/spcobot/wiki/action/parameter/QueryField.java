@@ -0,0 +1,38 @@
+package top.spco.spcobot.wiki.action.parameter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 列表查询结果中的一个字段，以及获取它需要的 {@code *prop} 取值。
+ * <p>
+ * 多个字段可能由同一个取值提供，例如最近更改的各种ID都由 {@code rcprop=ids} 提供，因此请求的取值是所需字段对应取值的并集。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public interface QueryField {
+    /**
+     * @return 获取此字段需要的 {@code *prop} 取值；为 {@code null} 时表示此字段总会返回
+     * @since 1.0.1
+     */
+    String prop();
+
+    /**
+     * 将字段映射为最小的 {@code *prop} 参数。
+     *
+     * @param fields 需要的字段
+     * @return 以 {@code |} 分隔的取值，不需要任何取值时返回空字符串
+     * @since 1.0.1
+     */
+    static String toPropParam(QueryField... fields) {
+        Set<String> props = new LinkedHashSet<>();
+        for (QueryField field : fields) {
+            if (field.prop() != null) {
+                props.add(field.prop());
+            }
+        }
+        return String.join("|", props);
+    }
+}
@@ -0,0 +1,35 @@
+package top.spco.spcobot.wiki.action.parameter;
+
+/**
+ * {@link top.spco.spcobot.wiki.RecentChange 最近更改}中可以单独请求的字段。未请求的字段在结果中为 {@code null} 或 {@code 0}。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public enum RecentChangeField implements QueryField {
+    ID("ids"),
+    REVISION_ID("ids"),
+    OLD_REVISION_ID("ids"),
+    PAGE_ID("ids"),
+    TITLE("title"),
+    NAMESPACE("title"),
+    USER("user"),
+    COMMENT("comment"),
+    TIMESTAMP("timestamp"),
+    /**
+     * 更改的类型，总会返回。
+     */
+    TYPE(null),
+    ;
+    private final String prop;
+
+    RecentChangeField(String prop) {
+        this.prop = prop;
+    }
+
+    @Override
+    public String prop() {
+        return prop;
+    }
+}
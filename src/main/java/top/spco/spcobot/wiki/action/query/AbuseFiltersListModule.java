@@ -1,16 +1,19 @@
 package top.spco.spcobot.wiki.action.query;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import top.spco.spcobot.wiki.action.filter.AbuseFilter;
 import top.spco.spcobot.wiki.action.request.QueryRequest;
 import top.spco.spcobot.wiki.action.request.QueryResponse;
+import top.spco.spcobot.wiki.util.JsonPath;
 import top.spco.spcobot.wiki.util.JsonUtil;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class AbuseFiltersListModule extends QueryListModule<HashMap<Integer, AbuseFilter>> {
+    private static final JsonPath ABUSE_FILTERS = JsonPath.of("query", "abusefilters");
+
     public AbuseFiltersListModule(QueryRequest request) {
         super(request, "abf", "abusefilters");
         result = new HashMap<>();
@@ -27,12 +30,18 @@ public class AbuseFiltersListModule extends QueryListModule<HashMap<Integer, Abu
         return this;
     }
 
+    @Override
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        return Map.of(ABUSE_FILTERS, JsonUtil.GSON.getAdapter(AbuseFilter.class));
+    }
+
     @Override
     public void parse(QueryResponse response) {
-        JsonArray array = JsonUtil.checkAndGetNonNullElement(response.getResponseBodyJson(), "query", "abusefilters").getAsJsonArray();
-        for (JsonElement arrayElement : array) {
-            JsonObject jsonObject = arrayElement.getAsJsonObject();
-            AbuseFilter filter = AbuseFilter.fromJson(jsonObject);
+        List<AbuseFilter> filters = response.getStreamedList(ABUSE_FILTERS);
+        if (filters == null) {
+            throw new IllegalArgumentException("Failed to get non-null element, original json: " + response.getResponseBodyJson());
+        }
+        for (AbuseFilter filter : filters) {
             result.put(filter.id(), filter);
         }
     }
@@ -5,11 +5,13 @@ import com.google.gson.JsonElement;
 import top.spco.spcobot.wiki.NameSpace;
 import top.spco.spcobot.wiki.Page;
 import top.spco.spcobot.wiki.action.parameter.FilterRedirect;
+import top.spco.spcobot.wiki.collection.IntHashSet;
 import top.spco.spcobot.wiki.action.request.QueryRequest;
 import top.spco.spcobot.wiki.action.request.QueryResponse;
 import top.spco.spcobot.wiki.util.JsonUtil;
 
 import java.util.HashSet;
+import java.util.function.Consumer;
 
 /**
  * @author SpCo
@@ -17,6 +19,9 @@ import java.util.HashSet;
  * @since 1.0.1
  */
 public class AllPagesListModule extends QueryListModule<HashSet<Page>> {
+    private Consumer<Page> consumer = null;
+    private IntHashSet ids = null;
+
     public AllPagesListModule(QueryRequest request) {
         super(request, "ap", "allpages");
         result = new HashSet<>();
@@ -57,6 +62,37 @@ public class AllPagesListModule extends QueryListModule<HashSet<Page>> {
         return this;
     }
 
+    /**
+     * 设置页面的消费者。设置后每一批解析出的页面都会直接交给消费者，而不会累积到 {@link #getResult() 结果} 中。
+     *
+     * @param consumer 页面的消费者
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public AllPagesListModule forEach(Consumer<Page> consumer) {
+        this.consumer = consumer;
+        return this;
+    }
+
+    /**
+     * 只获取页面ID。设置后不会构建 {@link Page} 对象，ID直接放入 {@link #getIds()}。
+     *
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public AllPagesListModule idsOnly() {
+        ids = new IntHashSet();
+        return this;
+    }
+
+    /**
+     * @return {@link #idsOnly()} 模式下获取到的页面ID，未启用时返回 {@code null}
+     * @since 1.0.1
+     */
+    public IntHashSet getIds() {
+        return ids;
+    }
+
     @Override
     public void parse(QueryResponse response) {
         JsonElement element = JsonUtil.checkAndGetElement(response.getResponseBodyJson(), "query", "allpages");
@@ -64,8 +100,17 @@ public class AllPagesListModule extends QueryListModule<HashSet<Page>> {
             return;
         }
         JsonArray pagesJson = element.getAsJsonArray();
-        for (JsonElement page : pagesJson) {
-            result.add(Page.fromJson(request.wiki, page.getAsJsonObject()));
+        for (JsonElement pageJson : pagesJson) {
+            if (ids != null) {
+                ids.add(pageJson.getAsJsonObject().get("pageid").getAsInt());
+                continue;
+            }
+            Page page = Page.fromJson(request.wiki, pageJson.getAsJsonObject());
+            if (consumer != null) {
+                consumer.accept(page);
+            } else {
+                result.add(page);
+            }
         }
     }
 }
@@ -2,15 +2,29 @@ package top.spco.spcobot.wiki.action.query;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 import top.spco.spcobot.wiki.LogEntry;
+import top.spco.spcobot.wiki.collection.LongHashSet;
+import top.spco.spcobot.wiki.action.parameter.LogEventField;
 import top.spco.spcobot.wiki.action.parameter.LogType;
+import top.spco.spcobot.wiki.action.parameter.QueryField;
+import top.spco.spcobot.wiki.action.parameter.Timestamp;
 import top.spco.spcobot.wiki.action.request.QueryRequest;
 import top.spco.spcobot.wiki.action.request.QueryResponse;
+import top.spco.spcobot.wiki.util.JsonPath;
 import top.spco.spcobot.wiki.util.JsonUtil;
+import top.spco.spcobot.wiki.util.ParamUtil;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class LogEventsListModule extends QueryListModule<HashSet<LogEntry>> {
+    private static final JsonPath LOG_EVENTS = JsonPath.of("query", "logevents");
+    private Consumer<LogEntry> consumer = null;
+    private LongHashSet ids = null;
+
     public LogEventsListModule(QueryRequest request) {
         super(request, "le", "logevents");
         result = new HashSet<>();
@@ -26,12 +40,110 @@ public class LogEventsListModule extends QueryListModule<HashSet<LogEntry>> {
         return this;
     }
 
+    /**
+     * @since 1.0.1
+     */
+    public LogEventsListModule start(Timestamp start) {
+        addQueryParameter("lestart", start.toString());
+        return this;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public LogEventsListModule end(Timestamp end) {
+        addQueryParameter("leend", end.toString());
+        return this;
+    }
+
+    /**
+     * 按时间从旧到新列举。
+     *
+     * @since 1.0.1
+     */
+    public LogEventsListModule newer() {
+        addQueryParameter("ledir", "newer");
+        return this;
+    }
+
+    /**
+     * 只请求需要的字段，{@code leprop} 会被设置为提供这些字段的最小取值集合。
+     *
+     * @param fields 需要的字段
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public LogEventsListModule fields(LogEventField... fields) {
+        addQueryParameter("leprop", QueryField.toPropParam(fields));
+        return this;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public LogEventsListModule prop(String... props) {
+        addQueryParameter("leprop", ParamUtil.toListParam(props));
+        return this;
+    }
+
+    /**
+     * 设置日志事件的消费者。设置后每一条解析出的日志事件都会按响应中的顺序直接交给消费者，而不会累积到 {@link #getResult() 结果} 中。
+     *
+     * @param consumer 日志事件的消费者
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public LogEventsListModule forEach(Consumer<LogEntry> consumer) {
+        this.consumer = consumer;
+        return this;
+    }
+
+
+    /**
+     * 只获取日志的ID。设置后不会构建 {@link LogEntry} 对象，ID直接放入 {@link #getIds()}。
+     *
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public LogEventsListModule idsOnly() {
+        fields(LogEventField.ID);
+        ids = new LongHashSet();
+        return this;
+    }
+
+    /**
+     * @return {@link #idsOnly()} 模式下获取到的日志ID，未启用时返回 {@code null}
+     * @since 1.0.1
+     */
+    public LongHashSet getIds() {
+        return ids;
+    }
+
+    @Override
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        // 只获取ID时从 JSON 树中读取，不构建 LogEntry 对象
+        return ids != null ? Map.of() : Map.of(LOG_EVENTS, JsonUtil.GSON.getAdapter(LogEntry.class));
+    }
 
     @Override
     public void parse(QueryResponse response) {
-        JsonArray eventJson = JsonUtil.checkAndGetNonNullElement(response.getResponseBodyJson(), "query", "logevents").getAsJsonArray();
-        for (JsonElement event : eventJson) {
-            result.add(LogEntry.fromJson(event.getAsJsonObject()));
+        if (ids != null) {
+            JsonArray eventJson = JsonUtil.checkAndGetNonNullElement(response.getResponseBodyJson(), "query", "logevents").getAsJsonArray();
+            for (JsonElement event : eventJson) {
+                ids.add(event.getAsJsonObject().get("logid").getAsLong());
+            }
+            return;
+        }
+        List<LogEntry> entries = response.getStreamedList(LOG_EVENTS);
+        if (entries == null) {
+            throw new IllegalArgumentException("Failed to get non-null element, original json: " + response.getResponseBodyJson());
+        }
+        for (LogEntry entry : entries) {
+            if (consumer != null) {
+                consumer.accept(entry);
+            } else {
+                result.add(entry);
+            }
         }
     }
 }
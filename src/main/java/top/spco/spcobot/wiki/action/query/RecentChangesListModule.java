@@ -2,28 +2,149 @@ package top.spco.spcobot.wiki.action.query;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 import top.spco.spcobot.wiki.RecentChange;
+import top.spco.spcobot.wiki.collection.IntHashSet;
+import top.spco.spcobot.wiki.action.parameter.RecentChangeField;
+import top.spco.spcobot.wiki.action.parameter.QueryField;
+import top.spco.spcobot.wiki.action.parameter.Timestamp;
 import top.spco.spcobot.wiki.action.request.QueryRequest;
 import top.spco.spcobot.wiki.action.request.QueryResponse;
+import top.spco.spcobot.wiki.util.JsonPath;
 import top.spco.spcobot.wiki.util.JsonUtil;
+import top.spco.spcobot.wiki.util.ParamUtil;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class RecentChangesListModule extends QueryListModule<HashSet<RecentChange>> {
+    private static final JsonPath RECENT_CHANGES = JsonPath.of("query", "recentchanges");
+    private Consumer<RecentChange> consumer = null;
+    private IntHashSet ids = null;
+
     public RecentChangesListModule(QueryRequest request) {
         super(request, "rc", "recentchanges");
         result = new HashSet<>();
     }
 
+    /**
+     * @since 1.0.1
+     */
+    public RecentChangesListModule start(Timestamp start) {
+        addQueryParameter("rcstart", start.toString());
+        return this;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public RecentChangesListModule end(Timestamp end) {
+        addQueryParameter("rcend", end.toString());
+        return this;
+    }
+
+    /**
+     * 按时间从旧到新列举。
+     *
+     * @since 1.0.1
+     */
+    public RecentChangesListModule newer() {
+        addQueryParameter("rcdir", "newer");
+        return this;
+    }
+
+    /**
+     * 只请求需要的字段，{@code rcprop} 会被设置为提供这些字段的最小取值集合。
+     *
+     * @param fields 需要的字段
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public RecentChangesListModule fields(RecentChangeField... fields) {
+        addQueryParameter("rcprop", QueryField.toPropParam(fields));
+        return this;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public RecentChangesListModule prop(String... props) {
+        addQueryParameter("rcprop", ParamUtil.toListParam(props));
+        return this;
+    }
+
+    /**
+     * @param types 要列举的更改类型，例如 {@code edit}、{@code new}、{@code log}
+     * @since 1.0.1
+     */
+    public RecentChangesListModule type(String... types) {
+        addQueryParameter("rctype", ParamUtil.toListParam(types));
+        return this;
+    }
+
+    /**
+     * 设置最近更改的消费者。设置后每一条解析出的最近更改都会按响应中的顺序直接交给消费者，而不会累积到 {@link #getResult() 结果} 中。
+     *
+     * @param consumer 最近更改的消费者
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public RecentChangesListModule forEach(Consumer<RecentChange> consumer) {
+        this.consumer = consumer;
+        return this;
+    }
+
+    /**
+     * 只获取最近更改的ID。设置后不会构建 {@link RecentChange} 对象，ID直接放入 {@link #getIds()}。
+     *
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public RecentChangesListModule idsOnly() {
+        fields(RecentChangeField.ID);
+        ids = new IntHashSet();
+        return this;
+    }
+
+    /**
+     * @return {@link #idsOnly()} 模式下获取到的最近更改ID，未启用时返回 {@code null}
+     * @since 1.0.1
+     */
+    public IntHashSet getIds() {
+        return ids;
+    }
+
+    @Override
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        // 只获取ID时从 JSON 树中读取，不构建 RecentChange 对象
+        return ids != null ? Map.of() : Map.of(RECENT_CHANGES, JsonUtil.GSON.getAdapter(RecentChange.class));
+    }
+
     @Override
     public void parse(QueryResponse response) {
-        JsonElement element = JsonUtil.checkAndGetElement(response.getResponseBodyJson(), "query", "recentchanges");
-        if (element == null) {
+        if (ids != null) {
+            JsonElement element = JsonUtil.checkAndGetElement(response.getResponseBodyJson(), "query", "recentchanges");
+            if (element == null) {
+                return;
+            }
+            JsonArray rcsJson = element.getAsJsonArray();
+            for (JsonElement rcJson : rcsJson) {
+                ids.add(rcJson.getAsJsonObject().get("rcid").getAsInt());
+            }
+            return;
+        }
+        List<RecentChange> recentChanges = response.getStreamedList(RECENT_CHANGES);
+        if (recentChanges == null) {
             return;
         }
-        JsonArray rcsJson = element.getAsJsonArray();
-        for (JsonElement rcJson : rcsJson) {
-            result.add(RecentChange.fromJson(rcJson.getAsJsonObject()));
+        for (RecentChange recentChange : recentChanges) {
+            if (consumer != null) {
+                consumer.accept(recentChange);
+            } else {
+                result.add(recentChange);
+            }
         }
     }
 }
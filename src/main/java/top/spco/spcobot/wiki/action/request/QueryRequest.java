@@ -83,8 +83,9 @@ public class QueryRequest extends ActionRequest<QueryResponse> {
                 additional.putAll(continueParam);
             }
             Call call = wiki.newCall(buildRequest(additional, null));
+            QueryResponse response = null;
             try {
-                QueryResponse response = createResponse(call.execute());
+                response = createResponse(call.execute());
                 // 初始化链表头
                 if (first == null) {
                     first = response;
@@ -98,6 +99,10 @@ public class QueryRequest extends ActionRequest<QueryResponse> {
                     prev = response;
                 }
                 response.first = first;
+                if (isReleaseResponses()) {
+                    // 释放之后无法再检查错误，需要在解析前检查
+                    response.parse();
+                }
                 continuable = response.getResponseBodyJson().has("continue");
                 if (continuable) {
                     JsonObject continueJson = response.getResponseBodyJson().get("continue").getAsJsonObject();
@@ -107,7 +112,14 @@ public class QueryRequest extends ActionRequest<QueryResponse> {
                     submodule.parsingPhase = true;
                     submodule.parse(response);
                 }
+                if (isReleaseResponses()) {
+                    response.release();
+                }
             } catch (Exception e) {
+                if (response != null) {
+                    // 失败时响应既不会被返回也不会被释放，需要在此关闭
+                    response.getResponse().close();
+                }
                 throw new RuntimeException("Failed to " + actionDescription + ": " + e.getMessage(), e);
             }
         } while (continuable);
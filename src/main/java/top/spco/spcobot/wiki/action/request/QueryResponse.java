@@ -1,10 +1,14 @@
 package top.spco.spcobot.wiki.action.request;
 
+import com.google.gson.TypeAdapter;
 import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
 import top.spco.spcobot.wiki.ActionResponse;
+import top.spco.spcobot.wiki.util.JsonPath;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -27,6 +31,15 @@ public class QueryResponse extends ActionResponse<QueryRequest, Set<QuerySubmodu
         return request.getSubmodules();
     }
 
+    @Override
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        Map<JsonPath, TypeAdapter<?>> adapters = new HashMap<>();
+        for (QuerySubmodule<?> submodule : request.getSubmodules()) {
+            adapters.putAll(submodule.streamedLists());
+        }
+        return adapters;
+    }
+
     @NotNull
     @Override
     public Iterator<QueryResponse> iterator() {
@@ -1,8 +1,10 @@
 package top.spco.spcobot.wiki.action.request;
 
+import com.google.gson.TypeAdapter;
 import org.apache.logging.log4j.Logger;
 import top.spco.spcobot.wiki.action.PermissionRule;
 import top.spco.spcobot.wiki.user.UserRight;
+import top.spco.spcobot.wiki.util.JsonPath;
 import top.spco.spcobot.wiki.util.LogUtil;
 
 import java.util.Map;
@@ -32,6 +34,17 @@ public abstract class QuerySubmodule<T> {
      */
     public abstract void parse(QueryResponse response);
 
+    /**
+     * 需要在解析响应时直接由适配器读取的数组，参见 {@link top.spco.spcobot.wiki.ActionResponse#getStreamedList(JsonPath)}。
+     * 在请求发出之后、解析响应时调用。
+     *
+     * @return 数组的键路径及其元素的适配器
+     * @since 1.0.1
+     */
+    protected Map<JsonPath, TypeAdapter<?>> streamedLists() {
+        return Map.of();
+    }
+
     /**
      * @since 1.0.1
      */
@@ -0,0 +1,409 @@
+package top.spco.spcobot.wiki.cache;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import okhttp3.Cache;
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.LogEntry;
+import top.spco.spcobot.wiki.Wiki;
+import top.spco.spcobot.wiki.action.parameter.LogEventField;
+import top.spco.spcobot.wiki.action.parameter.LogType;
+import top.spco.spcobot.wiki.action.parameter.RecentChangeField;
+import top.spco.spcobot.wiki.action.parameter.Timestamp;
+import top.spco.spcobot.wiki.action.query.LogEventsListModule;
+import top.spco.spcobot.wiki.action.query.RecentChangesListModule;
+import top.spco.spcobot.wiki.action.request.QueryRequest;
+import top.spco.spcobot.wiki.util.JsonUtil;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 跟踪 {@code list=recentchanges} 和 {@code list=logevents}，使Wiki实例的各级缓存与Wiki上的更改保持一致。
+ * <p>
+ * 每次{@link #poll() 轮询}只获取上次轮询之后的新记录，并只使受影响的条目失效：
+ * <ul>
+ *     <li>编辑和页面创建：移除 HTTP 响应缓存中查询了该页面的响应；</li>
+ *     <li>移动：移除查询了原标题或新标题的响应；</li>
+ *     <li>删除和修订版本删除：移除相关响应，并移除该页面在 {@link PageContentCache} 中的所有修订版本；</li>
+ *     <li>保护：移除查询了该页面的响应；</li>
+ *     <li>用户权限变更和封禁：移除查询了该用户的响应，若为当前用户则使 {@link Wiki#getRightsName() 缓存的权限}失效。</li>
+ * </ul>
+ * 其他缓存可以通过{@link #addListener(Listener) 监听器}接收同样的事件。
+ * <p>
+ * 一次轮询中受影响的页面和用户会先被收集起来，在轮询结束时一并失效，HTTP 响应缓存和页面内容缓存的磁盘层都只遍历一次。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class CacheCoherence implements AutoCloseable {
+    private static final Logger LOGGER = LogUtil.getLogger();
+    /**
+     * 首次轮询时向前回溯的时间，用于覆盖启动前不久发生、但缓存中可能已经存在的更改。
+     */
+    private static final Duration INITIAL_LOOKBACK = Duration.ofMinutes(1);
+    private final Wiki wiki;
+    private final Duration pollInterval;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Cursor recentChanges;
+    private final Cursor logEvents;
+    private ScheduledExecutorService scheduler;
+    /**
+     * 本次轮询中需要失效的页面标题、用户名和页面ID，在轮询结束时一并处理。
+     */
+    private final Set<String> staleTitles = new HashSet<>();
+    private final Set<String> staleUsers = new HashSet<>();
+    private final Set<Long> stalePageIds = new HashSet<>();
+
+    /**
+     * @param wiki         要保持一致的Wiki实例
+     * @param pollInterval {@link #start()} 后的轮询间隔
+     * @since 1.0.1
+     */
+    public CacheCoherence(Wiki wiki, Duration pollInterval) {
+        this.wiki = wiki;
+        this.pollInterval = pollInterval;
+        Instant start = Instant.now().minus(INITIAL_LOOKBACK);
+        this.recentChanges = new Cursor(start);
+        this.logEvents = new Cursor(start);
+    }
+
+    /**
+     * 添加一个监听器，在每次轮询发现更改时被调用。
+     *
+     * @param listener 监听器
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public CacheCoherence addListener(Listener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * 在一个守护线程中按轮询间隔定时{@link #poll() 轮询}。
+     *
+     * @return 返回自身
+     * @throws IllegalStateException 如果已经启动
+     * @since 1.0.1
+     */
+    public synchronized CacheCoherence start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("Cache coherence has already been started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wiki-cache-coherence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = pollInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Exception e) {
+                LOGGER.warn("同步缓存失败，将在下次轮询时重试", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * 获取上次轮询之后的最近更改和日志事件，并使受影响的缓存条目失效。
+     *
+     * @since 1.0.1
+     */
+    public synchronized void poll() {
+        try {
+            pollRecentChanges();
+            pollLogEvents();
+        } finally {
+            // 轮询中途失败时，已经处理过的记录不会再被获取，仍需使其失效
+            invalidate();
+        }
+    }
+
+    private void pollRecentChanges() {
+        QueryRequest queryRequest = new QueryRequest(wiki, "list recent changes");
+        RecentChangesListModule module = new RecentChangesListModule(queryRequest)
+                .start(new Timestamp(recentChanges.timestamp))
+                .newer()
+                .type("edit", "new")
+                .fields(RecentChangeField.TITLE, RecentChangeField.ID, RecentChangeField.PAGE_ID, RecentChangeField.REVISION_ID, RecentChangeField.TIMESTAMP);
+        module.forEach(change -> {
+            if (recentChanges.advance(change.id(), Instant.parse(change.timestamp()))) {
+                pageChanged(change.title(), change.pageId(), change.revisionId());
+                if ("new".equals(change.type())) {
+                    for (Listener listener : listeners) {
+                        listener.pageCreated(change.title(), change.pageId());
+                    }
+                }
+            }
+        });
+        queryRequest.addSubmodule(module);
+        queryRequest.execute().parse();
+    }
+
+    private void pollLogEvents() {
+        QueryRequest queryRequest = new QueryRequest(wiki, "list log events");
+        LogEventsListModule module = new LogEventsListModule(queryRequest)
+                .start(new Timestamp(logEvents.timestamp))
+                .newer()
+                .fields(LogEventField.ID, LogEventField.TITLE, LogEventField.TYPE, LogEventField.TIMESTAMP, LogEventField.DETAILS);
+        module.forEach(entry -> {
+            if (logEvents.advance(entry.logid, entry.timestamp)) {
+                logEvent(entry);
+            }
+        });
+        queryRequest.addSubmodule(module);
+        queryRequest.execute().parse();
+    }
+
+    private void logEvent(LogEntry entry) {
+        if (entry.type == null || entry.title == null) {
+            return;
+        }
+        if (entry.type == LogType.MOVE) {
+            String target = stringParam(entry.params, "target_title");
+            long pageId = entry.pageid != 0 ? entry.pageid : entry.logpage;
+            boolean redirect = entry.params == null || !JsonUtil.flag(entry.params, "suppressredirect");
+            evictTitles(entry.title, target);
+            forgetWrites(entry.title, target);
+            for (Listener listener : listeners) {
+                listener.pageMoved(entry.title, target, pageId, redirect);
+            }
+        } else if (entry.type == LogType.DELETE || entry.type == LogType.SUPPRESS) {
+            long pageId = entry.logpage != 0 ? entry.logpage : entry.pageid;
+            if ("restore".equals(entry.action)) {
+                pageChanged(entry.title, entry.pageid, 0);
+                for (Listener listener : listeners) {
+                    listener.pageCreated(entry.title, entry.pageid);
+                }
+                return;
+            }
+            evictTitles(entry.title);
+            forgetWrites(entry.title);
+            if (pageId != 0) {
+                stalePageIds.add(pageId);
+            }
+            boolean revisionsOnly = "revision".equals(entry.action) || "event".equals(entry.action);
+            for (Listener listener : listeners) {
+                if (revisionsOnly) {
+                    listener.revisionsHidden(entry.title, pageId);
+                } else {
+                    listener.pageDeleted(entry.title, pageId);
+                }
+            }
+        } else if (entry.type == LogType.PROTECT) {
+            evictTitles(entry.title);
+            for (Listener listener : listeners) {
+                listener.pageProtected(entry.title);
+            }
+        } else if (entry.type == LogType.RIGHTS || entry.type == LogType.BLOCK) {
+            int colon = entry.title.indexOf(':');
+            String user = colon < 0 ? entry.title : entry.title.substring(colon + 1);
+            staleUsers.add(user);
+            if (isCurrentUser(user)) {
+                wiki.invalidateRights();
+            }
+            for (Listener listener : listeners) {
+                listener.userRightsChanged(user);
+            }
+        }
+    }
+
+    private void pageChanged(String title, long pageId, long revId) {
+        evictTitles(title);
+        RecentWrites recentWrites = wiki.getRecentWrites();
+        if (recentWrites != null) {
+            recentWrites.changed(title, revId);
+        }
+        for (Listener listener : listeners) {
+            listener.pageChanged(title, pageId, revId);
+        }
+    }
+
+    private void forgetWrites(String... titles) {
+        RecentWrites recentWrites = wiki.getRecentWrites();
+        if (recentWrites == null) {
+            return;
+        }
+        for (String title : titles) {
+            if (title != null) {
+                recentWrites.forget(title);
+            }
+        }
+    }
+
+    private boolean isCurrentUser(String user) {
+        String username = wiki.getUsername();
+        if (username == null) {
+            return false;
+        }
+        // 机器人密码的用户名形如 "用户名@机器人名"
+        int at = username.indexOf('@');
+        return normalize(at < 0 ? username : username.substring(0, at)).equals(normalize(user));
+    }
+
+    private void evictTitles(String... titles) {
+        for (String title : titles) {
+            if (title != null) {
+                staleTitles.add(title);
+            }
+        }
+    }
+
+    private void invalidate() {
+        Cache cache = wiki.getResponseCache();
+        if (cache != null) {
+            try {
+                ResponseCacheInterceptor.evict(cache, staleTitles, staleUsers);
+            } catch (IOException e) {
+                LOGGER.warn("移除 HTTP 响应缓存失败", e);
+            }
+        }
+        PageContentCache pageContentCache = wiki.getPageContentCache();
+        if (pageContentCache != null) {
+            pageContentCache.invalidate(stalePageIds);
+        }
+        staleTitles.clear();
+        staleUsers.clear();
+        stalePageIds.clear();
+    }
+
+    private static String normalize(String title) {
+        return title.replace('_', ' ').trim();
+    }
+
+    private static String stringParam(JsonObject params, String key) {
+        if (params == null) {
+            return null;
+        }
+        JsonElement element = params.get(key);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    /**
+     * 停止定时轮询。
+     *
+     * @since 1.0.1
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 一个列表的轮询进度。下次轮询从上次最后一条记录的时间戳开始（含），并跳过ID不大于上次最后一条记录的记录，
+     * 以免遗漏与其时间戳相同的记录。
+     */
+    private static final class Cursor {
+        private Instant timestamp;
+        private long lastId = 0;
+
+        private Cursor(Instant timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        private boolean advance(long id, Instant timestamp) {
+            if (id <= lastId) {
+                return false;
+            }
+            lastId = id;
+            if (timestamp != null && timestamp.isAfter(this.timestamp)) {
+                this.timestamp = timestamp;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 缓存一致性事件的监听器。所有方法均在轮询线程中调用。
+     *
+     * @since 1.0.1
+     */
+    public interface Listener {
+        /**
+         * 页面被编辑、创建或恢复。
+         *
+         * @param title  页面标题
+         * @param pageId 页面ID，未知时为 {@code 0}
+         * @param revId  新修订版本的ID，未知时为 {@code 0}
+         * @since 1.0.1
+         */
+        default void pageChanged(String title, long pageId, long revId) {
+        }
+
+        /**
+         * 页面被创建或恢复。在 {@link #pageChanged(String, long, long)} 之后调用。
+         *
+         * @param title  页面标题
+         * @param pageId 页面ID，未知时为 {@code 0}
+         * @since 1.0.1
+         */
+        default void pageCreated(String title, long pageId) {
+        }
+
+        /**
+         * 页面被移动。
+         *
+         * @param from     原标题
+         * @param to       新标题，未知时为 {@code null}
+         * @param pageId   页面ID，未知时为 {@code 0}
+         * @param redirect 原标题处是否留下了重定向
+         * @since 1.0.1
+         */
+        default void pageMoved(String from, String to, long pageId, boolean redirect) {
+        }
+
+        /**
+         * 页面被删除。
+         *
+         * @param title  页面标题
+         * @param pageId 页面ID，未知时为 {@code 0}
+         * @since 1.0.1
+         */
+        default void pageDeleted(String title, long pageId) {
+        }
+
+        /**
+         * 页面的部分修订版本或日志被隐藏，页面本身仍然存在。
+         *
+         * @param title  页面标题
+         * @param pageId 页面ID，未知时为 {@code 0}
+         * @since 1.0.1
+         */
+        default void revisionsHidden(String title, long pageId) {
+        }
+
+        /**
+         * 页面的保护状态发生变化。
+         *
+         * @param title 页面标题
+         * @since 1.0.1
+         */
+        default void pageProtected(String title) {
+        }
+
+        /**
+         * 用户的用户组或封禁状态发生变化。
+         *
+         * @param user 用户名
+         * @since 1.0.1
+         */
+        default void userRightsChanged(String user) {
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package top.spco.spcobot.wiki.cache;
+
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 以（页面ID，修订版本ID）为键的两级页面内容缓存。
+ * <p>
+ * 修订版本的内容不会改变，因此缓存的条目不会过期，只会因容量不足而被淘汰：
+ * <ol>
+ *     <li>内存层：按最近最少使用的顺序淘汰，总大小以字节计；</li>
+ *     <li>磁盘层（可选）：每个条目以 GZIP 压缩后保存为一个文件，程序重启后仍然有效，总大小超出上限时淘汰最久未访问的文件。</li>
+ * </ol>
+ * 从磁盘层读取的条目会被放回内存层。此类是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class PageContentCache {
+    private static final Logger LOGGER = LogUtil.getLogger();
+    private static final String FILE_SUFFIX = ".gz";
+    /**
+     * 每个内存条目除文本外的大致开销。
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<Key, String> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong diskBytes = new AtomicLong(0);
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private long memoryBytes = 0;
+
+    /**
+     * 创建一个只有内存层的缓存。
+     *
+     * @param maxMemoryBytes 内存层的最大字节数
+     * @since 1.0.1
+     */
+    public PageContentCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null, 0);
+    }
+
+    /**
+     * 创建一个两级缓存。
+     *
+     * @param maxMemoryBytes 内存层的最大字节数
+     * @param directory      磁盘层的目录，不存在时会被创建；为 {@code null} 时不使用磁盘层
+     * @param maxDiskBytes   磁盘层压缩后的最大字节数
+     * @throws UncheckedIOException 如果无法创建或读取目录
+     * @since 1.0.1
+     */
+    public PageContentCache(long maxMemoryBytes, Path directory, long maxDiskBytes) {
+        if (maxMemoryBytes < 0 || maxDiskBytes < 0) {
+            throw new IllegalArgumentException("Cache sizes must not be negative");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+                try (Stream<Path> files = cacheFiles()) {
+                    diskBytes.set(files.mapToLong(PageContentCache::sizeOf).sum());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open page content cache: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 获取指定修订版本的页面内容。
+     *
+     * @param pageId 页面ID
+     * @param revId  修订版本ID
+     * @return 页面内容，未缓存时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String get(long pageId, long revId) {
+        Key key = new Key(pageId, revId);
+        String text;
+        synchronized (memory) {
+            text = memory.get(key);
+        }
+        if (text == null && directory != null) {
+            text = readFile(key);
+            if (text != null) {
+                putMemory(key, text);
+            }
+        }
+        if (text == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return text;
+    }
+
+    /**
+     * 缓存指定修订版本的页面内容。
+     *
+     * @param pageId 页面ID
+     * @param revId  修订版本ID
+     * @param text   页面内容
+     * @since 1.0.1
+     */
+    public void put(long pageId, long revId, String text) {
+        Key key = new Key(pageId, revId);
+        putMemory(key, text);
+        if (directory != null) {
+            writeFile(key, text);
+        }
+    }
+
+    /**
+     * 移除指定页面所有修订版本的缓存。修订版本的内容不会改变，因此只有页面被删除或修订版本被隐藏时才需要调用此方法。
+     *
+     * @param pageId 页面ID
+     * @since 1.0.1
+     */
+    public void invalidate(long pageId) {
+        invalidate(Set.of(pageId));
+    }
+
+    /**
+     * 移除多个页面所有修订版本的缓存。内存层和磁盘层都只遍历一次，一次处理多个页面时应使用此方法。
+     *
+     * @param pageIds 页面ID
+     * @since 1.0.1
+     */
+    public void invalidate(Collection<Long> pageIds) {
+        if (pageIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = pageIds instanceof Set<Long> set ? set : new HashSet<>(pageIds);
+        synchronized (memory) {
+            var iterator = memory.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (ids.contains(entry.getKey().pageId())) {
+                    memoryBytes -= sizeOf(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        if (directory != null) {
+            try (Stream<Path> files = cacheFiles()) {
+                files.filter(file -> ids.contains(pageIdOf(file))).forEach(this::delete);
+            } catch (IOException e) {
+                LOGGER.warn("移除页面内容缓存失败：{}", ids, e);
+            }
+        }
+    }
+
+    /**
+     * @return 缓存文件名中的页面ID，无法识别时返回 {@code -1}
+     */
+    private static long pageIdOf(Path file) {
+        String name = file.getFileName().toString();
+        int dash = name.indexOf('-');
+        try {
+            return dash < 0 ? -1 : Long.parseLong(name, 0, dash, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 清空内存层和磁盘层。
+     *
+     * @since 1.0.1
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        if (directory != null) {
+            try (Stream<Path> files = cacheFiles()) {
+                files.forEach(this::delete);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to clear page content cache: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void putMemory(Key key, String text) {
+        long size = sizeOf(text);
+        if (size > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, text);
+            if (previous != null) {
+                memoryBytes -= sizeOf(previous);
+            }
+            memoryBytes += size;
+            Iterator<String> eldest = memory.values().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= sizeOf(eldest.next());
+                eldest.remove();
+            }
+        }
+    }
+
+    private Path pathOf(Key key) {
+        // 按修订版本ID分散到 256 个子目录中，避免单个目录中的文件过多
+        return directory.resolve(String.format("%02x", key.revId() & 0xff)).resolve(key.pageId() + "-" + key.revId() + FILE_SUFFIX);
+    }
+
+    private String readFile(Key key) {
+        Path path = pathOf(key);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return text;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("读取页面内容缓存失败：{}", path, e);
+            delete(path);
+            return null;
+        }
+    }
+
+    private void writeFile(Key key, String text) {
+        Path path = pathOf(key);
+        if (Files.exists(path)) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            // 先写入临时文件再移动，避免其他线程或进程读到写了一半的文件
+            temp = Files.createTempFile(path.getParent(), key.pageId() + "-", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+            long size = Files.size(temp);
+            synchronized (this) {
+                // 同一修订版本的内容不变，其他线程已经写入时丢弃临时文件，避免覆盖后重复计入大小
+                if (Files.exists(path)) {
+                    return;
+                }
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+                temp = null;
+                diskBytes.addAndGet(size);
+            }
+            if (diskBytes.get() > maxDiskBytes) {
+                evictFiles();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("写入页面内容缓存失败：{}", path, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOGGER.warn("删除临时文件失败：{}", temp, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除最久未访问的文件，直到磁盘层的大小降到上限的 90% 以下。
+     */
+    private synchronized void evictFiles() {
+        if (diskBytes.get() <= maxDiskBytes) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = cacheFiles()) {
+            files = new ArrayList<>(stream.toList());
+        } catch (IOException e) {
+            LOGGER.warn("清理页面内容缓存失败", e);
+            return;
+        }
+        Map<Path, Long> modified = new LinkedHashMap<>();
+        for (Path file : files) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                modified.put(file, 0L);
+            }
+        }
+        files.sort(Comparator.comparing(modified::get));
+        long target = maxDiskBytes / 10 * 9;
+        for (Path file : files) {
+            if (diskBytes.get() <= target) {
+                break;
+            }
+            delete(file);
+        }
+    }
+
+    private void delete(Path file) {
+        long size = sizeOf(file);
+        try {
+            if (Files.deleteIfExists(file)) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("删除页面内容缓存失败：{}", file, e);
+        }
+    }
+
+    private Stream<Path> cacheFiles() throws IOException {
+        return Files.find(directory, 2, (path, attributes) -> attributes.isRegularFile() && path.getFileName().toString().endsWith(FILE_SUFFIX));
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long sizeOf(String text) {
+        return (long) text.length() * 2 + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * @return 命中缓存的次数
+     * @since 1.0.1
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return 未命中缓存的次数
+     * @since 1.0.1
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return 内存层当前的大致字节数
+     * @since 1.0.1
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    /**
+     * @return 磁盘层当前的字节数
+     * @since 1.0.1
+     */
+    public long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    private record Key(long pageId, long revId) {
+    }
+}
@@ -0,0 +1,113 @@
+package top.spco.spcobot.wiki.cache;
+
+import top.spco.spcobot.wiki.PageState;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录当前Wiki实例最近一次写入的页面状态，使写入之后的读取可以直接使用本地已知的状态，而不必再次查询页面的最新修订版本。
+ * <p>
+ * 记录只在有效期内使用，过期后或其他用户产生了更新的修订版本（由 {@link CacheCoherence} 报告）时会被丢弃。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class RecentWrites {
+    private final ConcurrentHashMap<String, Entry> pages = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    /**
+     * @param ttl 记录的有效期
+     * @since 1.0.1
+     */
+    public RecentWrites(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * 记录一次成功的编辑。
+     *
+     * @param title     编辑后响应中的页面标题
+     * @param pageId    页面ID
+     * @param revId     新修订版本的ID
+     * @param timestamp 新修订版本的时间戳
+     * @since 1.0.1
+     */
+    public void edited(String title, long pageId, long revId, String timestamp) {
+        put(new PageState(title, pageId, revId, timestamp));
+    }
+
+    /**
+     * 记录一次成功的删除。
+     *
+     * @param title 被删除的页面标题
+     * @since 1.0.1
+     */
+    public void deleted(String title) {
+        put(new PageState(title, 0, 0, null));
+    }
+
+    /**
+     * 丢弃页面的记录，例如页面被移动后新旧标题的状态都需要重新查询。
+     *
+     * @param title 页面标题
+     * @since 1.0.1
+     */
+    public void forget(String title) {
+        pages.remove(normalize(title));
+    }
+
+    /**
+     * 其他来源报告页面产生了新的修订版本，记录中的修订版本比它旧时丢弃记录。
+     *
+     * @param title 页面标题
+     * @param revId 新修订版本的ID，未知时为 {@code 0}
+     * @since 1.0.1
+     */
+    public void changed(String title, long revId) {
+        pages.computeIfPresent(normalize(title), (key, entry) -> revId != 0 && entry.state().lastRevId() >= revId ? entry : null);
+    }
+
+    /**
+     * 获取页面在有效期内的记录。
+     *
+     * @param title 页面标题
+     * @return 页面状态，其中的标题为传入的标题；没有记录或记录已过期时返回 {@code null}
+     * @since 1.0.1
+     */
+    public PageState get(String title) {
+        String key = normalize(title);
+        Entry entry = pages.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() < 0) {
+            pages.remove(key, entry);
+            return null;
+        }
+        PageState state = entry.state();
+        return new PageState(title, state.pageId(), state.lastRevId(), state.touched());
+    }
+
+    /**
+     * 丢弃所有记录。
+     *
+     * @since 1.0.1
+     */
+    public void clear() {
+        pages.clear();
+    }
+
+    private void put(PageState state) {
+        pages.put(normalize(state.title()), new Entry(state, System.nanoTime() + ttlNanos));
+    }
+
+    private static String normalize(String title) {
+        return title.replace('_', ' ').trim();
+    }
+
+    private record Entry(PageState state, long expiresAt) {
+    }
+}
@@ -0,0 +1,202 @@
+package top.spco.spcobot.wiki.cache;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按 {@link ResponseCachePolicy} 缓存 {@code action=query} 的 GET 请求的响应，需要与 {@link okhttp3.Cache} 一起使用。
+ * <p>
+ * 此类提供两个拦截器：
+ * <ul>
+ *     <li>{@link #application()}：对可缓存的请求按名称排序查询参数，使参数相同的请求对应同一个缓存键，并自动添加 {@code maxage} 和 {@code smaxage} 参数；</li>
+ *     <li>{@link #network()}：将服务端返回的缓存头替换为策略中的缓存时间，带有 {@code MediaWiki-API-Error} 的响应不会被缓存。</li>
+ * </ul>
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class ResponseCacheInterceptor {
+    private static final Set<String> TITLE_PARAMETERS = Set.of("titles", "page", "title");
+    private static final Set<String> USER_PARAMETERS = Set.of("ususers", "user", "leuser", "ucuser");
+    private final ResponseCachePolicy policy;
+
+    /**
+     * @param policy 缓存策略
+     * @since 1.0.1
+     */
+    public ResponseCacheInterceptor(ResponseCachePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @return 应通过 {@link okhttp3.OkHttpClient.Builder#addInterceptor(Interceptor)} 添加的拦截器
+     * @since 1.0.1
+     */
+    public Interceptor application() {
+        return new Interceptor() {
+            @NotNull
+            @Override
+            public Response intercept(@NotNull Chain chain) throws IOException {
+                Request request = chain.request();
+                if (!"GET".equals(request.method())) {
+                    return chain.proceed(request);
+                }
+                long ttl = policy.ttlSeconds(request.url());
+                if (ttl <= 0) {
+                    return chain.proceed(request);
+                }
+                return chain.proceed(request.newBuilder().url(canonicalize(request.url(), ttl)).build());
+            }
+        };
+    }
+
+    /**
+     * @return 应通过 {@link okhttp3.OkHttpClient.Builder#addNetworkInterceptor(Interceptor)} 添加的拦截器
+     * @since 1.0.1
+     */
+    public Interceptor network() {
+        return new Interceptor() {
+            @NotNull
+            @Override
+            public Response intercept(@NotNull Chain chain) throws IOException {
+                Request request = chain.request();
+                Response response = chain.proceed(request);
+                if (!"GET".equals(request.method())) {
+                    return response;
+                }
+                long ttl = policy.ttlSeconds(request.url());
+                if (ttl <= 0) {
+                    return response;
+                }
+                if (!response.isSuccessful() || response.header("MediaWiki-API-Error") != null) {
+                    return response.newBuilder().header("Cache-Control", "no-store").build();
+                }
+                return response.newBuilder()
+                        .removeHeader("Pragma")
+                        .removeHeader("Expires")
+                        .header("Cache-Control", "max-age=" + ttl)
+                        .build();
+            }
+        };
+    }
+
+    private static HttpUrl canonicalize(HttpUrl url, long ttl) {
+        List<Map.Entry<String, String>> parameters = new ArrayList<>();
+        for (int i = 0; i < url.querySize(); i++) {
+            String name = url.queryParameterName(i);
+            if (!name.equals("maxage") && !name.equals("smaxage")) {
+                String value = url.queryParameterValue(i);
+                parameters.add(Map.entry(name, value == null ? "" : value));
+            }
+        }
+        parameters.sort(Map.Entry.comparingByKey());
+        HttpUrl.Builder builder = url.newBuilder();
+        for (Map.Entry<String, String> parameter : parameters) {
+            builder.removeAllQueryParameters(parameter.getKey());
+        }
+        for (Map.Entry<String, String> parameter : parameters) {
+            builder.addQueryParameter(parameter.getKey(), parameter.getValue());
+        }
+        builder.setQueryParameter("maxage", String.valueOf(ttl));
+        builder.setQueryParameter("smaxage", String.valueOf(ttl));
+        return builder.build();
+    }
+
+    /**
+     * 移除缓存中查询了任一指定页面的响应。
+     *
+     * @param cache  HTTP 响应缓存
+     * @param titles 页面标题
+     * @throws IOException 如果读取缓存失败
+     * @since 1.0.1
+     */
+    public static void evictTitles(Cache cache, String... titles) throws IOException {
+        evict(cache, Arrays.asList(titles), List.of());
+    }
+
+    /**
+     * 移除缓存中查询了任一指定用户的响应。
+     *
+     * @param cache HTTP 响应缓存
+     * @param users 用户名
+     * @throws IOException 如果读取缓存失败
+     * @since 1.0.1
+     */
+    public static void evictUsers(Cache cache, String... users) throws IOException {
+        evict(cache, List.of(), Arrays.asList(users));
+    }
+
+    /**
+     * 移除缓存中查询了任一指定页面或用户的响应。缓存只遍历一次，一次处理多个页面和用户时应使用此方法。
+     *
+     * @param cache  HTTP 响应缓存
+     * @param titles 页面标题
+     * @param users  用户名
+     * @throws IOException 如果读取缓存失败
+     * @since 1.0.1
+     */
+    public static void evict(Cache cache, Collection<String> titles, Collection<String> users) throws IOException {
+        Set<String> normalizedTitles = normalizeAll(titles);
+        Set<String> normalizedUsers = normalizeAll(users);
+        if (normalizedTitles.isEmpty() && normalizedUsers.isEmpty()) {
+            return;
+        }
+        Iterator<String> urls = cache.urls();
+        while (urls.hasNext()) {
+            HttpUrl url = HttpUrl.parse(urls.next());
+            if (url != null && (matches(url, TITLE_PARAMETERS, normalizedTitles) || matches(url, USER_PARAMETERS, normalizedUsers))) {
+                urls.remove();
+            }
+        }
+    }
+
+    private static Set<String> normalizeAll(Collection<String> values) {
+        Set<String> normalized = new HashSet<>();
+        for (String value : values) {
+            if (value != null) {
+                normalized.add(normalize(value));
+            }
+        }
+        return normalized;
+    }
+
+    private static boolean matches(HttpUrl url, Set<String> parameters, Set<String> values) {
+        if (values.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < url.querySize(); i++) {
+            if (!parameters.contains(url.queryParameterName(i))) {
+                continue;
+            }
+            String value = url.queryParameterValue(i);
+            if (value == null) {
+                continue;
+            }
+            for (String item : value.split("\\|")) {
+                if (values.contains(normalize(item))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String title) {
+        return title.replace('_', ' ').trim();
+    }
+}
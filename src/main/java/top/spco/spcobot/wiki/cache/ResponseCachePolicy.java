@@ -0,0 +1,89 @@
+package top.spco.spcobot.wiki.cache;
+
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 决定 {@code action=query} 的 GET 请求可以被缓存多久。
+ * <p>
+ * 缓存时间按请求中的查询模块（{@code list}、{@code prop}、{@code meta} 和 {@code generator} 的值）分别设置，
+ * 一个请求包含多个模块时取其中最短的缓存时间，任意一个模块不可缓存时整个请求都不会被缓存。
+ * {@code meta=tokens} 和 {@code meta=userinfo} 始终不会被缓存。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class ResponseCachePolicy {
+    private static final Set<String> NEVER_CACHED = Set.of("tokens", "userinfo");
+    private static final List<String> MODULE_PARAMETERS = List.of("list", "prop", "meta", "generator");
+    private final Map<String, Duration> ttls = new HashMap<>();
+    private final Duration defaultTtl;
+
+    /**
+     * @param defaultTtl 未单独设置的模块的缓存时间，为 {@link Duration#ZERO} 时不缓存
+     * @since 1.0.1
+     */
+    public ResponseCachePolicy(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * 创建一个只缓存较少变化的查询的策略：站点信息 1 小时，滥用过滤器和用户信息 10 分钟，链入页面 5 分钟，其他查询不缓存。
+     *
+     * @return 缓存策略
+     * @since 1.0.1
+     */
+    public static ResponseCachePolicy defaults() {
+        return new ResponseCachePolicy(Duration.ZERO)
+                .setTtl("siteinfo", Duration.ofHours(1))
+                .setTtl("abusefilters", Duration.ofMinutes(10))
+                .setTtl("users", Duration.ofMinutes(10))
+                .setTtl("linkshere", Duration.ofMinutes(5));
+    }
+
+    /**
+     * 设置指定模块的缓存时间。
+     *
+     * @param module 模块名，例如 {@code siteinfo}、{@code allpages}
+     * @param ttl    缓存时间，为 {@link Duration#ZERO} 时不缓存
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public ResponseCachePolicy setTtl(String module, Duration ttl) {
+        ttls.put(module, ttl);
+        return this;
+    }
+
+    /**
+     * 计算请求的缓存时间。
+     *
+     * @param url 请求的 URL
+     * @return 缓存时间（秒），不可缓存时返回 {@code 0}
+     * @since 1.0.1
+     */
+    public long ttlSeconds(HttpUrl url) {
+        if (!"query".equals(url.queryParameter("action"))) {
+            return 0;
+        }
+        long ttl = Long.MAX_VALUE;
+        for (String parameter : MODULE_PARAMETERS) {
+            String value = url.queryParameter(parameter);
+            if (value == null) {
+                continue;
+            }
+            for (String module : value.split("\\|")) {
+                if (NEVER_CACHED.contains(module)) {
+                    return 0;
+                }
+                ttl = Math.min(ttl, ttls.getOrDefault(module, defaultTtl).toSeconds());
+            }
+        }
+        return ttl == Long.MAX_VALUE ? 0 : Math.max(ttl, 0);
+    }
+}
@@ -0,0 +1,47 @@
+package top.spco.spcobot.wiki.cache;
+
+import top.spco.spcobot.wiki.collection.MappedTitleIndex;
+
+/**
+ * 根据 {@link CacheCoherence} 报告的页面创建、移动和删除更新{@link MappedTitleIndex 标题索引}。
+ * <p>
+ * 通过编辑新建的重定向页面会被当作普通页面添加；移动留下的重定向只在索引{@link #TitleIndexUpdater(MappedTitleIndex, boolean) 包含重定向}时保留原标题。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class TitleIndexUpdater implements CacheCoherence.Listener {
+    private final MappedTitleIndex index;
+    private final boolean redirects;
+
+    /**
+     * @param index     要更新的索引
+     * @param redirects 索引中是否包含重定向页面
+     * @since 1.0.1
+     */
+    public TitleIndexUpdater(MappedTitleIndex index, boolean redirects) {
+        this.index = index;
+        this.redirects = redirects;
+    }
+
+    @Override
+    public void pageCreated(String title, long pageId) {
+        index.add(title);
+    }
+
+    @Override
+    public void pageMoved(String from, String to, long pageId, boolean redirect) {
+        if (!redirect || !redirects) {
+            index.remove(from);
+        }
+        if (to != null) {
+            index.add(to);
+        }
+    }
+
+    @Override
+    public void pageDeleted(String title, long pageId) {
+        index.remove(title);
+    }
+}
@@ -0,0 +1,25 @@
+package top.spco.spcobot.wiki.collection;
+
+/**
+ * 基本类型哈希表使用的哈希函数。ID通常是连续的整数，直接取模会使它们聚集在相邻的槽中，因此先充分打散各个位。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+final class HashMixer {
+    private HashMixer() {
+    }
+
+    /**
+     * MurmurHash3 的 64 位终结函数。
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
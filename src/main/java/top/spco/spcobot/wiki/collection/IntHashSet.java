@@ -0,0 +1,267 @@
+package top.spco.spcobot.wiki.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * 不装箱的 {@code int} 集合，使用开放寻址（线性探测）存储，每个元素只占用一个 {@code int} 槽。
+ * <p>
+ * 适合保存大量的页面ID、最近更改ID等，占用的内存约为 {@link LongHashSet} 的一半。此类不是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class IntHashSet implements Iterable<Integer> {
+    private static final float LOAD_FACTOR = 0.8f;
+    /**
+     * 空槽的标记。值为 {@code 0} 的元素单独记录。
+     */
+    private static final int EMPTY = 0;
+    private int[] slots;
+    private int size = 0;
+    private boolean containsEmpty = false;
+    private int resizeThreshold;
+
+    /**
+     * @since 1.0.1
+     */
+    public IntHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数量，达到此数量前不会扩容
+     * @since 1.0.1
+     */
+    public IntHashSet(int expectedSize) {
+        allocate(Math.max(4, (int) Math.min(Integer.MAX_VALUE - 8, (long) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int home(int value) {
+        long hash = HashMixer.mix(value);
+        // 将 32 位哈希值映射到 [0, capacity)，不要求容量为 2 的幂
+        return (int) (((hash >>> 32) * slots.length) >>> 32);
+    }
+
+    /**
+     * @return 元素不存在并被添加时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int index = home(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        slots[index] = value;
+        if (++size > resizeThreshold) {
+            rehash((int) Math.min(Integer.MAX_VALUE - 8, slots.length * 2L));
+        }
+        return true;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public void addAll(int... values) {
+        for (int value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int index = home(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 元素存在并被移除时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            if (!containsEmpty) {
+                return false;
+            }
+            containsEmpty = false;
+            size--;
+            return true;
+        }
+        int index = home(value);
+        while (slots[index] != value) {
+            if (slots[index] == EMPTY) {
+                return false;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        // 将后续同一探测链上的元素前移，使查找不会在删除留下的空槽处提前结束
+        int gap = index;
+        int next = index;
+        while (true) {
+            if (++next == slots.length) {
+                next = 0;
+            }
+            int moved = slots[next];
+            if (moved == EMPTY) {
+                break;
+            }
+            int movedHome = home(moved);
+            boolean reachable = gap <= next ? gap < movedHome && movedHome <= next : gap < movedHome || movedHome <= next;
+            if (!reachable) {
+                slots[gap] = moved;
+                gap = next;
+            }
+        }
+        slots[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        allocate(capacity);
+        for (int value : old) {
+            if (value != EMPTY) {
+                int index = home(value);
+                while (slots[index] != EMPTY) {
+                    if (++index == slots.length) {
+                        index = 0;
+                    }
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    /**
+     * 按内部顺序遍历所有元素，不装箱。
+     *
+     * @since 1.0.1
+     */
+    public void forEachInt(IntConsumer action) {
+        if (containsEmpty) {
+            action.accept(EMPTY);
+        }
+        for (int value : slots) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return 包含所有元素的数组，顺序不确定
+     * @since 1.0.1
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        if (containsEmpty) {
+            result[i++] = EMPTY;
+        }
+        for (int value : slots) {
+            if (value != EMPTY) {
+                result[i++] = value;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private boolean emptyPending = containsEmpty;
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < slots.length && slots[from] == EMPTY) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return emptyPending || index < slots.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (emptyPending) {
+                    emptyPending = false;
+                    return EMPTY;
+                }
+                if (index >= slots.length) {
+                    throw new NoSuchElementException();
+                }
+                int value = slots[index];
+                index = advance(index + 1);
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "IntHashSet{size=" + size + "}";
+    }
+}
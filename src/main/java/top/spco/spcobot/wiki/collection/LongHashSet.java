@@ -0,0 +1,268 @@
+package top.spco.spcobot.wiki.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * 不装箱的 {@code long} 集合，使用开放寻址（线性探测）存储，每个元素只占用一个 {@code long} 槽。
+ * <p>
+ * 适合保存大量的修订版本ID、日志ID等：以默认的装载因子保存 5000 万个ID约占用 500 MB，
+ * 而 {@code HashSet<Long>} 需要数 GB。此类不是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class LongHashSet implements Iterable<Long> {
+    private static final float LOAD_FACTOR = 0.8f;
+    /**
+     * 空槽的标记。值为 {@code 0} 的元素单独记录。
+     */
+    private static final long EMPTY = 0;
+    private long[] slots;
+    private int size = 0;
+    private boolean containsEmpty = false;
+    private int resizeThreshold;
+
+    /**
+     * @since 1.0.1
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数量，达到此数量前不会扩容
+     * @since 1.0.1
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(Math.max(4, (int) Math.min(Integer.MAX_VALUE - 8, (long) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int home(long value) {
+        long hash = HashMixer.mix(value);
+        // 将 32 位哈希值映射到 [0, capacity)，不要求容量为 2 的幂
+        return (int) (((hash >>> 32) * slots.length) >>> 32);
+    }
+
+    /**
+     * @return 元素不存在并被添加时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int index = home(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        slots[index] = value;
+        if (++size > resizeThreshold) {
+            rehash((int) Math.min(Integer.MAX_VALUE - 8, slots.length * 2L));
+        }
+        return true;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public void addAll(long... values) {
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int index = home(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 元素存在并被移除时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            if (!containsEmpty) {
+                return false;
+            }
+            containsEmpty = false;
+            size--;
+            return true;
+        }
+        int index = home(value);
+        while (slots[index] != value) {
+            if (slots[index] == EMPTY) {
+                return false;
+            }
+            if (++index == slots.length) {
+                index = 0;
+            }
+        }
+        // 将后续同一探测链上的元素前移，使查找不会在删除留下的空槽处提前结束
+        int gap = index;
+        int next = index;
+        while (true) {
+            if (++next == slots.length) {
+                next = 0;
+            }
+            long moved = slots[next];
+            if (moved == EMPTY) {
+                break;
+            }
+            int movedHome = home(moved);
+            boolean reachable = gap <= next ? gap < movedHome && movedHome <= next : gap < movedHome || movedHome <= next;
+            if (!reachable) {
+                slots[gap] = moved;
+                gap = next;
+            }
+        }
+        slots[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        allocate(capacity);
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = home(value);
+                while (slots[index] != EMPTY) {
+                    if (++index == slots.length) {
+                        index = 0;
+                    }
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    /**
+     * 按内部顺序遍历所有元素，不装箱。
+     *
+     * @since 1.0.1
+     */
+    public void forEachLong(LongConsumer action) {
+        if (containsEmpty) {
+            action.accept(EMPTY);
+        }
+        for (long value : slots) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return 包含所有元素的数组，顺序不确定
+     * @since 1.0.1
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsEmpty) {
+            result[i++] = EMPTY;
+        }
+        for (long value : slots) {
+            if (value != EMPTY) {
+                result[i++] = value;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private boolean emptyPending = containsEmpty;
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < slots.length && slots[from] == EMPTY) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return emptyPending || index < slots.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (emptyPending) {
+                    emptyPending = false;
+                    return EMPTY;
+                }
+                if (index >= slots.length) {
+                    throw new NoSuchElementException();
+                }
+                long value = slots[index];
+                index = advance(index + 1);
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "LongHashSet{size=" + size + "}";
+    }
+}
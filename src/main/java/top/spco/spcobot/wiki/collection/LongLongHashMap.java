@@ -0,0 +1,231 @@
+package top.spco.spcobot.wiki.collection;
+
+import java.util.Arrays;
+
+/**
+ * 不装箱的 {@code long} 到 {@code long} 的映射，使用开放寻址（线性探测）存储，例如页面ID到最新修订版本ID的映射。
+ * 此类不是线程安全的。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class LongLongHashMap {
+    private static final float LOAD_FACTOR = 0.8f;
+    /**
+     * 空槽的标记。键为 {@code 0} 的条目单独记录。
+     */
+    private static final long EMPTY = 0;
+    private long[] keys;
+    private long[] values;
+    private int size = 0;
+    private boolean containsEmptyKey = false;
+    private long emptyKeyValue;
+    private int resizeThreshold;
+
+    /**
+     * @since 1.0.1
+     */
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的条目数量，达到此数量前不会扩容
+     * @since 1.0.1
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(Math.max(4, (int) Math.min(Integer.MAX_VALUE - 8, (long) (expectedSize / LOAD_FACTOR) + 1)));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int home(long key) {
+        long hash = HashMixer.mix(key);
+        return (int) (((hash >>> 32) * keys.length) >>> 32);
+    }
+
+    private int indexOf(long key) {
+        int index = home(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            if (++index == keys.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param key          键
+     * @param defaultValue 键不存在时返回的值
+     * @return 键对应的值
+     * @since 1.0.1
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return containsEmptyKey ? emptyKeyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean containsKey(long key) {
+        return key == EMPTY ? containsEmptyKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * @return 键已存在时返回 {@code true}，此时旧值被替换
+     * @since 1.0.1
+     */
+    public boolean put(long key, long value) {
+        if (key == EMPTY) {
+            boolean existed = containsEmptyKey;
+            if (!existed) {
+                containsEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return existed;
+        }
+        int index = home(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return true;
+            }
+            if (++index == keys.length) {
+                index = 0;
+            }
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash((int) Math.min(Integer.MAX_VALUE - 8, keys.length * 2L));
+        }
+        return false;
+    }
+
+    /**
+     * @return 键存在并被移除时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsEmptyKey) {
+                return false;
+            }
+            containsEmptyKey = false;
+            size--;
+            return true;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        // 将后续同一探测链上的条目前移，使查找不会在删除留下的空槽处提前结束
+        int gap = index;
+        int next = index;
+        while (true) {
+            if (++next == keys.length) {
+                next = 0;
+            }
+            long moved = keys[next];
+            if (moved == EMPTY) {
+                break;
+            }
+            int movedHome = home(moved);
+            boolean reachable = gap <= next ? gap < movedHome && movedHome <= next : gap < movedHome || movedHome <= next;
+            if (!reachable) {
+                keys[gap] = moved;
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = home(key);
+                while (keys[index] != EMPTY) {
+                    if (++index == keys.length) {
+                        index = 0;
+                    }
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsEmptyKey = false;
+        size = 0;
+    }
+
+    /**
+     * 按内部顺序遍历所有条目，不装箱。
+     *
+     * @since 1.0.1
+     */
+    public void forEach(EntryConsumer action) {
+        if (containsEmptyKey) {
+            action.accept(EMPTY, emptyKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongLongHashMap{size=" + size + "}";
+    }
+
+    /**
+     * 接收映射条目的函数。
+     *
+     * @since 1.0.1
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,80 @@
+package top.spco.spcobot.wiki.collection;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 以只读方式分段映射的文件。单个 {@link ByteBuffer} 最多只能映射 2 GB，因此较大的文件被分为多段映射；
+ * 段大小是 8 的倍数，按 8 字节对齐的 {@code long} 不会跨段。所有读取都使用绝对位置，可以被多个线程同时调用。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+final class MappedChunks {
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    private final ByteBuffer[] chunks;
+    private final long length;
+
+    private MappedChunks(ByteBuffer[] chunks, long length) {
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    /**
+     * 映射整个文件。映射在通道关闭后仍然有效，在此对象被垃圾回收后释放。
+     */
+    static MappedChunks map(FileChannel channel) throws IOException {
+        long length = channel.size();
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, length - start));
+        }
+        return new MappedChunks(chunks, length);
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte get(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].get((int) (position & CHUNK_MASK));
+    }
+
+    /**
+     * @param position 按 8 字节对齐的位置
+     */
+    long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    void get(long position, byte[] destination, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+            int index = (int) (position & CHUNK_MASK);
+            int count = Math.min(length, chunk.limit() - index);
+            chunk.get(index, destination, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * @return 指定范围的只读视图，范围位于同一段中时不复制数据
+     */
+    ByteBuffer slice(long position, int length) {
+        ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+        int index = (int) (position & CHUNK_MASK);
+        if (index + length <= chunk.limit()) {
+            return chunk.slice(index, length).asReadOnlyBuffer();
+        }
+        byte[] bytes = new byte[length];
+        get(position, bytes, 0, length);
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,839 @@
+package top.spco.spcobot.wiki.collection;
+
+import com.google.common.collect.Iterators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * 保存在内存映射文件中的有序标题索引，可以在本地完成精确查找、前缀查找和范围查找，而不必每次都通过 {@code list=allpages} 查询。
+ * <p>
+ * 标题按 Unicode 码位顺序（即 UTF-8 字节顺序）排列，每 {@value #BLOCK_SIZE} 个标题为一块，
+ * 块中除第一个标题外只保存与前一个标题不同的后缀（前端编码）。查找时先对各块的第一个标题二分查找，再在块内顺序解码，
+ * 因此单次查找只访问 {@code log2(块数)} 个块首和一个块，在数据已被操作系统缓存时只需数微秒。
+ * 此顺序与 MediaWiki 的排序不同：MediaWiki 先按命名空间排序，再按以下划线代替空格的标题排序，
+ * 因此索引中的顺序与 {@code list=allpages} 返回的顺序不一定相同。
+ * <p>
+ * 索引文件本身是只读的。{@link #add(String)}、{@link #remove(String)} 和 {@link #move(String, String)} 的更改保存在内存中，
+ * 查找时与文件中的标题合并；更改积累较多时可以{@link #compact(Path) 压实}到新文件中。
+ * 索引文件总是先写入同目录下的临时文件再原子地替换，因此重建一个正在被映射的索引文件是安全的，已映射的索引继续读取旧文件。
+ * {@link top.spco.spcobot.wiki.cache.TitleIndexUpdater} 可以根据 {@link top.spco.spcobot.wiki.cache.CacheCoherence}
+ * 报告的页面创建、移动和删除自动更新索引。
+ * <p>
+ * 此类可以被多个线程同时使用，遍历时发生的更改可能不会被看到。
+ * <p>
+ * 文件格式：
+ * <pre>
+ * "SPTI" 版本号(1 字节) 填充(3 字节)
+ * 块 ...，每块的第一个标题为 长度(变长整数) 字节，其余标题为 共同前缀长度(变长整数) 后缀长度(变长整数) 后缀字节
+ * 填充到 8 字节对齐
+ * 块的位置 × 块数，每个为 8 字节
+ * 标题数(8 字节) 块位置数组的位置(8 字节)
+ * </pre>
+ * 所有定长整数均为大端序。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class MappedTitleIndex implements Iterable<String> {
+    /**
+     * 每块中的标题数。
+     */
+    public static final int BLOCK_SIZE = 16;
+    /**
+     * 索引中标题的顺序，即 Unicode 码位顺序。
+     */
+    public static final Comparator<String> ORDER = MappedTitleIndex::compare;
+    private static final byte[] MAGIC = {'S', 'P', 'T', 'I'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int TRAILER_LENGTH = 16;
+    /**
+     * {@link Builder} 在堆中积累的标题数上限。
+     */
+    private static final int RUN_SIZE = 1 << 18;
+    private final MappedChunks chunks;
+    private final int count;
+    private final int blockCount;
+    private final long blocksPosition;
+    private final NavigableSet<String> added = new ConcurrentSkipListSet<>(ORDER);
+    private final Set<String> removed = ConcurrentHashMap.newKeySet();
+
+    private MappedTitleIndex(MappedChunks chunks, int count, long blocksPosition) {
+        this.chunks = chunks;
+        this.count = count;
+        this.blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blocksPosition = blocksPosition;
+    }
+
+    /**
+     * 映射一个索引文件。
+     *
+     * @param file 索引文件
+     * @return 索引
+     * @throws IOException 如果文件无法读取或不是索引文件
+     * @since 1.0.1
+     */
+    public static MappedTitleIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_LENGTH + TRAILER_LENGTH) {
+                throw new IOException("Unrecognized title index file: " + file);
+            }
+            MappedChunks chunks = MappedChunks.map(channel);
+            byte[] magic = new byte[MAGIC.length];
+            chunks.get(0, magic, 0, magic.length);
+            if (!Arrays.equals(magic, MAGIC) || chunks.get(MAGIC.length) != VERSION) {
+                throw new IOException("Unrecognized title index file: " + file);
+            }
+            long count = chunks.getLong(length - TRAILER_LENGTH);
+            long blocksPosition = chunks.getLong(length - 8);
+            if (count < 0 || count >= Integer.MAX_VALUE || blocksPosition < HEADER_LENGTH || blocksPosition % 8 != 0
+                    || blocksPosition + (count + BLOCK_SIZE - 1) / BLOCK_SIZE * 8 != length - TRAILER_LENGTH) {
+                throw new IOException("Corrupted title index file: " + file);
+            }
+            return new MappedTitleIndex(chunks, (int) count, blocksPosition);
+        }
+    }
+
+    /**
+     * 将已按 {@link #ORDER} 排序的标题写入索引文件并映射。重复的标题只保留一个。
+     *
+     * @param file   索引文件，已存在时会被替换
+     * @param titles 已排序的标题
+     * @return 索引
+     * @throws IOException              如果写入或映射失败
+     * @throws IllegalArgumentException 如果标题没有排序
+     * @since 1.0.1
+     */
+    public static MappedTitleIndex build(Path file, Iterable<String> titles) throws IOException {
+        write(file, titles.iterator());
+        return open(file);
+    }
+
+    /**
+     * 将标题列表排序后写入索引文件并映射，适用于 {@link top.spco.spcobot.wiki.Wiki#saveAllPageTitles 列举所有页面}得到的、
+     * 跨越多个命名空间因而整体无序的标题。排序只在堆中保存每个标题的索引，不会解码标题。
+     *
+     * @param file   索引文件，已存在时会被替换
+     * @param titles 标题
+     * @return 索引
+     * @throws IOException 如果写入或映射失败
+     * @since 1.0.1
+     */
+    public static MappedTitleIndex build(Path file, MappedTitleList titles) throws IOException {
+        int[] order = new int[titles.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sort(order, (a, b) -> compareBytes(titles.bytes(a), titles.bytes(b)));
+        write(file, new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < order.length;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return titles.get(order[index++]);
+            }
+        });
+        return open(file);
+    }
+
+    /**
+     * 创建一个可以按任意顺序添加标题的构建器，标题不需要预先排序或保存在文件中。
+     *
+     * @param file 索引文件，已存在时在{@link Builder#build() 构建}成功后被替换
+     * @return 构建器
+     * @throws IOException 如果所在目录无法创建
+     * @since 1.0.1
+     */
+    public static Builder builder(Path file) throws IOException {
+        return new Builder(file);
+    }
+
+    /**
+     * @param title 标题
+     * @return 索引中是否包含此标题
+     * @since 1.0.1
+     */
+    public boolean contains(String title) {
+        if (added.contains(title)) {
+            return true;
+        }
+        return !removed.contains(title) && baseContains(title);
+    }
+
+    /**
+     * 获取以指定前缀开头的标题。
+     *
+     * @param prefix 前缀
+     * @param limit  最多返回的标题数
+     * @return 按顺序排列的标题
+     * @since 1.0.1
+     */
+    public List<String> prefix(String prefix, int limit) {
+        return collect(prefixIterator(prefix), limit);
+    }
+
+    /**
+     * 获取指定范围内的标题。
+     *
+     * @param from  起始标题（含），为 {@code null} 时从第一个标题开始
+     * @param to    结束标题（不含），为 {@code null} 时直到最后一个标题
+     * @param limit 最多返回的标题数
+     * @return 按顺序排列的标题
+     * @since 1.0.1
+     */
+    public List<String> range(String from, String to, int limit) {
+        return collect(iterator(from, to), limit);
+    }
+
+    /**
+     * 按顺序遍历以指定前缀开头的标题。
+     *
+     * @param prefix 前缀
+     * @return 标题的迭代器
+     * @since 1.0.1
+     */
+    public Iterator<String> prefixIterator(String prefix) {
+        return new MergedIterator(prefix, title -> title.startsWith(prefix));
+    }
+
+    /**
+     * 按顺序遍历指定范围内的标题。
+     *
+     * @param from 起始标题（含），为 {@code null} 时从第一个标题开始
+     * @param to   结束标题（不含），为 {@code null} 时直到最后一个标题
+     * @return 标题的迭代器
+     * @since 1.0.1
+     */
+    public Iterator<String> iterator(String from, String to) {
+        return new MergedIterator(from, to == null ? title -> true : title -> compare(title, to) < 0);
+    }
+
+    /**
+     * 按顺序遍历所有标题。
+     *
+     * @return 标题的迭代器
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return iterator(null, null);
+    }
+
+    /**
+     * 将指定范围内的标题写入一个{@link MappedTitleList 标题列表}，可以直接作为任务的目标。
+     *
+     * @param file 标题列表文件，已存在时会被覆盖
+     * @param from 起始标题（含），为 {@code null} 时从第一个标题开始
+     * @param to   结束标题（不含），为 {@code null} 时直到最后一个标题
+     * @return 标题列表
+     * @throws IOException 如果写入或映射失败
+     * @since 1.0.1
+     */
+    public MappedTitleList toTitleList(Path file, String from, String to) throws IOException {
+        return MappedTitleList.write(file, () -> iterator(from, to));
+    }
+
+    /**
+     * 添加一个标题，例如页面被创建或恢复时。
+     *
+     * @param title 标题
+     * @since 1.0.1
+     */
+    public synchronized void add(String title) {
+        removed.remove(title);
+        if (!baseContains(title)) {
+            added.add(title);
+        }
+    }
+
+    /**
+     * 移除一个标题，例如页面被删除时。
+     *
+     * @param title 标题
+     * @since 1.0.1
+     */
+    public synchronized void remove(String title) {
+        added.remove(title);
+        if (baseContains(title)) {
+            removed.add(title);
+        }
+    }
+
+    /**
+     * 页面被移动且没有在原标题处留下重定向时，移除原标题并添加新标题。
+     *
+     * @param from 原标题
+     * @param to   新标题
+     * @since 1.0.1
+     */
+    public synchronized void move(String from, String to) {
+        remove(from);
+        add(to);
+    }
+
+    /**
+     * @return 索引中的标题数
+     * @since 1.0.1
+     */
+    public int size() {
+        return count - removed.size() + added.size();
+    }
+
+    /**
+     * @return 是否有尚未{@link #compact(Path) 压实}到文件中的更改
+     * @since 1.0.1
+     */
+    public boolean hasPendingChanges() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    /**
+     * 将索引文件中的标题与内存中的更改合并写入新的索引文件，并映射新文件。此索引保持不变，可以在新索引可用后丢弃。
+     *
+     * @param file 新的索引文件，可以是此索引正在映射的文件，此时此索引继续读取被替换前的文件
+     * @return 新的索引
+     * @throws IOException 如果写入或映射失败
+     * @since 1.0.1
+     */
+    public MappedTitleIndex compact(Path file) throws IOException {
+        return build(file, this);
+    }
+
+    /**
+     * 按索引中的顺序比较两个标题，即按 Unicode 码位比较。与 {@link String#compareTo(String)} 的区别在于，
+     * 增补平面的字符排在 {@code U+E000} 至 {@code U+FFFF} 之后。
+     *
+     * @param a 标题
+     * @param b 标题
+     * @return 比较结果
+     * @since 1.0.1
+     */
+    public static int compare(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y) {
+                if (x >= Character.MIN_SURROGATE && y >= Character.MIN_SURROGATE) {
+                    // 把代理项移到 U+FFFF 之后，其余字符相应前移
+                    x = (char) (x >= 0xE000 ? x - 0x800 : x + 0x2000);
+                    y = (char) (y >= 0xE000 ? y - 0x800 : y + 0x2000);
+                }
+                return x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private boolean baseContains(String title) {
+        byte[] key = title.getBytes(StandardCharsets.UTF_8);
+        Cursor cursor = new Cursor();
+        cursor.seek(key);
+        return cursor.valid() && cursor.compareTo(key) == 0;
+    }
+
+    private long blockPosition(int block) {
+        return chunks.getLong(blocksPosition + (long) block * 8);
+    }
+
+    /**
+     * 比较块的第一个标题与 {@code key}，不复制标题的字节。
+     */
+    private int compareFirstKey(int block, byte[] key) {
+        long position = blockPosition(block);
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = chunks.get(position++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = Byte.toUnsignedInt(chunks.get(position + i)) - Byte.toUnsignedInt(key[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static List<String> collect(Iterator<String> iterator, int limit) {
+        List<String> titles = new ArrayList<>(Math.min(limit, 64));
+        while (titles.size() < limit && iterator.hasNext()) {
+            titles.add(iterator.next());
+        }
+        return titles;
+    }
+
+    private static void write(Path file, Iterator<String> titles) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // 先写入同目录下的临时文件再替换，原地截断正在被映射的文件会使映射它的索引读取失败
+        Path temp = Files.createTempFile(directory, "index-", ".tmp");
+        try {
+            writeTo(temp, titles);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static void writeTo(Path file, Iterator<String> titles) throws IOException {
+        long[] blocks = new long[64];
+        int blockCount = 0;
+        long count = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(new byte[HEADER_LENGTH - MAGIC.length - 1]);
+            long position = HEADER_LENGTH;
+            String previousTitle = null;
+            byte[] previous = null;
+            while (titles.hasNext()) {
+                String title = titles.next();
+                if (previousTitle != null) {
+                    int order = compare(previousTitle, title);
+                    if (order == 0) {
+                        continue;
+                    }
+                    if (order > 0) {
+                        throw new IllegalArgumentException("Titles are not sorted: \"" + previousTitle + "\" is before \"" + title + "\"");
+                    }
+                }
+                if (count == Integer.MAX_VALUE - 1) {
+                    throw new IllegalStateException("Too many titles");
+                }
+                byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+                int shared = 0;
+                if (count % BLOCK_SIZE == 0) {
+                    if (blockCount == blocks.length) {
+                        blocks = Arrays.copyOf(blocks, blockCount * 2);
+                    }
+                    blocks[blockCount++] = position;
+                } else {
+                    shared = Arrays.mismatch(previous, bytes);
+                    position += writeVarint(out, shared);
+                }
+                position += writeVarint(out, bytes.length - shared);
+                out.write(bytes, shared, bytes.length - shared);
+                position += bytes.length - shared;
+                previousTitle = title;
+                previous = bytes;
+                count++;
+            }
+            int padding = (int) ((8 - position % 8) % 8);
+            out.write(new byte[padding]);
+            DataOutputStream trailer = new DataOutputStream(out);
+            for (int i = 0; i < blockCount; i++) {
+                trailer.writeLong(blocks[i]);
+            }
+            trailer.writeLong(count);
+            trailer.writeLong(position + padding);
+            trailer.flush();
+        }
+    }
+
+    private static int writeVarint(OutputStream out, int value) throws IOException {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+            length++;
+        }
+        out.write(value);
+        return length;
+    }
+
+    private static int compareBytes(ByteBuffer a, ByteBuffer b) {
+        int mismatch = a.mismatch(b);
+        if (mismatch < 0) {
+            return 0;
+        }
+        if (mismatch >= a.remaining() || mismatch >= b.remaining()) {
+            return a.remaining() - b.remaining();
+        }
+        return Byte.toUnsignedInt(a.get(mismatch)) - Byte.toUnsignedInt(b.get(mismatch));
+    }
+
+    /**
+     * 自底向上的归并排序，避免对 {@code int} 装箱。
+     */
+    private static void sort(int[] values, IntBinaryOperator comparator) {
+        int[] source = values;
+        int[] target = new int[values.length];
+        for (int width = 1; width < values.length; width <<= 1) {
+            for (int low = 0; low < values.length; low += width << 1) {
+                int middle = Math.min(low + width, values.length);
+                int high = Math.min(low + (width << 1), values.length);
+                int i = low;
+                int j = middle;
+                for (int k = low; k < high; k++) {
+                    target[k] = j >= high || i < middle && comparator.applyAsInt(source[i], source[j]) <= 0 ? source[i++] : source[j++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, values.length);
+        }
+    }
+
+    /**
+     * 在索引文件中顺序解码标题的游标。
+     */
+    private final class Cursor {
+        private long position;
+        private int index = count;
+        private byte[] key = new byte[64];
+        private int keyLength;
+
+        /**
+         * 定位到第一个不小于 {@code target} 的标题。
+         */
+        private void seek(byte[] target) {
+            if (count == 0) {
+                return;
+            }
+            int low = 0;
+            int high = blockCount - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (compareFirstKey(middle, target) <= 0) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            enterBlock(low);
+            while (compareTo(target) < 0 && next()) {
+            }
+        }
+
+        private void first() {
+            if (count > 0) {
+                enterBlock(0);
+            }
+        }
+
+        private boolean valid() {
+            return index < count;
+        }
+
+        private boolean next() {
+            if (++index >= count) {
+                index = count;
+                return false;
+            }
+            if (index % BLOCK_SIZE == 0) {
+                enterBlock(index / BLOCK_SIZE);
+            } else {
+                int shared = readVarint();
+                readKey(shared, readVarint());
+            }
+            return true;
+        }
+
+        private int compareTo(byte[] target) {
+            return Arrays.compareUnsigned(key, 0, keyLength, target, 0, target.length);
+        }
+
+        private String current() {
+            return new String(key, 0, keyLength, StandardCharsets.UTF_8);
+        }
+
+        private void enterBlock(int block) {
+            position = blockPosition(block);
+            index = block * BLOCK_SIZE;
+            readKey(0, readVarint());
+        }
+
+        private void readKey(int shared, int suffix) {
+            if (shared + suffix > key.length) {
+                key = Arrays.copyOf(key, Math.max(shared + suffix, key.length * 2));
+            }
+            chunks.get(position, key, shared, suffix);
+            position += suffix;
+            keyLength = shared + suffix;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = chunks.get(position++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按顺序合并索引文件中未被移除的标题和内存中添加的标题。
+     */
+    private final class MergedIterator implements Iterator<String> {
+        private final Cursor base = new Cursor();
+        private final Iterator<String> overlay;
+        private final Predicate<String> inRange;
+        private String nextBase;
+        private String nextOverlay;
+
+        private MergedIterator(String from, Predicate<String> inRange) {
+            this.inRange = inRange;
+            if (from == null) {
+                base.first();
+                overlay = added.iterator();
+            } else {
+                base.seek(from.getBytes(StandardCharsets.UTF_8));
+                overlay = added.tailSet(from, true).iterator();
+            }
+            nextBase = advanceBase();
+            nextOverlay = overlay.hasNext() ? overlay.next() : null;
+        }
+
+        private String advanceBase() {
+            while (base.valid()) {
+                String title = base.current();
+                base.next();
+                if (!removed.contains(title)) {
+                    return title;
+                }
+            }
+            return null;
+        }
+
+        private String peek() {
+            if (nextBase == null) {
+                return nextOverlay;
+            }
+            if (nextOverlay == null) {
+                return nextBase;
+            }
+            return compare(nextBase, nextOverlay) <= 0 ? nextBase : nextOverlay;
+        }
+
+        @Override
+        public boolean hasNext() {
+            String next = peek();
+            return next != null && inRange.test(next);
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String next = peek();
+            if (next == nextBase) {
+                nextBase = advanceBase();
+            } else {
+                nextOverlay = overlay.hasNext() ? overlay.next() : null;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * 以任意顺序添加标题并建立索引。标题在堆中积累到一定数量后排序并写入同目录下的临时文件，{@link #build()} 时再归并写入索引文件，
+     * 因此堆中只保存一部分标题。临时文件不会被映射，在 {@link #build()} 或 {@link #close()} 时删除。
+     *
+     * @since 1.0.1
+     */
+    public static final class Builder implements Closeable {
+        private final Path file;
+        private final Path directory;
+        private final List<String> buffer = new ArrayList<>();
+        private final List<Path> runs = new ArrayList<>();
+        private boolean closed = false;
+
+        private Builder(Path file) throws IOException {
+            this.file = file;
+            this.directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+        }
+
+        /**
+         * 添加一个标题，重复的标题只保留一个。
+         *
+         * @param title 标题
+         * @return 返回自身
+         * @throws IOException           如果写入临时文件失败
+         * @throws IllegalStateException 如果构建器已关闭
+         * @since 1.0.1
+         */
+        public Builder add(String title) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("Title index builder has been closed");
+            }
+            buffer.add(title);
+            if (buffer.size() >= RUN_SIZE) {
+                spill();
+            }
+            return this;
+        }
+
+        /**
+         * 将所有标题排序后写入索引文件并映射，然后关闭此构建器。
+         *
+         * @return 索引
+         * @throws IOException           如果写入或映射失败
+         * @throws IllegalStateException 如果构建器已关闭
+         * @since 1.0.1
+         */
+        public MappedTitleIndex build() throws IOException {
+            if (closed) {
+                throw new IllegalStateException("Title index builder has been closed");
+            }
+            List<DataInputStream> inputs = new ArrayList<>(runs.size());
+            try {
+                buffer.sort(ORDER);
+                List<Iterator<String>> sources = new ArrayList<>(runs.size() + 1);
+                sources.add(buffer.iterator());
+                for (Path run : runs) {
+                    DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+                    inputs.add(input);
+                    sources.add(new RunIterator(input));
+                }
+                try {
+                    write(file, Iterators.mergeSorted(sources, ORDER));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            } finally {
+                for (DataInputStream input : inputs) {
+                    input.close();
+                }
+                close();
+            }
+            return open(file);
+        }
+
+        /**
+         * 删除所有临时文件。已经 {@link #build() 构建}的索引不受影响。
+         *
+         * @throws IOException 如果删除临时文件失败
+         * @since 1.0.1
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            IOException failure = null;
+            for (Path run : runs) {
+                try {
+                    Files.deleteIfExists(run);
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            runs.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void spill() throws IOException {
+            buffer.sort(ORDER);
+            Path run = Files.createTempFile(directory, "index-", ".tmp");
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                out.writeInt(buffer.size());
+                for (String title : buffer) {
+                    byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 依次读取 {@link Builder} 写入的一个临时文件中的标题。
+     */
+    private static final class RunIterator implements Iterator<String> {
+        private final DataInputStream input;
+        private int remaining;
+
+        private RunIterator(DataInputStream input) throws IOException {
+            this.input = input;
+            this.remaining = input.readInt();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                remaining--;
+                return new String(bytes, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
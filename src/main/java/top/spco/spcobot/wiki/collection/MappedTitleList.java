@@ -0,0 +1,264 @@
+package top.spco.spcobot.wiki.collection;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * 保存在内存映射文件中的只读标题列表，可以直接作为任务的目标列表使用。
+ * <p>
+ * 标题以 UTF-8 编码依次存放在文件中，并附带一个偏移量数组，两者都在堆外，堆中只有每次 {@link #get(int)} 解码出的字符串。
+ * 1000 万个标题在 {@code ArrayList<String>} 中约占用 1 GB 以上的堆，而在此列表中只占用约等于标题字节数加 80 MB 的文件映射，
+ * 由操作系统按需换入换出。
+ * <p>
+ * {@link #subList(int, int)} 返回共享同一映射的视图，不复制任何数据，可以直接分配给各个工作线程；
+ * {@link #bytes(int)} 和 {@link #forEachBytes(Consumer)} 可以在不创建字符串的情况下访问标题的原始字节。
+ * 此列表可以被多个线程同时读取。映射在列表被垃圾回收后释放。
+ * <p>
+ * 文件格式：
+ * <pre>
+ * "SPTL" 版本号(1 字节) 填充(3 字节)
+ * 标题的 UTF-8 字节 ... 填充到 8 字节对齐
+ * 偏移量 × (标题数 + 1)，每个为 8 字节，第 i 个标题位于 [偏移量[i], 偏移量[i + 1])
+ * 标题数(8 字节) 偏移量数组的位置(8 字节)
+ * </pre>
+ * 所有整数均为大端序。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class MappedTitleList extends AbstractList<String> implements RandomAccess {
+    private static final byte[] MAGIC = {'S', 'P', 'T', 'L'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int TRAILER_LENGTH = 16;
+    private final MappedChunks chunks;
+    private final long offsetsPosition;
+    private final int from;
+    private final int size;
+
+    private MappedTitleList(MappedChunks chunks, long offsetsPosition, int from, int size) {
+        this.chunks = chunks;
+        this.offsetsPosition = offsetsPosition;
+        this.from = from;
+        this.size = size;
+    }
+
+    /**
+     * 映射一个由 {@link Writer} 写入的标题列表文件。
+     *
+     * @param file 标题列表文件
+     * @return 标题列表
+     * @throws IOException 如果文件无法读取或不是标题列表文件
+     * @since 1.0.1
+     */
+    public static MappedTitleList open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_LENGTH + 8 + TRAILER_LENGTH) {
+                throw new IOException("Unrecognized title list file: " + file);
+            }
+            MappedChunks chunks = MappedChunks.map(channel);
+            byte[] magic = new byte[MAGIC.length];
+            chunks.get(0, magic, 0, magic.length);
+            if (!Arrays.equals(magic, MAGIC) || chunks.get(MAGIC.length) != VERSION) {
+                throw new IOException("Unrecognized title list file: " + file);
+            }
+            long count = chunks.getLong(length - TRAILER_LENGTH);
+            long offsetsPosition = chunks.getLong(length - 8);
+            if (count < 0 || count >= Integer.MAX_VALUE || offsetsPosition < HEADER_LENGTH || offsetsPosition % 8 != 0
+                    || offsetsPosition + (count + 1) * 8 != length - TRAILER_LENGTH) {
+                throw new IOException("Corrupted title list file: " + file);
+            }
+            return new MappedTitleList(chunks, offsetsPosition, 0, (int) count);
+        }
+    }
+
+    /**
+     * 创建一个标题列表文件的写入器。文件已存在时会被覆盖。
+     *
+     * @param file 标题列表文件，所在目录不存在时会被创建
+     * @return 写入器
+     * @throws IOException 如果文件无法创建
+     * @since 1.0.1
+     */
+    public static Writer create(Path file) throws IOException {
+        return new Writer(file);
+    }
+
+    /**
+     * 将标题依次写入文件并映射。标题可以来自一个按需生成的来源，写入时不会在内存中保存全部标题。
+     *
+     * @param file   标题列表文件，已存在时会被覆盖
+     * @param titles 标题
+     * @return 标题列表
+     * @throws IOException 如果写入或映射失败
+     * @since 1.0.1
+     */
+    public static MappedTitleList write(Path file, Iterable<String> titles) throws IOException {
+        try (Writer writer = create(file)) {
+            for (String title : titles) {
+                writer.add(title);
+            }
+        }
+        return open(file);
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        long start = offset(from + index);
+        int length = (int) (offset(from + index + 1) - start);
+        byte[] bytes = new byte[length];
+        chunks.get(start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 获取标题的 UTF-8 字节。标题位于同一段映射中时（几乎总是如此）返回共享映射的只读视图，不复制任何数据。
+     *
+     * @param index 标题的索引
+     * @return 标题的 UTF-8 字节，位置为 {@code 0}，界限为字节数
+     * @since 1.0.1
+     */
+    public ByteBuffer bytes(int index) {
+        Objects.checkIndex(index, size);
+        long start = offset(from + index);
+        int length = (int) (offset(from + index + 1) - start);
+        return chunks.slice(start, length);
+    }
+
+    /**
+     * 依次访问每个标题的 UTF-8 字节，而不创建字符串。
+     *
+     * @param consumer 字节的消费者，参见 {@link #bytes(int)}
+     * @since 1.0.1
+     */
+    public void forEachBytes(Consumer<ByteBuffer> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(bytes(i));
+        }
+    }
+
+    /**
+     * 返回此列表一部分的视图。视图与此列表共享同一映射，不复制任何数据。
+     *
+     * @param fromIndex 起始索引（含）
+     * @param toIndex   结束索引（不含）
+     * @return 此列表一部分的视图
+     */
+    @Override
+    public MappedTitleList subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new MappedTitleList(chunks, offsetsPosition, from + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private long offset(int index) {
+        return chunks.getLong(offsetsPosition + (long) index * 8);
+    }
+
+    /**
+     * 依次写入标题列表文件。偏移量先写入同目录下的临时文件，{@link #close()} 时再追加到标题之后，
+     * 因此写入时不需要预先知道标题的数量，也不会在内存中保存标题或偏移量。
+     *
+     * @since 1.0.1
+     */
+    public static final class Writer implements Closeable {
+        private final Path offsetsFile;
+        private final OutputStream data;
+        private final DataOutputStream offsets;
+        private long position = HEADER_LENGTH;
+        private long count = 0;
+        private boolean closed = false;
+
+        private Writer(Path file) throws IOException {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.offsetsFile = Files.createTempFile(directory, "titles-", ".tmp");
+            this.data = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+            this.offsets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsetsFile), 1 << 16));
+            data.write(MAGIC);
+            data.write(VERSION);
+            data.write(new byte[HEADER_LENGTH - MAGIC.length - 1]);
+            offsets.writeLong(position);
+        }
+
+        /**
+         * 写入一个标题。
+         *
+         * @param title 标题
+         * @return 返回自身
+         * @throws IOException           如果写入失败
+         * @throws IllegalStateException 如果写入器已关闭，或标题数超过上限
+         * @since 1.0.1
+         */
+        public Writer add(String title) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("Title list writer has been closed");
+            }
+            if (count == Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("Too many titles");
+            }
+            byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+            data.write(bytes);
+            position += bytes.length;
+            offsets.writeLong(position);
+            count++;
+            return this;
+        }
+
+        /**
+         * @return 已写入的标题数
+         * @since 1.0.1
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * 追加偏移量数组并完成文件。
+         *
+         * @throws IOException 如果写入失败
+         * @since 1.0.1
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (data) {
+                offsets.close();
+                int padding = (int) ((8 - position % 8) % 8);
+                data.write(new byte[padding]);
+                long offsetsPosition = position + padding;
+                Files.copy(offsetsFile, data);
+                DataOutputStream trailer = new DataOutputStream(data);
+                trailer.writeLong(count);
+                trailer.writeLong(offsetsPosition);
+                trailer.flush();
+            } finally {
+                Files.deleteIfExists(offsetsFile);
+            }
+        }
+    }
+}
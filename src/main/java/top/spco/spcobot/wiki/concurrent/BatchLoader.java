@@ -0,0 +1,126 @@
+package top.spco.spcobot.wiki.concurrent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 将一段时间窗口内对单个键的加载请求合并为一次批量加载，再把结果分发给各个请求者。
+ * <p>
+ * 第一个请求到达时开始计时，窗口结束或收集的键达到批量上限时发出一次批量加载。同一批次中的重复键共享同一个结果。
+ * 逐个处理大量对象的代码应先对所有对象调用 {@link #load(Object)}，再依次等待结果，这样所有的键会被合并到少数几次请求中。
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class BatchLoader<K, V> {
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Executor executor;
+    private LinkedHashMap<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param batchFunction 批量加载函数，返回的映射中不包含的键的结果为 {@code null}
+     * @param maxBatchSize  每批最多包含的键的数量
+     * @param window        收集请求的时间窗口
+     * @param executor      执行批量加载的线程池
+     * @since 1.0.1
+     */
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction, int maxBatchSize, Duration window, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * 请求加载一个键，结果在其所在的批次完成后可用。
+     *
+     * @param key 键
+     * @return 值的 {@link CompletableFuture}
+     * @since 1.0.1
+     */
+    public CompletableFuture<V> load(K key) {
+        LinkedHashMap<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        boolean first;
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            first = pending.isEmpty();
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (full != null) {
+            LinkedHashMap<K, CompletableFuture<V>> batch = full;
+            executor.execute(() -> run(batch));
+        } else if (first) {
+            CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS, executor).execute(this::dispatch);
+        }
+        return future;
+    }
+
+    /**
+     * 加载一个键并等待结果。
+     *
+     * @param key 键
+     * @return 值
+     * @throws RuntimeException 如果批量加载失败
+     * @since 1.0.1
+     */
+    public V get(K key) {
+        try {
+            return load(key).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * 不等待时间窗口结束，立即在当前线程中加载所有已收集的键。
+     *
+     * @since 1.0.1
+     */
+    public void dispatch() {
+        LinkedHashMap<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        run(batch);
+    }
+
+    private void run(LinkedHashMap<K, CompletableFuture<V>> batch) {
+        Map<K, V> results;
+        try {
+            results = batchFunction.apply(batch.keySet());
+        } catch (Throwable e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        batch.forEach((key, future) -> future.complete(results.get(key)));
+    }
+}
@@ -0,0 +1,74 @@
+package top.spco.spcobot.wiki.concurrent;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 通过 {@link ConcurrencyLimiter} 限制经过 {@code OkHttpClient} 的并发请求数。
+ * <p>
+ * HTTP 状态码为 429 或 503、带有 {@code Retry-After} 响应头，或 {@code MediaWiki-API-Error} 响应头表示限流的请求会被视为被限流，
+ * 抛出 {@link IOException}（包括超时）的请求会被视为失败，从本地缓存返回的响应不会作为样本。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+    private static final Set<String> THROTTLE_ERROR_CODES = Set.of("ratelimited", "maxlag");
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * @param limiter 使用的并发限制器
+     * @since 1.0.1
+     */
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        ConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a concurrency permit", e);
+        }
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            permit.dropped();
+            throw e;
+        }
+        if (response.networkResponse() == null) {
+            // 从本地缓存返回的响应不能反映服务端的负载
+            permit.ignore();
+        } else if (isThrottled(response)) {
+            permit.dropped();
+        } else {
+            permit.success();
+        }
+        return response;
+    }
+
+    /**
+     * 判断响应是否表示服务端正在限流。
+     *
+     * @param response 响应
+     * @return 被限流时返回 {@code true}
+     * @since 1.0.1
+     */
+    public static boolean isThrottled(Response response) {
+        if (response.code() == 429 || response.code() == 503 || response.header("Retry-After") != null) {
+            return true;
+        }
+        String apiError = response.header("MediaWiki-API-Error");
+        return apiError != null && THROTTLE_ERROR_CODES.contains(apiError);
+    }
+}
@@ -0,0 +1,329 @@
+package top.spco.spcobot.wiki.concurrent;
+
+import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.util.LogUtil;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * 自适应并发限制器。
+ * <p>
+ * 采用 AIMD（加性增、乘性减）策略：延迟保持平稳且并发接近上限时，上限加一；
+ * 延迟超过观测到的最小延迟的 {@link #getTolerance() 容忍倍数}，或请求被限流、超时时，上限按 {@link #getBackoffRatio() 回退比例} 缩小。
+ * <p>
+ * 同一个限制器实例不应同时用于外层任务和其内部发出的请求，否则持有许可的任务可能会因等待内部请求的许可而死锁。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class ConcurrencyLimiter {
+    private static final Logger LOGGER = LogUtil.getLogger();
+    /**
+     * 每收集这么多个样本后重置一次最小延迟，以便适应服务端负载的长期变化。
+     */
+    private static final int MIN_RTT_RESET_SAMPLES = 500;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final List<IntConsumer> limitListeners = new CopyOnWriteArrayList<>();
+    private final int minLimit;
+    private final int maxLimit;
+    private double backoffRatio = 0.9;
+    private double tolerance = 2.0;
+    private volatile int limit;
+    private volatile int inFlight = 0;
+    private long minRtt = Long.MAX_VALUE;
+    private int samples = 0;
+
+    /**
+     * 创建一个自适应并发限制器。
+     *
+     * @param initialLimit 初始并发上限
+     * @param minLimit     并发上限的最小值
+     * @param maxLimit     并发上限的最大值
+     * @throws IllegalArgumentException 如果参数不满足 {@code 1 <= minLimit <= initialLimit <= maxLimit}
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * 创建一个初始并发上限为 {@code 4}，范围为 {@code 1} 至 {@code 64} 的自适应并发限制器。
+     *
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter() {
+        this(4, 1, 64);
+    }
+
+    /**
+     * 设置缩小并发上限时的回退比例。
+     *
+     * @param backoffRatio 回退比例，必须位于 {@code (0, 1)} 区间
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter setBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * 设置延迟容忍倍数，延迟超过最小延迟的此倍数时视为拥塞。
+     *
+     * @param tolerance 延迟容忍倍数，必须大于 {@code 1}
+     * @return 返回自身
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter setTolerance(double tolerance) {
+        if (tolerance <= 1) {
+            throw new IllegalArgumentException("tolerance must be greater than 1");
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * 添加一个并发上限变化的监听器，可用于将当前上限上报为监控指标。
+     *
+     * @param listener 监听器，参数为新的并发上限
+     * @since 1.0.1
+     */
+    public void addLimitListener(IntConsumer listener) {
+        limitListeners.add(listener);
+    }
+
+    /**
+     * 获取一个许可，没有可用许可时阻塞直到其他许可被释放。
+     *
+     * @return 获取到的许可
+     * @throws InterruptedException 如果等待时线程被中断
+     * @since 1.0.1
+     */
+    public Permit acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                released.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return new Permit();
+    }
+
+    /**
+     * 尝试获取一个许可。
+     *
+     * @return 获取到的许可，没有可用许可时返回 {@code null}
+     * @since 1.0.1
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= limit) {
+                return null;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return new Permit();
+    }
+
+    private void release(long rtt, boolean dropped, boolean sample) {
+        int newLimit;
+        lock.lock();
+        try {
+            int oldLimit = limit;
+            if (sample) {
+                if (dropped) {
+                    newLimit = decrease(oldLimit);
+                } else {
+                    if (++samples >= MIN_RTT_RESET_SAMPLES) {
+                        samples = 0;
+                        minRtt = rtt;
+                    } else {
+                        minRtt = Math.min(minRtt, rtt);
+                    }
+                    if (rtt > minRtt * tolerance) {
+                        newLimit = decrease(oldLimit);
+                    } else if (inFlight * 2 >= oldLimit) {
+                        newLimit = Math.min(maxLimit, oldLimit + 1);
+                    } else {
+                        newLimit = oldLimit;
+                    }
+                }
+                limit = newLimit;
+            } else {
+                newLimit = oldLimit;
+            }
+            inFlight--;
+            released.signalAll();
+            if (newLimit == oldLimit) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.debug("Concurrency limit changed to {}", newLimit);
+        for (IntConsumer listener : limitListeners) {
+            listener.accept(newLimit);
+        }
+    }
+
+    private int decrease(int oldLimit) {
+        return Math.max(minLimit, (int) (oldLimit * backoffRatio));
+    }
+
+    /**
+     * 当前的并发上限。
+     *
+     * @return 当前的并发上限
+     * @since 1.0.1
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 当前正在进行中的请求数。
+     *
+     * @return 持有许可的数量
+     * @since 1.0.1
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 并发上限的最小值。
+     *
+     * @return 并发上限的最小值
+     * @since 1.0.1
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * 并发上限的最大值。
+     *
+     * @return 并发上限的最大值
+     * @since 1.0.1
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * 缩小并发上限时的回退比例。
+     *
+     * @return 回退比例，位于 {@code (0, 1)} 区间
+     * @see #setBackoffRatio(double)
+     * @since 1.0.1
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * 延迟容忍倍数，延迟超过最小延迟的此倍数时视为拥塞。
+     *
+     * @return 延迟容忍倍数，大于 {@code 1}
+     * @see #setTolerance(double)
+     * @since 1.0.1
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * 当前观测到的最小延迟。
+     *
+     * @param unit 时间单位
+     * @return 最小延迟，尚无样本时返回 {@code -1}
+     * @since 1.0.1
+     */
+    public long getMinRtt(TimeUnit unit) {
+        lock.lock();
+        try {
+            return minRtt == Long.MAX_VALUE ? -1 : unit.convert(minRtt, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 由 {@link ConcurrencyLimiter} 发放的一个许可，必须且只能释放一次。
+     *
+     * @since 1.0.1
+     */
+    public class Permit implements AutoCloseable {
+        private final long start = System.nanoTime();
+        private boolean released = false;
+
+        private Permit() {
+        }
+
+        /**
+         * 请求成功完成，以本次延迟作为样本释放许可。
+         *
+         * @since 1.0.1
+         */
+        public void success() {
+            release(true, false);
+        }
+
+        /**
+         * 请求被限流、超时或失败，释放许可并缩小并发上限。
+         *
+         * @since 1.0.1
+         */
+        public void dropped() {
+            release(true, true);
+        }
+
+        /**
+         * 释放许可，但不将本次请求作为样本。
+         *
+         * @since 1.0.1
+         */
+        public void ignore() {
+            release(false, false);
+        }
+
+        /**
+         * 尚未释放时以 {@link #ignore()} 的方式释放许可。
+         */
+        @Override
+        public void close() {
+            if (!released) {
+                ignore();
+            }
+        }
+
+        private void release(boolean sample, boolean dropped) {
+            if (released) {
+                throw new IllegalStateException("Permit has already been released");
+            }
+            released = true;
+            ConcurrencyLimiter.this.release(System.nanoTime() - start, dropped, sample);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package top.spco.spcobot.wiki.concurrent;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 合并同时进行中的相同 GET 请求：查询参数相同（不计顺序）的请求只有第一个会真正发出，
+ * 在它完成之前到达的其他请求等待并共享它的响应，不会再占用网络连接或{@link ConcurrencyLimiter 并发许可}。
+ * <p>
+ * 只有确实有请求在等待时才会把响应体完整读入内存，没有重复请求时响应体仍然按流读取。
+ * 每个请求者都会得到自己的响应体副本，可以各自读取和解析。POST 请求不会被合并。
+ * <p>
+ * POST 请求通常是写操作。在它发出时和完成后，所有进行中的请求都不再接受新的等待者，
+ * 因此写操作之后发出的请求不会共享一个在写操作完成前就已发出、可能读到旧数据的响应。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class SingleFlightInterceptor implements Interceptor {
+    private final Map<String, Flight> flights = new HashMap<>();
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            detachAll();
+            try {
+                return chain.proceed(request);
+            } finally {
+                detachAll();
+            }
+        }
+        String key = canonicalKey(request.url());
+        Flight flight;
+        boolean leader = false;
+        synchronized (flights) {
+            flight = flights.get(key);
+            if (flight == null) {
+                flight = new Flight();
+                flights.put(key, flight);
+                leader = true;
+            } else {
+                flight.followers++;
+            }
+        }
+        return leader ? lead(chain, key, flight) : follow(request, flight);
+    }
+
+    private Response lead(Chain chain, String key, Flight flight) throws IOException {
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            land(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        int followers = land(key, flight);
+        if (followers == 0) {
+            flight.result.complete(null);
+            return response;
+        }
+        try (ResponseBody body = response.body()) {
+            byte[] bytes = body == null ? new byte[0] : body.bytes();
+            MediaType contentType = body == null ? null : body.contentType();
+            flight.result.complete(new Shared(response, bytes, contentType));
+            return response.newBuilder().body(ResponseBody.create(bytes, contentType)).build();
+        } catch (IOException | RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 移除进行中的请求，此后到达的相同请求会重新发出。
+     *
+     * @return 等待共享此次响应的请求数
+     */
+    private int land(String key, Flight flight) {
+        synchronized (flights) {
+            // 在写操作后被移除的请求，其位置可能已经属于新的请求
+            flights.remove(key, flight);
+            return flight.followers;
+        }
+    }
+
+    /**
+     * 使所有进行中的请求不再接受新的等待者。已经在等待的请求仍会共享它们的响应。
+     */
+    private void detachAll() {
+        synchronized (flights) {
+            flights.clear();
+        }
+    }
+
+    private static Response follow(Request request, Flight flight) throws IOException {
+        Shared shared;
+        try {
+            shared = flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ioException ? new IOException(ioException.getMessage(), ioException) : new IOException(cause);
+        }
+        return shared.response().newBuilder()
+                .request(request)
+                .body(ResponseBody.create(shared.body(), shared.contentType()))
+                .build();
+    }
+
+    private static String canonicalKey(HttpUrl url) {
+        List<String> parameters = new ArrayList<>(url.querySize());
+        for (int i = 0; i < url.querySize(); i++) {
+            String value = url.queryParameterValue(i);
+            parameters.add(url.queryParameterName(i) + '\u0000' + (value == null ? "" : value));
+        }
+        parameters.sort(null);
+        return url.scheme() + "://" + url.host() + ':' + url.port() + url.encodedPath() + '?' + String.join("\u0001", parameters);
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Shared> result = new CompletableFuture<>();
+        private int followers = 0;
+    }
+
+    private record Shared(Response response, byte[] body, MediaType contentType) {
+    }
+}
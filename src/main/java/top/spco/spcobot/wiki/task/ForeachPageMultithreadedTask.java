@@ -15,40 +15,81 @@
  */
 package top.spco.spcobot.wiki.task;
 
-import top.spco.spcobot.wiki.NameSpace;
-import top.spco.spcobot.wiki.Page;
 import top.spco.spcobot.wiki.action.parameter.FilterRedirect;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimiter;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiConsumer;
 
 public class ForeachPageMultithreadedTask extends MultithreadedTask<ForeachPageMultithreadedTask> {
+    /**
+     * @since 1.0.1
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
     private List<String> targets = null;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
 
     public ForeachPageMultithreadedTask(BiConsumer<ForeachPageMultithreadedTask, String> task, int threadCount, int cooldown) {
         super(task, threadCount, cooldown);
     }
 
+    /**
+     * @param targets 要处理的页面标题。目标数量极多时可以使用 {@link top.spco.spcobot.wiki.collection.MappedTitleList}，
+     *                例如 {@link top.spco.spcobot.wiki.Wiki#saveAllPageTitles(java.nio.file.Path, String, FilterRedirect, top.spco.spcobot.wiki.NameSpace...)} 的返回值，
+     *                以免所有标题占用堆内存
+     */
     public ForeachPageMultithreadedTask(BiConsumer<ForeachPageMultithreadedTask, String> task, int threadCount, int cooldown, List<String> targets) {
         super(task, threadCount, cooldown);
         this.targets = targets;
     }
 
+    /**
+     * @since 1.0.1
+     */
+    public ForeachPageMultithreadedTask(BiConsumer<ForeachPageMultithreadedTask, String> task, ConcurrencyLimiter limiter, int cooldown) {
+        super(task, limiter, cooldown);
+    }
+
+    /**
+     * @since 1.0.1
+     */
+    public ForeachPageMultithreadedTask(BiConsumer<ForeachPageMultithreadedTask, String> task, ConcurrencyLimiter limiter, int cooldown, List<String> targets) {
+        super(task, limiter, cooldown);
+        this.targets = targets;
+    }
+
+    /**
+     * 设置边列举边处理时缓冲队列的容量，默认为 {@value #DEFAULT_QUEUE_CAPACITY}。
+     *
+     * @param queueCapacity 队列的容量
+     * @since 1.0.1
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be greater than 0");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * 未指定目标时，一边列举所有命名空间中的页面一边处理，内存中最多只会缓存 {@link #setQueueCapacity(int) 队列容量} 个页面标题。
+     */
     @Override
     public void run() {
         if (targets == null) {
-            ArrayList<String> pages = new ArrayList<>();
-            for (Page page : getWiki().allPages("", FilterRedirect.ALL, NameSpace.allNameSpaces())) {
-                pages.add(page.title());
-            }
-            targets = pages;
+            runStreaming(consumer -> getWiki().forEachPage("", FilterRedirect.ALL, page -> consumer.accept(page.title()), getWiki().getNameSpaceRegistry().nameSpaces()), queueCapacity);
+            return;
         }
         super.run();
     }
 
+    /**
+     * 未指定目标时任务以流式方式运行：页面在处理的同时被列举，不会预先收集，因此没有可以返回的目标列表。
+     *
+     * @return 指定的目标，未指定目标时返回空列表
+     */
     @Override
     public List<String> targets() {
-        return targets;
+        return targets == null ? List.of() : targets;
     }
 }
\ No newline at end of file
@@ -16,17 +16,22 @@
 package top.spco.spcobot.wiki.task;
 
 import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimiter;
 import top.spco.spcobot.wiki.util.LogUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * 机器人的一个多线程任务单元
@@ -37,49 +42,210 @@ import java.util.function.BiConsumer;
  */
 public abstract class MultithreadedTask<T extends MultithreadedTask<?>> extends Task<T> {
     private static final Logger LOGGER = LogUtil.getLogger();
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String END_OF_TARGETS = new String("");
     private final int threadCount;
     private final int cooldown;
+    private final ConcurrencyLimiter limiter;
     private final ExecutorService executor;
 
     public MultithreadedTask(BiConsumer<T, String> task, int threadCount, int cooldown) {
+        this(task, threadCount, cooldown, null);
+    }
+
+    /**
+     * 创建一个由自适应并发限制器决定同时处理目标数量的多线程任务，线程数为限制器的 {@link ConcurrencyLimiter#getMaxLimit() 最大上限}。
+     * <p>
+     * 处理目标时抛出异常会缩小并发上限。该限制器不应与Wiki实例的 {@link top.spco.spcobot.wiki.WikiBuilder#setConcurrencyLimiter(ConcurrencyLimiter) 并发限制器} 为同一实例。
+     *
+     * @param task     处理每个目标的函数
+     * @param limiter  自适应并发限制器
+     * @param cooldown 处理每个目标前后的冷却时间（毫秒）
+     * @since 1.0.1
+     */
+    public MultithreadedTask(BiConsumer<T, String> task, ConcurrencyLimiter limiter, int cooldown) {
+        this(task, limiter.getMaxLimit(), cooldown, limiter);
+    }
+
+    private MultithreadedTask(BiConsumer<T, String> task, int threadCount, int cooldown, ConcurrencyLimiter limiter) {
         super(task);
         this.threadCount = threadCount;
         this.cooldown = cooldown;
+        this.limiter = limiter;
         this.executor = Executors.newFixedThreadPool(threadCount);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * 使用多个线程处理所有目标。处理单个目标时抛出的异常会被记录，不会影响其他目标的处理；
+     * 所有线程结束后，如果有目标处理失败，则抛出包含第一个异常的 {@link RuntimeException}。
+     */
     @Override
     public void run() {
         List<Future<?>> futures = new ArrayList<>();
-        for (var entry : assignTargets().entrySet()) {
+        Failures failures = new Failures();
+        if (limiter == null) {
+            for (var entry : assignTargets().entrySet()) {
+                Future<?> future = executor.submit(() -> {
+                    for (String target : entry.getValue()) {
+                        try {
+                            process(target);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            LOGGER.error("线程被中断", e);
+                            return;
+                        } catch (RuntimeException e) {
+                            failures.add(target, e);
+                        }
+                    }
+                });
+                futures.add(future);
+            }
+        } else {
+            // 所有线程共享同一个游标领取目标，实际并发数由限制器的许可决定
+            List<String> targets = targets();
+            AtomicInteger cursor = new AtomicInteger(0);
+            for (int i = 0; i < threadCount; i++) {
+                Future<?> future = executor.submit(() -> {
+                    int index;
+                    while ((index = cursor.getAndIncrement()) < targets.size()) {
+                        String target = targets.get(index);
+                        try {
+                            processLimited(target);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            LOGGER.error("线程被中断", e);
+                            return;
+                        } catch (RuntimeException e) {
+                            failures.add(target, e);
+                        }
+                    }
+                });
+                futures.add(future);
+            }
+        }
+
+        awaitWorkers(futures, failures);
+        failures.throwIfAny();
+    }
+
+    /**
+     * 边生产边处理目标。
+     * <p>
+     * 生产者在当前线程中运行，通过传入的 {@code Consumer} 将目标放入有界队列；工作线程同时从队列中取出目标处理。
+     * 队列已满时生产者会被阻塞，因此无论目标总数有多少，内存中最多只会保留 {@code queueCapacity} 个尚未处理的目标。
+     * 处理单个目标时抛出的异常会被记录，不会影响其他目标的处理；所有线程结束后，如果有目标处理失败，
+     * 则抛出包含第一个异常的 {@link RuntimeException}。
+     *
+     * @param producer      目标的生产者
+     * @param queueCapacity 队列的容量
+     * @since 1.0.1
+     */
+    protected void runStreaming(Consumer<Consumer<String>> producer, int queueCapacity) {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(queueCapacity);
+        List<Future<?>> futures = new ArrayList<>();
+        Failures failures = new Failures();
+        for (int i = 0; i < threadCount; i++) {
             Future<?> future = executor.submit(() -> {
-                entry.getValue().forEach((s -> {
+                try {
+                    String target;
+                    while ((target = queue.take()) != END_OF_TARGETS) {
+                        try {
+                            if (limiter == null) {
+                                process(target);
+                            } else {
+                                processLimited(target);
+                            }
+                        } catch (RuntimeException e) {
+                            failures.add(target, e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.error("线程被中断", e);
+                }
+            });
+            futures.add(future);
+        }
+        try {
+            producer.accept(target -> {
+                try {
+                    queue.put(target);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while producing targets", e);
+                }
+            });
+        } finally {
+            // 每个工作线程取到一个结束标记后退出
+            for (int i = 0; i < threadCount; i++) {
+                if (!queue.offer(END_OF_TARGETS)) {
                     try {
-                        cooldown();
-                        count();
-                        task.accept((T) this, s);
-                        cooldown();
+                        queue.put(END_OF_TARGETS);
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
-                        LOGGER.error("线程被中断", e);
+                        futures.forEach(future -> future.cancel(true));
+                        break;
                     }
-                }));
-            });
-            futures.add(future);
+                }
+            }
+            awaitWorkers(futures, failures);
         }
+        failures.throwIfAny();
+    }
 
-        // 关闭线程池，并等待所有任务完成
+    /**
+     * 关闭线程池并等待所有工作线程结束，即使其中一些线程失败。
+     */
+    private void awaitWorkers(List<Future<?>> futures, Failures failures) {
         executor.shutdown();
-        try {
-            for (Future<?> future : futures) {
+        for (Future<?> future : futures) {
+            try {
                 future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("任务执行异常", e.getCause());
+                failures.add(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                failures.add(e);
+                break;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            LOGGER.error("任务执行异常", e);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void process(String target) throws InterruptedException {
+        cooldown();
+        count();
+        task.accept((T) this, target);
+        cooldown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void processLimited(String target) throws InterruptedException {
+        cooldown();
+        ConcurrencyLimiter.Permit permit = limiter.acquire();
+        count();
+        try {
+            task.accept((T) this, target);
+        } catch (RuntimeException e) {
+            permit.dropped();
+            throw e;
+        }
+        permit.success();
+        cooldown();
+    }
+
+    /**
+     * 获取此任务使用的自适应并发限制器。
+     *
+     * @return 并发限制器，使用固定线程数时返回 {@code null}
+     * @since 1.0.1
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
+
     private void cooldown() throws InterruptedException {
         if (cooldown > 0) {
             Thread.sleep(cooldown);
@@ -101,4 +267,36 @@ public abstract class MultithreadedTask<T extends MultithreadedTask<?>> extends
         }
         return map;
     }
-}
\ No newline at end of file
+
+    /**
+     * 一次运行中处理失败的目标。只保留前 {@value #MAX_KEPT} 个异常，其余只计数。
+     */
+    private static final class Failures {
+        private static final int MAX_KEPT = 16;
+        private final List<Throwable> kept = new ArrayList<>();
+        private int count = 0;
+
+        private void add(String target, RuntimeException e) {
+            LOGGER.error("处理目标时发生异常：{}", target, e);
+            add(e);
+        }
+
+        private synchronized void add(Throwable e) {
+            count++;
+            if (kept.size() < MAX_KEPT) {
+                kept.add(e);
+            }
+        }
+
+        private synchronized void throwIfAny() {
+            if (count == 0) {
+                return;
+            }
+            RuntimeException failure = new RuntimeException("Failed to process " + count + " target(s): " + kept.get(0).getMessage(), kept.get(0));
+            for (int i = 1; i < kept.size(); i++) {
+                failure.addSuppressed(kept.get(i));
+            }
+            throw failure;
+        }
+    }
+}
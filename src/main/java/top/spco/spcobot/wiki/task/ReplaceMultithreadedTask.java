@@ -16,36 +16,58 @@
 package top.spco.spcobot.wiki.task;
 
 import org.apache.logging.log4j.Logger;
+import top.spco.spcobot.wiki.concurrent.ConcurrencyLimiter;
+import top.spco.spcobot.wiki.text.ReplacementEngine;
 import top.spco.spcobot.wiki.util.LogUtil;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 /**
  * 文本多线程替换任务。
+ * <p>
+ * 任务以流水线的方式运行，各阶段之间通过有界队列连接，可以分别调整大小：
+ * <ol>
+ *     <li>获取：{@link #setFetchThreads(int) 若干线程} 以 {@link #setFetchBatchSize(int) 批量} 的方式获取页面内容；</li>
+ *     <li>替换：在 {@link #setTransformThreads(int) 与处理器核心数相同} 的线程池中对页面内容执行替换；</li>
+ *     <li>编辑：由构造时指定的线程数或并发限制器决定并发数，每次编辑前后都会冷却，因此编辑的速率不会被获取页面拖慢。</li>
+ * </ol>
+ * <p>
+ * 所有替换规则在任务开始时被编译为一个 {@link ReplacementEngine}，每个页面只扫描一遍。
+ * 起始位置相同的匹配按添加顺序优先，替换后的文本不会再被其他规则匹配。
  *
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class ReplaceMultithreadedTask extends MultithreadedTask<ReplaceMultithreadedTask> {
     private static final Logger LOGGER = LogUtil.getLogger();
-    private final Map<String, String> replacements = new HashMap<>();
+    private static final PageText END_OF_PAGES = new PageText(null, null);
+    private final ReplacementEngine.Builder replacements = ReplacementEngine.builder();
+    private volatile ReplacementEngine engine;
     private final AtomicInteger operateCounter = new AtomicInteger(0);
     private final AtomicInteger successCounter = new AtomicInteger(0);
+    private final AtomicInteger fetchCounter = new AtomicInteger(0);
+    /**
+     * 已完成替换、等待编辑的页面内容。
+     */
+    private final ConcurrentHashMap<String, String> pendingEdits = new ConcurrentHashMap<>();
     private final BiFunction<ReplaceMultithreadedTask, String, String> reason;
     private final List<String> targets;
+    private int fetchThreads = 2;
+    private int fetchBatchSize = 50;
+    private int transformThreads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 100;
 
     public void addReplacement(String target, String replacement, boolean isRegex) {
         if (isRegex) {
-            replacements.put(target, replacement);
+            replacements.regex(target, replacement);
         } else {
-            replacements.put(Pattern.quote(target), Matcher.quoteReplacement(replacement));
+            replacements.literal(target, replacement);
         }
     }
 
@@ -53,36 +75,191 @@ public class ReplaceMultithreadedTask extends MultithreadedTask<ReplaceMultithre
         addReplacement(target, replacement, false);
     }
 
+    /**
+     * @param targetPages 要替换的页面
+     * @param threadCount 编辑阶段的线程数
+     * @param cooldown    每次编辑前后的冷却时间（毫秒）
+     * @param reason      生成编辑摘要的函数
+     * @since 0.1.0
+     */
     public ReplaceMultithreadedTask(List<String> targetPages, int threadCount, int cooldown, BiFunction<ReplaceMultithreadedTask, String, String> reason) {
-        super((task, page) -> {
-            LOGGER.info("{}/{}", task.count(), task.targets().size());
-            String pageText;
-            pageText = task.getWiki().getPageText(page);
-            boolean find = false;
-            for (var replacement : task.replacements.entrySet()) {
-                Pattern pattern = Pattern.compile(replacement.getKey());
-                Matcher matcher = pattern.matcher(pageText);
-                if (matcher.find()) {
-                    find = true;
-                    break;
-                }
-            }
-            if (find) {
-                String replaced = pageText;
-                for (var replacement : task.replacements.entrySet()) {
-                    replaced = replaced.replaceAll(replacement.getKey(), replacement.getValue());
+        super(ReplaceMultithreadedTask::edit, threadCount, cooldown);
+        this.reason = reason;
+        this.targets = targetPages;
+    }
+
+    /**
+     * 创建一个由自适应并发限制器决定编辑阶段并发数的文本替换任务。
+     *
+     * @param targetPages 要替换的页面
+     * @param limiter     自适应并发限制器
+     * @param cooldown    每次编辑前后的冷却时间（毫秒）
+     * @param reason      生成编辑摘要的函数
+     * @since 1.0.1
+     */
+    public ReplaceMultithreadedTask(List<String> targetPages, ConcurrencyLimiter limiter, int cooldown, BiFunction<ReplaceMultithreadedTask, String, String> reason) {
+        super(ReplaceMultithreadedTask::edit, limiter, cooldown);
+        this.reason = reason;
+        this.targets = targetPages;
+    }
+
+    /**
+     * 设置获取阶段的线程数，默认为 {@code 2}。
+     *
+     * @param fetchThreads 获取阶段的线程数
+     * @since 1.0.1
+     */
+    public void setFetchThreads(int fetchThreads) {
+        if (fetchThreads < 1) {
+            throw new IllegalArgumentException("fetchThreads must be greater than 0");
+        }
+        this.fetchThreads = fetchThreads;
+    }
+
+    /**
+     * 设置获取阶段每次请求获取的页面数量，默认为 {@code 50}，不能超过 {@link top.spco.spcobot.wiki.Wiki#apiLimit()}。
+     *
+     * @param fetchBatchSize 每次请求获取的页面数量
+     * @since 1.0.1
+     */
+    public void setFetchBatchSize(int fetchBatchSize) {
+        if (fetchBatchSize < 1) {
+            throw new IllegalArgumentException("fetchBatchSize must be greater than 0");
+        }
+        this.fetchBatchSize = fetchBatchSize;
+    }
+
+    /**
+     * 设置替换阶段的线程数，默认为处理器核心数。
+     *
+     * @param transformThreads 替换阶段的线程数
+     * @since 1.0.1
+     */
+    public void setTransformThreads(int transformThreads) {
+        if (transformThreads < 1) {
+            throw new IllegalArgumentException("transformThreads must be greater than 0");
+        }
+        this.transformThreads = transformThreads;
+    }
+
+    /**
+     * 设置各阶段之间队列的容量，默认为 {@code 100}。
+     *
+     * @param queueCapacity 队列的容量
+     * @since 1.0.1
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be greater than 0");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public void run() {
+        engine = replacements.build();
+        runStreaming(this::fetchAndTransform, queueCapacity);
+    }
+
+    /**
+     * 运行获取和替换阶段，并将需要编辑的页面交给编辑阶段。
+     */
+    private void fetchAndTransform(Consumer<String> editQueue) {
+        BlockingQueue<PageText> transformQueue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService fetchExecutor = Executors.newFixedThreadPool(fetchThreads);
+        ExecutorService transformExecutor = Executors.newFixedThreadPool(transformThreads);
+        AtomicInteger cursor = new AtomicInteger(0);
+        List<Future<?>> fetchFutures = new ArrayList<>();
+        List<Future<?>> transformFutures = new ArrayList<>();
+        for (int i = 0; i < fetchThreads; i++) {
+            fetchFutures.add(fetchExecutor.submit(() -> {
+                int start;
+                while ((start = cursor.getAndAdd(fetchBatchSize)) < targets.size()) {
+                    List<String> batch = targets.subList(start, Math.min(start + fetchBatchSize, targets.size()));
+                    try {
+                        for (var entry : getWiki().getPageTexts(batch, fetchBatchSize).entrySet()) {
+                            transformQueue.put(new PageText(entry.getKey(), entry.getValue()));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOGGER.error("线程被中断", e);
+                        return;
+                    } catch (RuntimeException e) {
+                        LOGGER.error("获取页面内容失败：{}", batch, e);
+                    }
+                    LOGGER.info("{}/{}", fetchCounter.addAndGet(batch.size()), targets.size());
                 }
-                task.operateCounter.incrementAndGet();
-                boolean success = task.getWiki().edit(page, replaced, task.reason.apply(task, page), false, false);
-                if (success) {
-                    task.successCounter.incrementAndGet();
-                } else {
-                    LOGGER.warn("替换失败：{}", page);
+            }));
+        }
+        for (int i = 0; i < transformThreads; i++) {
+            transformFutures.add(transformExecutor.submit(() -> {
+                try {
+                    PageText page;
+                    while ((page = transformQueue.take()) != END_OF_PAGES) {
+                        try {
+                            String replaced = replace(page.text());
+                            if (replaced != null) {
+                                pendingEdits.put(page.title(), replaced);
+                                editQueue.accept(page.title());
+                            }
+                        } catch (RuntimeException e) {
+                            LOGGER.error("替换页面内容失败：{}", page.title(), e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.error("线程被中断", e);
                 }
+            }));
+        }
+        try {
+            awaitStage(fetchExecutor, fetchFutures);
+            for (int i = 0; i < transformThreads; i++) {
+                transformQueue.put(END_OF_PAGES);
             }
-        }, threadCount, cooldown);
-        this.reason = reason;
-        this.targets = targetPages;
+            awaitStage(transformExecutor, transformFutures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fetchExecutor.shutdownNow();
+            transformExecutor.shutdownNow();
+            throw new RuntimeException("Interrupted while replacing pages", e);
+        }
+    }
+
+    private static void awaitStage(ExecutorService executor, List<Future<?>> futures) throws InterruptedException {
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("任务执行异常", e);
+            }
+        }
+    }
+
+    /**
+     * 对页面内容执行所有替换。
+     *
+     * @param pageText 页面内容
+     * @return 替换后的页面内容，没有任何替换目标匹配时返回 {@code null}
+     */
+    private String replace(String pageText) {
+        String replaced = engine.replace(pageText);
+        return replaced == pageText ? null : replaced;
+    }
+
+    private static void edit(ReplaceMultithreadedTask task, String page) {
+        String replaced = task.pendingEdits.remove(page);
+        if (replaced == null) {
+            return;
+        }
+        task.operateCounter.incrementAndGet();
+        boolean success = task.getWiki().edit(page, replaced, task.reason.apply(task, page), false, false);
+        if (success) {
+            task.successCounter.incrementAndGet();
+        } else {
+            LOGGER.warn("替换失败：{}", page);
+        }
     }
 
     public int getOperateCount() {
@@ -97,4 +274,7 @@ public class ReplaceMultithreadedTask extends MultithreadedTask<ReplaceMultithre
     public List<String> targets() {
         return targets;
     }
-}
\ No newline at end of file
+
+    private record PageText(String title, String text) {
+    }
+}
@@ -0,0 +1,323 @@
+package top.spco.spcobot.wiki.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * 编译后的 Aho-Corasick 多模式匹配自动机，可在一次线性扫描中同时查找多个字面量。
+ * <p>
+ * {@link #find(CharSequence, int)} 返回最左最长的匹配：起始位置最靠前的匹配优先，起始位置相同时较长的匹配优先；
+ * {@link #findFirst(CharSequence, int)} 则在起始位置相同时让先添加的模式优先。
+ * 对于需要逐字符处理的场景（例如处理 {@link java.io.Reader} 中的文本），可以使用 {@link #step(int, char)} 等方法直接驱动自动机。
+ * <p>
+ * 自动机构建后不可变，可以被多个线程同时使用。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class AhoCorasick {
+    /**
+     * 自动机的初始状态。
+     *
+     * @since 1.0.1
+     */
+    public static final int ROOT = 0;
+    private final int patternCount;
+    private final boolean ignoreCase;
+    private final char[][] keys;
+    private final int[][] children;
+    private final int[] fail;
+    private final int[] depth;
+    private final int[] matchLength;
+    private final int[] matchPattern;
+    /**
+     * 以状态结尾的模式，没有时为 {@code -1}。
+     */
+    private final int[] terminal;
+    /**
+     * 失败指针链上下一个以模式结尾的状态，没有时为 {@code -1}。
+     */
+    private final int[] output;
+
+    private AhoCorasick(List<String> patterns, boolean ignoreCase) {
+        this.patternCount = patterns.size();
+        this.ignoreCase = ignoreCase;
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> terminals = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        depths.add(0);
+        terminals.add(-1);
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be null or empty");
+            }
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = fold(pattern.charAt(i));
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    depths.add(depths.get(node) + 1);
+                    terminals.add(-1);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            // 重复的模式以先添加的为准
+            if (terminals.get(node) < 0) {
+                terminals.set(node, p);
+            }
+        }
+
+        int size = trie.size();
+        keys = new char[size][];
+        children = new int[size][];
+        fail = new int[size];
+        depth = new int[size];
+        matchLength = new int[size];
+        matchPattern = new int[size];
+        terminal = new int[size];
+        output = new int[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            keys[node] = new char[edges.size()];
+            children[node] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                keys[node][i] = edge.getKey();
+                children[node][i] = edge.getValue();
+                i++;
+            }
+            depth[node] = depths.get(node);
+            terminal[node] = terminals.get(node);
+        }
+
+        // 按广度优先的顺序计算失败指针，以及每个状态上最长的匹配
+        Arrays.fill(matchPattern, -1);
+        Arrays.fill(output, -1);
+        Queue<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (terminals.get(node) >= 0) {
+                matchLength[node] = depth[node];
+                matchPattern[node] = terminals.get(node);
+            } else if (node != ROOT) {
+                matchLength[node] = matchLength[fail[node]];
+                matchPattern[node] = matchPattern[fail[node]];
+                output[node] = terminal[fail[node]] >= 0 ? fail[node] : output[fail[node]];
+            }
+            for (int i = 0; i < keys[node].length; i++) {
+                int child = children[node][i];
+                fail[child] = node == ROOT ? ROOT : step(fail[node], keys[node][i]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 编译一个区分大小写的自动机。
+     *
+     * @param patterns 要查找的字面量，不能为 {@code null} 或空字符串
+     * @return 编译后的自动机
+     * @throws IllegalArgumentException 如果存在 {@code null} 或空字符串
+     * @since 1.0.1
+     */
+    public static AhoCorasick compile(List<String> patterns) {
+        return compile(patterns, false);
+    }
+
+    /**
+     * 编译一个自动机。
+     *
+     * @param patterns   要查找的字面量，不能为 {@code null} 或空字符串
+     * @param ignoreCase 是否忽略大小写
+     * @return 编译后的自动机
+     * @throws IllegalArgumentException 如果存在 {@code null} 或空字符串
+     * @since 1.0.1
+     */
+    public static AhoCorasick compile(List<String> patterns, boolean ignoreCase) {
+        return new AhoCorasick(patterns, ignoreCase);
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    private int child(int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index >= 0 ? children[node][index] : -1;
+    }
+
+    /**
+     * 从指定状态读入一个字符，返回转移后的状态。
+     *
+     * @param state 当前状态
+     * @param c     读入的字符
+     * @return 转移后的状态
+     * @since 1.0.1
+     */
+    public int step(int state, char c) {
+        char folded = fold(c);
+        int next;
+        while ((next = child(state, folded)) < 0 && state != ROOT) {
+            state = fail[state];
+        }
+        return next < 0 ? ROOT : next;
+    }
+
+    /**
+     * 以指定状态结尾的最长匹配的长度。
+     *
+     * @param state 状态
+     * @return 匹配的长度，没有匹配时返回 {@code 0}
+     * @since 1.0.1
+     */
+    public int matchLength(int state) {
+        return matchLength[state];
+    }
+
+    /**
+     * 以指定状态结尾的最长匹配的模式序号。
+     *
+     * @param state 状态
+     * @return 模式在编译时的序号，没有匹配时返回 {@code -1}
+     * @since 1.0.1
+     */
+    public int matchPattern(int state) {
+        return matchPattern[state];
+    }
+
+    /**
+     * 状态对应的已读入文本中，仍可能成为某个模式前缀的后缀长度。之后出现的匹配的起始位置不会早于这段后缀的起始位置。
+     *
+     * @param state 状态
+     * @return 后缀的长度
+     * @since 1.0.1
+     */
+    public int depth(int state) {
+        return depth[state];
+    }
+
+    /**
+     * 自动机中模式的数量。
+     *
+     * @return 模式的数量
+     * @since 1.0.1
+     */
+    public int size() {
+        return patternCount;
+    }
+
+    /**
+     * @return 是否忽略大小写
+     * @since 1.0.1
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * 从指定位置开始查找最左最长的匹配。
+     *
+     * @param text 要查找的文本
+     * @param from 开始查找的位置
+     * @return 找到的匹配，没有匹配时返回 {@code null}
+     * @since 1.0.1
+     */
+    public Match find(CharSequence text, int from) {
+        int state = ROOT;
+        int bestStart = -1;
+        int bestEnd = -1;
+        int bestPattern = -1;
+        for (int i = from; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (bestStart >= 0 && i + 1 - depth[state] > bestStart) {
+                // 之后的匹配不可能比已找到的匹配更靠前或更长
+                break;
+            }
+            int length = matchLength[state];
+            if (length > 0) {
+                int start = i + 1 - length;
+                if (bestStart < 0 || start <= bestStart) {
+                    bestStart = start;
+                    bestEnd = i + 1;
+                    bestPattern = matchPattern[state];
+                }
+            }
+        }
+        return bestStart < 0 ? null : new Match(bestStart, bestEnd, bestPattern);
+    }
+
+    /**
+     * 从指定位置开始查找最左的匹配，起始位置相同时先添加的模式优先，而不论长短。
+     *
+     * @param text 要查找的文本
+     * @param from 开始查找的位置
+     * @return 找到的匹配，没有匹配时返回 {@code null}
+     * @since 1.0.1
+     */
+    public Match findFirst(CharSequence text, int from) {
+        int state = ROOT;
+        int bestStart = -1;
+        int bestEnd = -1;
+        int bestPattern = -1;
+        for (int i = from; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (bestStart >= 0 && i + 1 - depth[state] > bestStart) {
+                // 之后的匹配不可能比已找到的匹配更靠前
+                break;
+            }
+            // 沿失败指针链由长到短检查以此处结尾的每个模式，起始位置随之后移
+            for (int node = terminal[state] >= 0 ? state : output[state]; node >= 0; node = output[node]) {
+                int start = i + 1 - depth[node];
+                if (bestStart >= 0 && start > bestStart) {
+                    break;
+                }
+                if (bestStart < 0 || start < bestStart || terminal[node] < bestPattern) {
+                    bestStart = start;
+                    bestEnd = i + 1;
+                    bestPattern = terminal[node];
+                }
+            }
+        }
+        return bestStart < 0 ? null : new Match(bestStart, bestEnd, bestPattern);
+    }
+
+    /**
+     * 文本中是否包含任意一个模式。
+     *
+     * @param text 要查找的文本
+     * @return 包含任意一个模式时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 一次匹配。
+     *
+     * @param start   匹配的起始位置（包含）
+     * @param end     匹配的结束位置（不包含）
+     * @param pattern 匹配的模式在编译时的序号
+     * @since 1.0.1
+     */
+    public record Match(int start, int end, int pattern) {
+    }
+}
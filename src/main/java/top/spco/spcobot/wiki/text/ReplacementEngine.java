@@ -0,0 +1,418 @@
+package top.spco.spcobot.wiki.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 预编译的多模式替换引擎。
+ * <p>
+ * 字面量替换被编译为一个 {@link AhoCorasick} 自动机，正则表达式替换被合并为一个交替的 {@link Pattern}，
+ * 替换时只从左到右扫描一遍文本，并写入同一个输出缓冲区。使用了 {@code (?x)} 等注释模式标志的正则表达式中，
+ * {@code #} 注释会延伸到合并后的表达式中，因此这些规则被单独编译，与合并的表达式一起参与同一遍扫描。
+ * <p>
+ * 所有替换规则在同一遍扫描中生效：起始位置最靠前的匹配优先，起始位置相同时先添加的规则优先（不论匹配的长短），
+ * 替换后的文本不会再被其他规则匹配。这与依次对整个文本执行每一条 {@link String#replaceAll(String, String)} 不同。
+ * <p>
+ * 正则表达式的替换字符串与 {@link Matcher#appendReplacement(StringBuilder, String)} 的语法相同，
+ * 不同正则表达式中的命名捕获组不能重名。
+ * <p>
+ * 引擎构建后不可变，可以被多个线程同时使用。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class ReplacementEngine {
+    private final AhoCorasick literals;
+    private final String[] literalReplacements;
+    private final int[] literalPriorities;
+    /**
+     * 可能启用注释模式的内嵌标志，例如 {@code (?x)}、{@code (?ix:...)}。
+     */
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[idmsuxU-]*x");
+    /**
+     * 合并的正则表达式在前，之后是需要单独编译的正则表达式。
+     */
+    private final Pattern[] regexes;
+    private final int[] regexUnits;
+    private final int[] regexGroups;
+    private final Template[] regexReplacements;
+    private final int[] regexPriorities;
+
+    private ReplacementEngine(Builder builder) {
+        List<String> literalTargets = new ArrayList<>();
+        List<String> literalValues = new ArrayList<>();
+        List<Integer> literalOrder = new ArrayList<>();
+        List<Rule> regexRules = new ArrayList<>();
+        List<Integer> regexOrder = new ArrayList<>();
+        for (int i = 0; i < builder.rules.size(); i++) {
+            Rule rule = builder.rules.get(i);
+            if (rule.regex()) {
+                regexRules.add(rule);
+                regexOrder.add(i);
+            } else {
+                literalTargets.add(rule.target());
+                literalValues.add(rule.replacement());
+                literalOrder.add(i);
+            }
+        }
+        this.literals = literalTargets.isEmpty() ? null : AhoCorasick.compile(literalTargets);
+        this.literalReplacements = literalValues.toArray(String[]::new);
+        this.literalPriorities = literalOrder.stream().mapToInt(Integer::intValue).toArray();
+
+        // 每个合并的正则表达式外包一层捕获组，用于判断匹配的是哪一条规则；内部的捕获组编号随之偏移。
+        // 单独编译的正则表达式以第 0 组表示整个匹配
+        int count = regexRules.size();
+        this.regexUnits = new int[count];
+        this.regexGroups = new int[count];
+        this.regexPriorities = new int[count];
+        this.regexReplacements = new Template[count];
+        int[] groupCounts = new int[count];
+        List<Pattern> patterns = new ArrayList<>();
+        List<Integer> separate = new ArrayList<>();
+        StringBuilder combined = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < count; i++) {
+            Rule rule = regexRules.get(i);
+            groupCounts[i] = Pattern.compile(rule.target()).matcher("").groupCount();
+            regexPriorities[i] = regexOrder.get(i);
+            if (COMMENTS_FLAG.matcher(rule.target()).find()) {
+                separate.add(i);
+                continue;
+            }
+            regexGroups[i] = group;
+            if (!combined.isEmpty()) {
+                combined.append('|');
+            }
+            combined.append('(').append(shiftBackReferences(rule.target(), group, groupCounts[i])).append(')');
+            group += groupCounts[i] + 1;
+        }
+        if (!combined.isEmpty()) {
+            try {
+                patterns.add(Pattern.compile(combined.toString()));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Failed to combine regular expressions: " + e.getMessage(), e);
+            }
+        }
+        for (int i : separate) {
+            regexUnits[i] = patterns.size();
+            regexGroups[i] = 0;
+            patterns.add(Pattern.compile(regexRules.get(i).target()));
+        }
+        this.regexes = patterns.toArray(Pattern[]::new);
+        for (int i = 0; i < count; i++) {
+            regexReplacements[i] = Template.parse(regexRules.get(i).replacement(), regexGroups[i], groupCounts[i], regexes[regexUnits[i]].namedGroups());
+        }
+    }
+
+    /**
+     * 创建一个替换引擎的构建器。
+     *
+     * @return 构建器
+     * @since 1.0.1
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 将正则表达式中的数字反向引用偏移 {@code offset}，并用非捕获组包裹，避免与后面的数字连成更大的编号。
+     */
+    private static String shiftBackReferences(String regex, int offset, int groupCount) {
+        StringBuilder result = new StringBuilder(regex.length() + 8);
+        boolean quoted = false;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (quoted) {
+                if (c == '\\' && i + 1 < regex.length() && regex.charAt(i + 1) == 'E') {
+                    quoted = false;
+                    result.append("\\E");
+                    i++;
+                } else {
+                    result.append(c);
+                }
+                continue;
+            }
+            if (c == '\\' && i + 1 < regex.length()) {
+                char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    quoted = true;
+                } else if (classDepth == 0 && next >= '1' && next <= '9') {
+                    int number = next - '0';
+                    int j = i + 2;
+                    while (j < regex.length() && Character.isDigit(regex.charAt(j))
+                            && number * 10 + (regex.charAt(j) - '0') <= groupCount) {
+                        number = number * 10 + (regex.charAt(j) - '0');
+                        j++;
+                    }
+                    result.append("(?:\\").append(number + offset).append(')');
+                    i = j - 1;
+                    continue;
+                }
+                result.append(c).append(next);
+                i++;
+                continue;
+            }
+            if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * 文本中是否有任意一条规则匹配。
+     *
+     * @param text 文本
+     * @return 有规则匹配时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean find(CharSequence text) {
+        if (literals != null && literals.containsAny(text)) {
+            return true;
+        }
+        for (Pattern regex : regexes) {
+            if (regex.matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 对文本执行所有替换。
+     *
+     * @param text 文本
+     * @return 替换后的文本，没有任何规则匹配时返回 {@code text} 本身
+     * @since 1.0.1
+     */
+    public String replace(String text) {
+        StringBuilder out = null;
+        int length = text.length();
+        int last = 0;
+        AhoCorasick.Match literal = literals == null ? null : literals.findFirst(text, 0);
+        Matcher[] matchers = new Matcher[regexes.length];
+        // 每个正则表达式当前匹配的规则，没有匹配时为 -1
+        int[] matched = new int[regexes.length];
+        for (int unit = 0; unit < regexes.length; unit++) {
+            matchers[unit] = regexes[unit].matcher(text);
+            matched[unit] = matchers[unit].find() ? matchedRule(unit, matchers[unit]) : -1;
+        }
+        while (true) {
+            int unit = -1;
+            for (int u = 0; u < matchers.length; u++) {
+                if (matched[u] >= 0 && (unit < 0 || matchers[u].start() < matchers[unit].start()
+                        || (matchers[u].start() == matchers[unit].start() && regexPriorities[matched[u]] < regexPriorities[matched[unit]]))) {
+                    unit = u;
+                }
+            }
+            if (literal == null && unit < 0) {
+                break;
+            }
+            Matcher matcher = unit < 0 ? null : matchers[unit];
+            boolean useRegex = unit >= 0 && (literal == null
+                    || matcher.start() < literal.start()
+                    || (matcher.start() == literal.start() && regexPriorities[matched[unit]] < literalPriorities[literal.pattern()]));
+            int start = useRegex ? matcher.start() : literal.start();
+            int end = useRegex ? matcher.end() : literal.end();
+            if (out == null) {
+                out = new StringBuilder(length + 16);
+            }
+            out.append(text, last, start);
+            if (useRegex) {
+                regexReplacements[matched[unit]].appendTo(out, matcher, text);
+            } else {
+                out.append(literalReplacements[literal.pattern()]);
+            }
+            last = end;
+            // 空匹配之后从下一个字符开始查找，避免在同一位置重复匹配
+            int next = start == end ? end + 1 : end;
+            if (next > length) {
+                break;
+            }
+            if (literal != null && literal.start() < next) {
+                literal = literals.findFirst(text, next);
+            }
+            for (int u = 0; u < matchers.length; u++) {
+                if (matched[u] >= 0 && matchers[u].start() < next) {
+                    matched[u] = matchers[u].find(next) ? matchedRule(u, matchers[u]) : -1;
+                }
+            }
+        }
+        if (out == null) {
+            return text;
+        }
+        out.append(text, last, length);
+        return out.toString();
+    }
+
+    private int matchedRule(int unit, Matcher matcher) {
+        for (int i = 0; i < regexGroups.length; i++) {
+            if (regexUnits[i] == unit && matcher.start(regexGroups[i]) >= 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No alternative matched");
+    }
+
+    /**
+     * 替换规则的数量。
+     *
+     * @return 替换规则的数量
+     * @since 1.0.1
+     */
+    public int size() {
+        return literalReplacements.length + regexReplacements.length;
+    }
+
+    /**
+     * @return 没有任何替换规则时返回 {@code true}
+     * @since 1.0.1
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private record Rule(String target, String replacement, boolean regex) {
+    }
+
+    /**
+     * 预先解析的替换字符串。{@code groups[i] < 0} 时该段为字面量 {@code literals[i]}，否则为对应编号的捕获组。
+     */
+    private record Template(String[] literals, int[] groups) {
+        static Template parse(String replacement, int offset, int groupCount, Map<String, Integer> namedGroups) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> groups = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < replacement.length(); i++) {
+                char c = replacement.charAt(i);
+                if (c == '\\') {
+                    if (++i >= replacement.length()) {
+                        throw new IllegalArgumentException("character to be escaped is missing");
+                    }
+                    literal.append(replacement.charAt(i));
+                } else if (c == '$') {
+                    if (++i >= replacement.length()) {
+                        throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                    }
+                    int group;
+                    if (replacement.charAt(i) == '{') {
+                        int close = replacement.indexOf('}', i);
+                        if (close < 0) {
+                            throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+                        }
+                        String name = replacement.substring(i + 1, close);
+                        Integer index = namedGroups.get(name);
+                        if (index == null) {
+                            throw new IllegalArgumentException("No group with name {" + name + "}");
+                        }
+                        group = index;
+                        i = close;
+                    } else {
+                        int number = replacement.charAt(i) - '0';
+                        if (number < 0 || number > 9) {
+                            throw new IllegalArgumentException("Illegal group reference");
+                        }
+                        while (i + 1 < replacement.length() && Character.isDigit(replacement.charAt(i + 1))
+                                && number * 10 + (replacement.charAt(i + 1) - '0') <= groupCount) {
+                            number = number * 10 + (replacement.charAt(++i) - '0');
+                        }
+                        if (number > groupCount) {
+                            throw new IndexOutOfBoundsException("No group " + number);
+                        }
+                        group = offset + number;
+                    }
+                    if (!literal.isEmpty()) {
+                        literals.add(literal.toString());
+                        groups.add(-1);
+                        literal.setLength(0);
+                    }
+                    literals.add(null);
+                    groups.add(group);
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (!literal.isEmpty()) {
+                literals.add(literal.toString());
+                groups.add(-1);
+            }
+            return new Template(literals.toArray(String[]::new), groups.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        void appendTo(StringBuilder out, Matcher matcher, String text) {
+            for (int i = 0; i < groups.length; i++) {
+                if (groups[i] < 0) {
+                    out.append(literals[i]);
+                } else {
+                    int start = matcher.start(groups[i]);
+                    if (start >= 0) {
+                        out.append(text, start, matcher.end(groups[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link ReplacementEngine} 的构建器，规则的添加顺序即为起始位置相同时的优先顺序。
+     *
+     * @since 1.0.1
+     */
+    public static final class Builder {
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 添加一条字面量替换规则。
+         *
+         * @param target      要替换的文本，不能为空字符串
+         * @param replacement 替换为的文本
+         * @return 返回自身
+         * @since 1.0.1
+         */
+        public Builder literal(String target, String replacement) {
+            if (target.isEmpty()) {
+                throw new IllegalArgumentException("target must not be empty");
+            }
+            rules.add(new Rule(target, replacement, false));
+            return this;
+        }
+
+        /**
+         * 添加一条正则表达式替换规则。
+         *
+         * @param regex       正则表达式
+         * @param replacement 替换字符串，可以使用 {@code $n} 和 {@code ${name}} 引用捕获组
+         * @return 返回自身
+         * @throws PatternSyntaxException 如果正则表达式的语法有误
+         * @since 1.0.1
+         */
+        public Builder regex(String regex, String replacement) {
+            Pattern.compile(regex);
+            rules.add(new Rule(regex, replacement, true));
+            return this;
+        }
+
+        /**
+         * 编译所有规则。
+         *
+         * @return 编译后的替换引擎
+         * @throws IllegalArgumentException 如果正则表达式无法合并或替换字符串的语法有误
+         * @since 1.0.1
+         */
+        public ReplacementEngine build() {
+            return new ReplacementEngine(this);
+        }
+    }
+}
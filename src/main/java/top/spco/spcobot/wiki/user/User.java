@@ -7,12 +7,15 @@ import top.spco.spcobot.wiki.Wiki;
 import top.spco.spcobot.wiki.WikiBase;
 import top.spco.spcobot.wiki.action.parameter.UserProperty;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class User extends WikiBase implements UserAction {
@@ -42,6 +45,14 @@ public class User extends WikiBase implements UserAction {
         return properties.get(key);
     }
 
+    /**
+     * @return 已获取的所有属性，不可修改
+     * @since 1.0.1
+     */
+    public Map<UserProperty, JsonElement> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
     public void setProperty(UserProperty key, JsonElement value) {
         if (key == null || value == null) {
             return;
@@ -97,6 +108,26 @@ public class User extends WikiBase implements UserAction {
         updatePropertiesFromJson(prop, properties);
     }
 
+    /**
+     * 异步更新用户信息。与其他用户的请求一起经 {@link Wiki#loadUser(String, UserProperty...)} 批量获取，
+     * 因此会等待批量加载的时间窗口；需要立即获取时应使用 {@link #updateProperties(UserProperty...)}。用户不存在时不更新任何信息。
+     *
+     * @param properties 要更新的信息
+     * @return 更新完成后返回自身的 {@link CompletableFuture}
+     * @since 1.0.1
+     */
+    public CompletableFuture<User> loadProperties(UserProperty... properties) {
+        if (properties == null || properties.length == 0) {
+            return CompletableFuture.completedFuture(this);
+        }
+        return wiki.loadUser(name, properties).thenApply(prop -> {
+            if (prop != null) {
+                updatePropertiesFromJson(prop, properties);
+            }
+            return this;
+        });
+    }
+
     void updatePropertiesFromJson(JsonObject prop, UserProperty... properties) {
         for (UserProperty property : properties) {
             setProperty(property, prop.get(property.value));
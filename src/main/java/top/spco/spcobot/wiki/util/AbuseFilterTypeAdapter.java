@@ -0,0 +1,70 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.action.filter.AbuseFilter;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link AbuseFilter}，不经过反射。
+ * <p>
+ * {@code actions} 可以是数组，也可以是逗号分隔的字符串；{@code enabled}、{@code deleted} 和 {@code private} 兼容两种格式版本的标志。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class AbuseFilterTypeAdapter extends TypeAdapter<AbuseFilter> {
+    @Override
+    public void write(JsonWriter out, AbuseFilter value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.id());
+        out.name("description").value(value.description());
+        if (value.actions() != null) {
+            out.name("actions").value(String.join(",", value.actions()));
+        }
+        out.name("enabled").value(value.enabled());
+        out.name("deleted").value(value.deleted());
+        out.name("private").value(value.isPrivate());
+        out.endObject();
+    }
+
+    @Override
+    public AbuseFilter read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Integer id = null;
+        String description = null;
+        String[] actions = null;
+        boolean enabled = false;
+        boolean deleted = false;
+        boolean isPrivate = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = JsonReaderUtil.nextInt(in);
+                case "description" -> description = JsonReaderUtil.nextString(in);
+                case "actions" -> actions = JsonReaderUtil.nextStringArray(in);
+                case "enabled" -> enabled = JsonReaderUtil.nextFlag(in);
+                case "deleted" -> deleted = JsonReaderUtil.nextFlag(in);
+                case "private" -> isPrivate = JsonReaderUtil.nextFlag(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (id == null || description == null || actions == null) {
+            throw new JsonParseException("Abuse filter is missing id, description or actions");
+        }
+        return new AbuseFilter(id, description, actions, enabled, deleted, isPrivate);
+    }
+}
@@ -0,0 +1,74 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.DifferentComparison;
+import top.spco.spcobot.wiki.NameSpace;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link DifferentComparison}，不经过反射。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class DifferentComparisonTypeAdapter extends TypeAdapter<DifferentComparison> {
+    @Override
+    public void write(JsonWriter out, DifferentComparison value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("fromid").value(value.fromPageId());
+        out.name("toid").value(value.toPageId());
+        out.name("fromrevid").value(value.fromRevisionId());
+        out.name("torevid").value(value.toRevisionId());
+        if (value.fromNamespace() != null) {
+            out.name("fromns").value(value.fromNamespace().value);
+        }
+        if (value.toNamespace() != null) {
+            out.name("tons").value(value.toNamespace().value);
+        }
+        out.name("fromtitle").value(value.fromTitle());
+        out.name("*").value(value.diffHTML());
+        out.endObject();
+    }
+
+    @Override
+    public DifferentComparison read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int fromPageId = 0;
+        int toPageId = 0;
+        int fromRevisionId = 0;
+        int toRevisionId = 0;
+        NameSpace fromNamespace = null;
+        NameSpace toNamespace = null;
+        String fromTitle = null;
+        String diffHTML = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "fromid" -> fromPageId = JsonReaderUtil.nextInt(in);
+                case "toid" -> toPageId = JsonReaderUtil.nextInt(in);
+                case "fromrevid" -> fromRevisionId = JsonReaderUtil.nextInt(in);
+                case "torevid" -> toRevisionId = JsonReaderUtil.nextInt(in);
+                case "fromns" -> fromNamespace = JsonReaderUtil.nextNameSpace(in);
+                case "tons" -> toNamespace = JsonReaderUtil.nextNameSpace(in);
+                case "fromtitle" -> fromTitle = JsonReaderUtil.nextString(in);
+                // formatversion=2 中差异位于 "body"
+                case "*", "body" -> diffHTML = JsonReaderUtil.nextString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new DifferentComparison(fromPageId, toPageId, fromRevisionId, toRevisionId, fromNamespace, toNamespace, fromTitle, diffHTML);
+    }
+}
@@ -1,16 +1,34 @@
 package top.spco.spcobot.wiki.util;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.time.Instant;
 
-public class InstantDeserializer implements JsonDeserializer<Instant> {
+/**
+ * @author SpCo
+ * @version 1.0.1
+ * @since 0.1.0
+ */
+public class InstantDeserializer extends TypeAdapter<Instant> {
     @Override
-    public Instant deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return Instant.parse(json.getAsString());
+    public void write(JsonWriter out, Instant value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(value.toString());
+        }
+    }
+
+    @Override
+    public Instant read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return TimestampUtil.parseInstant(in.nextString());
     }
 }
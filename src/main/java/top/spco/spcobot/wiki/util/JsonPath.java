@@ -0,0 +1,124 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+
+/**
+ * 预先编译的 JSON 键路径。
+ * <p>
+ * 与 {@link JsonUtil} 中接受 JSON 字符串的方法不同，键路径只在已经解析好的 {@code JsonObject} 上查找，
+ * 同一个响应可以用多个键路径读取而不必重复解析。键路径是不可变的，可以保存为常量在多个线程中共享。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class JsonPath {
+    private final String[] keys;
+
+    private JsonPath(String[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * 编译一个键路径。
+     *
+     * @param keys 逐级的键
+     * @return 键路径
+     * @throws IllegalArgumentException 如果键路径为空
+     * @since 1.0.1
+     */
+    public static JsonPath of(String... keys) {
+        if (keys == null || keys.length == 0) {
+            throw new IllegalArgumentException("Key path must not be empty");
+        }
+        return new JsonPath(keys.clone());
+    }
+
+    /**
+     * 在键路径末尾追加键，得到一个新的键路径。
+     *
+     * @param keys 要追加的键
+     * @return 新的键路径
+     * @since 1.0.1
+     */
+    public JsonPath resolve(String... keys) {
+        String[] resolved = Arrays.copyOf(this.keys, this.keys.length + keys.length);
+        System.arraycopy(keys, 0, resolved, this.keys.length, keys.length);
+        return new JsonPath(resolved);
+    }
+
+    /**
+     * @return 去掉最后一个键的键路径，只有一个键时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonPath parent() {
+        return keys.length == 1 ? null : new JsonPath(Arrays.copyOf(keys, keys.length - 1));
+    }
+
+    /**
+     * 获取键路径指向的元素。
+     *
+     * @param json 要查找的 {@code JsonObject}
+     * @return 对应的元素；如果某一级的键不存在、中间的值不是对象或最终的值为 {@code null}，则返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonElement get(JsonObject json) {
+        JsonObject current = json;
+        int last = keys.length - 1;
+        for (int i = 0; i < last; i++) {
+            JsonElement element = current.get(keys[i]);
+            if (element == null || !element.isJsonObject()) {
+                return null;
+            }
+            current = element.getAsJsonObject();
+        }
+        JsonElement element = current.get(keys[last]);
+        return element == null || element.isJsonNull() ? null : element;
+    }
+
+    /**
+     * @return 键路径指向的字符串值；值不存在或不是基本类型时返回 {@code null}
+     * @since 1.0.1
+     */
+    public String getString(JsonObject json) {
+        JsonElement element = get(json);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    /**
+     * @return 键路径指向的对象；值不存在或不是对象时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonObject getObject(JsonObject json) {
+        JsonElement element = get(json);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    /**
+     * @return 键路径指向的数组；值不存在或不是数组时返回 {@code null}
+     * @since 1.0.1
+     */
+    public JsonArray getArray(JsonObject json) {
+        JsonElement element = get(json);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonPath other && Arrays.equals(keys, other.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", keys);
+    }
+}
@@ -0,0 +1,186 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.NameSpace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从 {@link JsonReader} 中直接读取字段值的工具类，供手写的 {@link com.google.gson.TypeAdapter} 使用。
+ * 所有方法在值为 {@code null} 时都会消费该值并返回默认值。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class JsonReaderUtil {
+    /**
+     * @return 字符串，值为 {@code null} 时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * 读取一个经常重复的字符串，例如用户名和标题，结果经 {@link StringPool#SHARED 共享池}去重。
+     *
+     * @return 字符串，值为 {@code null} 时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static String nextPooledString(JsonReader in) throws IOException {
+        return StringPool.SHARED.intern(nextString(in));
+    }
+
+    /**
+     * @return 整数，值为 {@code null} 时返回 {@code 0}
+     * @since 1.0.1
+     */
+    public static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    /**
+     * @return 长整数，值为 {@code null} 时返回 {@code 0}
+     * @since 1.0.1
+     */
+    public static long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextLong();
+    }
+
+    /**
+     * 读取一个标志。{@code formatversion=1} 中以键是否存在表示真假（值通常为空字符串），{@code formatversion=2} 中为布尔值。
+     *
+     * @return 值为布尔值时返回该值，为 {@code null} 时返回 {@code false}，其他情况返回 {@code true}
+     * @since 1.0.1
+     */
+    public static boolean nextFlag(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return in.nextBoolean();
+        }
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        in.skipValue();
+        return true;
+    }
+
+    /**
+     * 读取字符串数组，值为逗号分隔的字符串时按逗号拆分。
+     *
+     * @return 字符串数组，值为 {@code null} 时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static String[] nextStringArray(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token != JsonToken.BEGIN_ARRAY) {
+            String value = in.nextString();
+            return value.isEmpty() ? new String[0] : value.split(",");
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(nextString(in));
+        }
+        in.endArray();
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * @return JSON 对象，值不是对象时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static JsonObject nextObject(JsonReader in) throws IOException {
+        JsonElement element = JsonParser.parseReader(in);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    /**
+     * 创建一个只读取对象中指定数组的适配器，对象的其他键被跳过，例如 {@code list=allrevisions} 中每个页面的 {@code revisions}。
+     *
+     * @param key     数组的键
+     * @param adapter 数组元素的适配器
+     * @return 读取出数组元素的适配器，对象中没有此数组时读取出空列表。写入时输出只包含此数组的对象
+     * @since 1.0.1
+     */
+    public static <T> TypeAdapter<List<T>> nestedList(String key, TypeAdapter<T> adapter) {
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, List<T> value) throws IOException {
+                if (value == null) {
+                    out.nullValue();
+                    return;
+                }
+                out.beginObject();
+                out.name(key);
+                out.beginArray();
+                for (T element : value) {
+                    adapter.write(out, element);
+                }
+                out.endArray();
+                out.endObject();
+            }
+
+            @Override
+            public List<T> read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                List<T> values = new ArrayList<>();
+                in.beginObject();
+                while (in.hasNext()) {
+                    if (in.nextName().equals(key) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            values.add(adapter.read(in));
+                        }
+                        in.endArray();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                return values;
+            }
+        };
+    }
+
+    /**
+     * @return 命名空间，值为 {@code null} 时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static NameSpace nextNameSpace(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return NameSpace.from(in.nextInt());
+    }
+}
@@ -3,17 +3,26 @@ package top.spco.spcobot.wiki.util;
 import com.google.gson.*;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import top.spco.spcobot.wiki.DifferentComparison;
+import top.spco.spcobot.wiki.LogEntry;
 import top.spco.spcobot.wiki.NameSpace;
+import top.spco.spcobot.wiki.RecentChange;
+import top.spco.spcobot.wiki.Revision;
+import top.spco.spcobot.wiki.action.filter.AbuseFilter;
+import top.spco.spcobot.wiki.action.filter.AbuseFilterLogEntry;
+import top.spco.spcobot.wiki.action.filter.SimplifiedAbuseFilterLogEntry;
 import top.spco.spcobot.wiki.action.parameter.LogType;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 使用 Gson 进行 JSON 解析和提取的工具类。
  * 提供安全获取 JSON 元素、字符串的方法，并在遇到无效或空的 JSON 结构时进行日志记录。
  *
  * @author SpCo
- * @version 0.1.0
+ * @version 1.0.1
  * @since 0.1.0
  */
 public class JsonUtil {
@@ -22,6 +31,13 @@ public class JsonUtil {
             .registerTypeAdapter(LogType.class, new LogTypeDeserializer())
             .registerTypeAdapter(Instant.class, new InstantDeserializer())
             .registerTypeAdapter(NameSpace.class, new NameSpaceDeserializer())
+            .registerTypeAdapter(RecentChange.class, new RecentChangeTypeAdapter().nullSafe())
+            .registerTypeAdapter(Revision.class, new RevisionTypeAdapter().nullSafe())
+            .registerTypeAdapter(LogEntry.class, new LogEntryTypeAdapter().nullSafe())
+            .registerTypeAdapter(DifferentComparison.class, new DifferentComparisonTypeAdapter().nullSafe())
+            .registerTypeAdapter(AbuseFilter.class, new AbuseFilterTypeAdapter().nullSafe())
+            .registerTypeAdapter(AbuseFilterLogEntry.class, new AbuseFilterLogEntryTypeAdapter().nullSafe())
+            .registerTypeAdapter(SimplifiedAbuseFilterLogEntry.class, new SimplifiedAbuseFilterLogEntryTypeAdapter().nullSafe())
             .create();
 
     /**
@@ -144,6 +160,7 @@ public class JsonUtil {
     /**
      * 根据键路径从 JSON 字符串中获取字符串值。
      * 如果键不存在或值为 {@code null}，则返回 {@code null}。
+     * 每次调用都会重新解析 {@code json}，需要从同一个响应中读取多个值时应使用 {@link top.spco.spcobot.wiki.ParsedResponse}。
      *
      * @param json     要解析的 JSON 字符串
      * @param nullable {@code true} 表明结果可以为 {@code null}
@@ -199,6 +216,7 @@ public class JsonUtil {
     /**
      * 根据键路径从 JSON 字符串中获取 {@code JsonElement}。
      * 如果键不存在或值为 {@code null}，则返回 {@code null}。
+     * 每次调用都会重新解析 {@code json}，需要从同一个响应中读取多个值时应使用 {@link top.spco.spcobot.wiki.ParsedResponse}。
      *
      * @param json     要解析的 JSON 字符串
      * @param nullable {@code true} 表明结果可以为 {@code null}
@@ -296,4 +314,57 @@ public class JsonUtil {
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * 读取一个标志。{@code formatversion=1} 中以键是否存在表示真假（值通常为空字符串），{@code formatversion=2} 中为布尔值。
+     *
+     * @param json 要读取的 {@code JsonObject}
+     * @param key  标志的键
+     * @return 标志为真时返回 {@code true}
+     * @since 1.0.1
+     */
+    public static boolean flag(JsonObject json, String key) {
+        JsonElement element = json.get(key);
+        if (element == null || element.isJsonNull()) {
+            return false;
+        }
+        return !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isBoolean() || element.getAsBoolean();
+    }
+
+    /**
+     * 获取 {@code query.pages} 中的所有页面。{@code formatversion=1} 中为以页面ID为键的对象，{@code formatversion=2} 中为数组。
+     *
+     * @param pages {@code query.pages} 的值，可以为 {@code null}
+     * @return 页面列表
+     * @since 1.0.1
+     */
+    public static List<JsonObject> pages(JsonElement pages) {
+        List<JsonObject> result = new ArrayList<>();
+        if (pages == null || pages.isJsonNull()) {
+            return result;
+        }
+        Iterable<JsonElement> elements = pages.isJsonArray() ? pages.getAsJsonArray() : pages.getAsJsonObject().asMap().values();
+        for (JsonElement page : elements) {
+            result.add(page.getAsJsonObject());
+        }
+        return result;
+    }
+
+    /**
+     * 获取修订版本的内容。兼容 {@code formatversion=1} 的 {@code "*"}、{@code formatversion=2} 的 {@code "content"}，
+     * 以及指定了 {@code rvslots} 时位于 {@code slots.main} 中的内容。
+     *
+     * @param revision 修订版本
+     * @return 修订版本的内容，没有内容时返回 {@code null}
+     * @since 1.0.1
+     */
+    public static String revisionContent(JsonObject revision) {
+        JsonObject content = revision;
+        JsonElement slots = revision.get("slots");
+        if (slots != null && slots.isJsonObject() && slots.getAsJsonObject().has("main")) {
+            content = slots.getAsJsonObject().getAsJsonObject("main");
+        }
+        JsonElement text = content.has("content") ? content.get("content") : content.get("*");
+        return text == null || text.isJsonNull() ? null : text.getAsString();
+    }
+}
@@ -0,0 +1,92 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.LogEntry;
+import top.spco.spcobot.wiki.action.parameter.LogType;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link LogEntry}，不经过反射。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class LogEntryTypeAdapter extends TypeAdapter<LogEntry> {
+    @Override
+    public void write(JsonWriter out, LogEntry value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("logid").value(value.logid);
+        out.name("pageid").value(value.pageid);
+        out.name("logpage").value(value.logpage);
+        out.name("title").value(value.title);
+        if (value.type != null) {
+            out.name("type").value(value.type.toString());
+        }
+        out.name("action").value(value.action);
+        if (value.params != null) {
+            out.name("params");
+            JsonUtil.GSON.toJson(value.params, out);
+        }
+        out.name("user").value(value.user);
+        out.name("userid").value(value.userid);
+        if (value.timestamp != null) {
+            out.name("timestamp").value(value.timestamp.toString());
+        }
+        out.name("comment").value(value.summary);
+        out.name("parsedcomment").value(value.parsedComment);
+        if (value.tags != null) {
+            out.name("tags").beginArray();
+            for (String tag : value.tags) {
+                out.value(tag);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public LogEntry read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        LogEntry entry = new LogEntry();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "ids" -> entry.ids = JsonReaderUtil.nextInt(in);
+                case "logid" -> entry.logid = JsonReaderUtil.nextLong(in);
+                case "pageid" -> entry.pageid = JsonReaderUtil.nextLong(in);
+                case "logpage" -> entry.logpage = JsonReaderUtil.nextLong(in);
+                case "title" -> entry.title = JsonReaderUtil.nextPooledString(in);
+                case "type" -> {
+                    String type = JsonReaderUtil.nextString(in);
+                    entry.type = type == null ? null : LogType.toLogType(type);
+                }
+                case "action" -> entry.action = JsonReaderUtil.nextPooledString(in);
+                case "params" -> entry.params = JsonReaderUtil.nextObject(in);
+                case "user" -> entry.user = JsonReaderUtil.nextPooledString(in);
+                case "userid" -> entry.userid = JsonReaderUtil.nextInt(in);
+                case "timestamp" -> {
+                    String timestamp = JsonReaderUtil.nextString(in);
+                    entry.timestamp = timestamp == null ? null : TimestampUtil.parseInstant(timestamp);
+                }
+                case "comment" -> entry.summary = JsonReaderUtil.nextString(in);
+                case "parsedcomment" -> entry.parsedComment = JsonReaderUtil.nextString(in);
+                case "tags" -> entry.tags = JsonReaderUtil.nextStringArray(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return entry;
+    }
+}
@@ -0,0 +1,77 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.NameSpace;
+import top.spco.spcobot.wiki.RecentChange;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link RecentChange}，不经过反射。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class RecentChangeTypeAdapter extends TypeAdapter<RecentChange> {
+    @Override
+    public void write(JsonWriter out, RecentChange value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("rcid").value(value.id());
+        out.name("revid").value(value.revisionId());
+        out.name("old_revid").value(value.oldRevisionId());
+        out.name("timestamp").value(value.timestamp());
+        out.name("title").value(value.title());
+        if (value.nameSpace() != null) {
+            out.name("ns").value(value.nameSpace().value);
+        }
+        out.name("user").value(value.user());
+        out.name("comment").value(value.summary());
+        out.name("type").value(value.type());
+        out.name("pageid").value(value.pageId());
+        out.endObject();
+    }
+
+    @Override
+    public RecentChange read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int id = 0;
+        int revisionId = 0;
+        int oldRevisionId = 0;
+        String timestamp = null;
+        String title = null;
+        NameSpace nameSpace = null;
+        String user = null;
+        String summary = null;
+        String type = null;
+        int pageId = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "rcid" -> id = JsonReaderUtil.nextInt(in);
+                case "revid" -> revisionId = JsonReaderUtil.nextInt(in);
+                case "old_revid" -> oldRevisionId = JsonReaderUtil.nextInt(in);
+                case "timestamp" -> timestamp = JsonReaderUtil.nextString(in);
+                case "title" -> title = JsonReaderUtil.nextPooledString(in);
+                case "ns" -> nameSpace = JsonReaderUtil.nextNameSpace(in);
+                case "user" -> user = JsonReaderUtil.nextPooledString(in);
+                case "comment" -> summary = JsonReaderUtil.nextString(in);
+                case "type" -> type = JsonReaderUtil.nextPooledString(in);
+                case "pageid" -> pageId = JsonReaderUtil.nextInt(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new RecentChange(id, revisionId, oldRevisionId, timestamp, title, nameSpace, user, summary, type, pageId);
+    }
+}
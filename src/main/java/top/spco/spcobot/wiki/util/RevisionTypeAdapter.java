@@ -0,0 +1,59 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.Revision;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link Revision}，不经过反射。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class RevisionTypeAdapter extends TypeAdapter<Revision> {
+    @Override
+    public void write(JsonWriter out, Revision value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("revid").value(value.id());
+        out.name("parentid").value(value.parentId());
+        out.name("timestamp").value(value.timestamp());
+        out.name("comment").value(value.comment());
+        out.name("user").value(value.user());
+        out.endObject();
+    }
+
+    @Override
+    public Revision read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int id = 0;
+        int parentId = 0;
+        String timestamp = null;
+        String comment = null;
+        String user = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "revid" -> id = JsonReaderUtil.nextInt(in);
+                case "parentid" -> parentId = JsonReaderUtil.nextInt(in);
+                case "timestamp" -> timestamp = JsonReaderUtil.nextString(in);
+                case "comment" -> comment = JsonReaderUtil.nextString(in);
+                case "user" -> user = JsonReaderUtil.nextPooledString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Revision(id, parentId, timestamp, comment, user);
+    }
+}
@@ -0,0 +1,68 @@
+package top.spco.spcobot.wiki.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import top.spco.spcobot.wiki.NameSpace;
+import top.spco.spcobot.wiki.action.filter.SimplifiedAbuseFilterLogEntry;
+
+import java.io.IOException;
+
+/**
+ * 直接从 {@link JsonReader} 读取 {@link SimplifiedAbuseFilterLogEntry}，不经过反射。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public class SimplifiedAbuseFilterLogEntryTypeAdapter extends TypeAdapter<SimplifiedAbuseFilterLogEntry> {
+    @Override
+    public void write(JsonWriter out, SimplifiedAbuseFilterLogEntry value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("filter").value(value.filter());
+        out.name("user").value(value.user());
+        if (value.ns() != null) {
+            out.name("ns").value(value.ns().value);
+        }
+        out.name("title").value(value.title());
+        out.name("action").value(value.action());
+        out.name("result").value(value.result());
+        out.name("timestamp").value(value.timestamp());
+        out.endObject();
+    }
+
+    @Override
+    public SimplifiedAbuseFilterLogEntry read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String filter = null;
+        String user = null;
+        NameSpace ns = null;
+        String title = null;
+        String action = null;
+        String result = null;
+        String timestamp = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "filter" -> filter = JsonReaderUtil.nextPooledString(in);
+                case "user" -> user = JsonReaderUtil.nextPooledString(in);
+                case "ns" -> ns = JsonReaderUtil.nextNameSpace(in);
+                case "title" -> title = JsonReaderUtil.nextPooledString(in);
+                case "action" -> action = JsonReaderUtil.nextPooledString(in);
+                case "result" -> result = JsonReaderUtil.nextPooledString(in);
+                case "timestamp" -> timestamp = JsonReaderUtil.nextString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new SimplifiedAbuseFilterLogEntry(filter, user, ns, title, action, result, timestamp);
+    }
+}
@@ -0,0 +1,74 @@
+package top.spco.spcobot.wiki.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界的字符串去重池，用于在反序列化大量结果时让重复的用户名、标题等共享同一个 {@code String} 实例。
+ * <p>
+ * 池是一个按哈希值直接寻址的固定大小的槽数组：命中时返回槽中已有的实例，未命中时用新字符串替换槽中的旧实例。
+ * 因此占用的内存有上限，不会像 {@link String#intern()} 那样无限增长；冲突只会使去重失效，不会返回错误的结果。
+ * 所有操作都是无锁的，可以在多个线程中同时使用。
+ *
+ * @author SpCo
+ * @version 1.0.1
+ * @since 1.0.1
+ */
+public final class StringPool {
+    /**
+     * 反序列化时使用的共享池。
+     *
+     * @since 1.0.1
+     */
+    public static final StringPool SHARED = new StringPool(1 << 14);
+    /**
+     * 长度超过此值的字符串通常不会重复，不放入池中。
+     */
+    private static final int MAX_LENGTH = 256;
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * @param capacity 槽的数量，会向上取整为 2 的幂
+     * @since 1.0.1
+     */
+    public StringPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = slots.length() - 1;
+    }
+
+    /**
+     * 获取与 {@code string} 相等的池中实例。
+     *
+     * @param string 字符串，可以为 {@code null}
+     * @return 池中已有的相等实例；没有时返回 {@code string} 本身
+     * @since 1.0.1
+     */
+    public String intern(String string) {
+        if (string == null || string.length() > MAX_LENGTH) {
+            return string;
+        }
+        int hash = string.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String pooled = slots.get(index);
+        if (string.equals(pooled)) {
+            return pooled;
+        }
+        slots.lazySet(index, string);
+        return string;
+    }
+
+    /**
+     * 清空池。
+     *
+     * @since 1.0.1
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package top.spco.spcobot.wiki;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.Test;
+import top.spco.spcobot.wiki.action.filter.AbuseFilterLogEntry;
+import top.spco.spcobot.wiki.action.parameter.LogType;
+import top.spco.spcobot.wiki.action.parameter.UserProperty;
+import top.spco.spcobot.wiki.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static top.spco.spcobot.wiki.SnapshotFormat.*;
+
+class SnapshotReaderTest {
+    @Test
+    void roundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Revision revision = new Revision(5, 4, "2024-01-01T00:00:00Z", "摘要", "Bob");
+        RecentChange change = new RecentChange(-1, 2, 3, "2024-01-01T00:00:00Z", "Foo", NameSpace.from(0), "Bob", "s", "new", 9);
+        JsonObject details = JsonParser.parseString("{\"action\":\"edit\",\"user_editcount\":3}").getAsJsonObject();
+        AbuseFilterLogEntry filterEntry = new AbuseFilterLogEntry(7, "3", "过滤器", "Bob", NameSpace.from(2), "User:Bob", "edit", "warn", "2024-01-01T00:00:00Z", details);
+        LogEntry logEntry = new LogEntry();
+        logEntry.logid = 1L << 40;
+        logEntry.pageid = 12;
+        logEntry.type = LogType.MOVE;
+        logEntry.action = "move";
+        logEntry.title = "Talk:测试";
+        logEntry.user = "Bob";
+        logEntry.userid = 6;
+        logEntry.timestamp = Instant.ofEpochSecond(1_700_000_000, 5);
+        logEntry.tags = new String[]{"a", "b"};
+        logEntry.params = JsonParser.parseString("{\"target_title\":\"Y\"}").getAsJsonObject();
+        User user = new User(null, "Alice");
+        user.setProperty(UserProperty.EDIT_COUNT, new JsonPrimitive(42));
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            writer.write(new Page(12, "Talk:测试", NameSpace.from(1), null));
+            writer.write(revision);
+            writer.write(change);
+            writer.write(logEntry);
+            writer.write(filterEntry);
+            writer.write(user);
+        }
+
+        try (SnapshotReader reader = reader(bytes.toByteArray())) {
+            Page page = assertInstanceOf(Page.class, reader.read());
+            assertEquals(12, page.pageId());
+            assertEquals("Talk:测试", page.title());
+            assertEquals(NameSpace.from(1), page.nameSpace());
+            assertEquals(revision, reader.read());
+            assertEquals(change, reader.read());
+            LogEntry readEntry = assertInstanceOf(LogEntry.class, reader.read());
+            assertEquals(logEntry.logid, readEntry.logid);
+            assertEquals(logEntry.pageid, readEntry.pageid);
+            assertEquals(logEntry.type, readEntry.type);
+            assertEquals(logEntry.action, readEntry.action);
+            assertEquals(logEntry.title, readEntry.title);
+            assertEquals(logEntry.user, readEntry.user);
+            assertEquals(logEntry.userid, readEntry.userid);
+            assertEquals(logEntry.timestamp, readEntry.timestamp);
+            assertArrayEquals(logEntry.tags, readEntry.tags);
+            assertEquals(logEntry.params, readEntry.params);
+            assertNull(readEntry.summary);
+            assertEquals(filterEntry, reader.read());
+            User readUser = assertInstanceOf(User.class, reader.read());
+            assertEquals("Alice", readUser.getName());
+            assertEquals(Map.of(UserProperty.EDIT_COUNT, new JsonPrimitive(42)), readUser.getProperties());
+            assertNull(reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void nullFieldsAreOmitted() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            writer.write(new Page(13, "NoNamespace", null, null));
+            writer.write(new RecentChange(1, 2, 3, null, null, null, null, null));
+        }
+        try (SnapshotReader reader = reader(bytes.toByteArray())) {
+            Page page = assertInstanceOf(Page.class, reader.read());
+            assertEquals(13, page.pageId());
+            assertNull(page.nameSpace());
+            assertEquals(new RecentChange(1, 2, 3, null, null, null, null, null), reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void failedWriteDoesNotLeavePartialRecord() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            Page broken = new Page(99, "Broken", NameSpace.from(0), null) {
+                @Override
+                public String title() {
+                    throw new IllegalStateException();
+                }
+            };
+            assertThrows(IllegalStateException.class, () -> writer.write(broken));
+            writer.write(new Revision(1, 0, null, null, null));
+        }
+        try (SnapshotReader reader = reader(bytes.toByteArray())) {
+            assertEquals(new Revision(1, 0, null, null, null), reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void skipsUnknownRecordsAndFields() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // 未知类型的记录
+        bytes.writeBytes(record(out -> out.writeBytes(99, ByteString.copyFromUtf8("future"))));
+        // Record 中非消息类型的未知字段
+        bytes.writeBytes(record(out -> {
+            out.writeInt64(100, 7);
+            out.writeFixed32(101, 8);
+            out.writeByteArray(PAGE, message(page -> {
+                page.writeInt32(PageField.PAGE_ID, 12);
+                page.writeString(PageField.TITLE, "Foo");
+                page.writeInt32(PageField.NAMESPACE, 4);
+                // 较新版本可能添加的字段
+                page.writeString(50, "extra");
+                page.writeFixed64(51, 1);
+                page.writeInt32(52, 2);
+                // 已知字段编号但线路类型不同
+                page.writeInt32(PageField.TITLE, 3);
+            }));
+        }));
+        bytes.writeBytes(record(out -> out.writeByteArray(USER, message(user -> {
+            user.writeString(UserField.NAME, "Alice");
+            user.writeByteArray(UserField.PROPERTIES, message(property -> {
+                property.writeString(UserField.PROPERTY_KEY, "no_such_property");
+                property.writeString(UserField.PROPERTY_VALUE, "1");
+            }));
+            user.writeByteArray(UserField.PROPERTIES, message(property -> {
+                property.writeString(UserField.PROPERTY_KEY, UserProperty.EDIT_COUNT.value);
+                property.writeInt32(3, 0);
+                property.writeString(UserField.PROPERTY_VALUE, "5");
+            }));
+        }))));
+        bytes.writeBytes(record(out -> {
+        }));
+
+        List<Object> records = new ArrayList<>();
+        try (SnapshotReader reader = reader(bytes.toByteArray())) {
+            reader.readAll(new SnapshotReader.Visitor() {
+                @Override
+                public void page(Page page) {
+                    records.add(page);
+                }
+
+                @Override
+                public void user(User user) {
+                    records.add(user);
+                }
+            });
+        }
+        assertEquals(2, records.size());
+        Page page = assertInstanceOf(Page.class, records.get(0));
+        assertEquals(12, page.pageId());
+        assertEquals("Foo", page.title());
+        assertEquals(NameSpace.from(4), page.nameSpace());
+        User user = assertInstanceOf(User.class, records.get(1));
+        assertEquals("Alice", user.getName());
+        assertEquals(Map.of(UserProperty.EDIT_COUNT, new JsonPrimitive(5)), user.getProperties());
+    }
+
+    @Test
+    void truncatedStreamFails() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            writer.write(new Revision(5, 4, "2024-01-01T00:00:00Z", "comment", "Bob"));
+        }
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 3);
+        try (SnapshotReader reader = reader(truncated)) {
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+    private static SnapshotReader reader(byte[] bytes) {
+        return new SnapshotReader(null, new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] record(MessageWriter writer) throws IOException {
+        byte[] message = message(writer);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeUInt32NoTag(message.length);
+        out.writeRawBytes(message);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] message(MessageWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface MessageWriter {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,79 @@
+package top.spco.spcobot.wiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanBlacklistTest {
+    @AfterEach
+    void reset() {
+        SpanBlacklist.reset();
+    }
+
+    @Test
+    void builtinWordsAreMatchedIgnoringCase() {
+        assertTrue(SpanBlacklist.check("free VIAGRA here"));
+        assertFalse(SpanBlacklist.check("nothing to see"));
+        assertEquals("free ■ here", SpanBlacklist.purify("free Viagra here"));
+    }
+
+    @Test
+    void reloadReplacesCustomEntries() {
+        SpanBlacklist.reload(List.of("foobar"), List.of("ba+z"));
+        assertTrue(SpanBlacklist.check("a FOOBAR b"));
+        assertTrue(SpanBlacklist.check("baaaz"));
+        assertTrue(SpanBlacklist.check("viagra"));
+
+        SpanBlacklist.reload(List.of("other"), List.of());
+        assertFalse(SpanBlacklist.check("foobar"));
+        assertFalse(SpanBlacklist.check("baaaz"));
+        assertTrue(SpanBlacklist.check("other"));
+        assertTrue(SpanBlacklist.check("viagra"));
+    }
+
+    @Test
+    void resetRestoresBuiltinWords() {
+        SpanBlacklist.reload(List.of("foobar"), List.of("ba+z"));
+        SpanBlacklist.reset();
+        assertFalse(SpanBlacklist.check("foobar baaaz"));
+        assertTrue(SpanBlacklist.check("viagra"));
+    }
+
+    @Test
+    void invalidRegexIsSkippedWithoutAbortingReload() {
+        SpanBlacklist.reload(List.of("foobar"), List.of("ba(r", "qu+x"));
+        assertTrue(SpanBlacklist.check("foobar"));
+        assertTrue(SpanBlacklist.check("quuux"));
+        assertFalse(SpanBlacklist.check("ba(r"));
+    }
+
+    @Test
+    @Timeout(10)
+    void catastrophicRegexIsDisabled() {
+        SpanBlacklist.reload(List.of("foobar"), List.of("(a+)+$"));
+        assertFalse(SpanBlacklist.check("a".repeat(40) + "b"));
+        assertTrue(SpanBlacklist.check("foobar"));
+    }
+
+    @Test
+    void purifyReplacesWordsAndRegexMatches() {
+        SpanBlacklist.reload(List.of("foobar"), List.of("ba+z"));
+        assertEquals("x # y # z #", SpanBlacklist.purify("x foobar y baaz z fuck", "#"));
+    }
+
+    @Test
+    void streamingMethodsWorkLineByLine() {
+        SpanBlacklist.reload(List.of("foobar"), List.of());
+        assertTrue(SpanBlacklist.check(new StringReader("first line\nsecond foobar\n")));
+        assertFalse(SpanBlacklist.check(new StringReader("first line\nsecond line\n")));
+        StringWriter out = new StringWriter();
+        SpanBlacklist.purify(new StringReader("a foobar\nb viagra\nc"), out, "#");
+        assertEquals("a #\nb #\nc", out.toString());
+    }
+}
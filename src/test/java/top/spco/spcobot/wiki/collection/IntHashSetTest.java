@@ -0,0 +1,90 @@
+package top.spco.spcobot.wiki.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+    @Test
+    void behavesLikeHashSet() {
+        Random random = new Random(1);
+        IntHashSet set = new IntHashSet(4);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 取值范围较小，使插入、删除和探测冲突频繁发生
+            int value = random.nextInt(4096) - 2048;
+            switch (random.nextInt(3)) {
+                case 0, 1 -> assertEquals(expected.add(value), set.add(value));
+                default -> assertEquals(expected.remove(value), set.remove(value));
+            }
+            if (i % 997 == 0) {
+                assertSameElements(expected, set);
+            }
+        }
+        assertSameElements(expected, set);
+    }
+
+    @Test
+    void handlesSpecialValues() {
+        IntHashSet set = new IntHashSet();
+        for (int value : new int[]{0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            assertFalse(set.contains(value));
+            assertTrue(set.add(value));
+            assertFalse(set.add(value));
+            assertTrue(set.contains(value));
+        }
+        assertEquals(4, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void clearAndAddAll() {
+        IntHashSet set = new IntHashSet();
+        set.addAll(1, 2, 3, 3, 0);
+        assertEquals(4, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1));
+        assertFalse(set.iterator().hasNext());
+        set.add(7);
+        assertArrayEquals(new int[]{7}, set.toArray());
+    }
+
+    @Test
+    void iteratorIsExhausted() {
+        IntHashSet set = new IntHashSet();
+        set.add(5);
+        PrimitiveIterator.OfInt iterator = set.iterator();
+        assertEquals(5, iterator.nextInt());
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+    }
+
+    private static void assertSameElements(Set<Integer> expected, IntHashSet set) {
+        assertEquals(expected.size(), set.size());
+        for (int value : expected) {
+            assertTrue(set.contains(value));
+        }
+        int[] array = set.toArray();
+        Arrays.sort(array);
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), array);
+        List<Integer> iterated = new ArrayList<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, new HashSet<>(iterated));
+        assertEquals(expected.size(), iterated.size());
+        List<Integer> consumed = new ArrayList<>();
+        set.forEachInt(consumed::add);
+        assertEquals(iterated.size(), consumed.size());
+    }
+}
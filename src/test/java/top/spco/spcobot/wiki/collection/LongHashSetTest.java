@@ -0,0 +1,90 @@
+package top.spco.spcobot.wiki.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+    @Test
+    void behavesLikeHashSet() {
+        Random random = new Random(1);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 取值范围较小，使插入、删除和探测冲突频繁发生
+            long value = random.nextInt(4096) - 2048 + (random.nextBoolean() ? 0 : 1L << 40);
+            switch (random.nextInt(3)) {
+                case 0, 1 -> assertEquals(expected.add(value), set.add(value));
+                default -> assertEquals(expected.remove(value), set.remove(value));
+            }
+            if (i % 997 == 0) {
+                assertSameElements(expected, set);
+            }
+        }
+        assertSameElements(expected, set);
+    }
+
+    @Test
+    void handlesSpecialValues() {
+        LongHashSet set = new LongHashSet();
+        for (long value : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertFalse(set.contains(value));
+            assertTrue(set.add(value));
+            assertFalse(set.add(value));
+            assertTrue(set.contains(value));
+        }
+        assertEquals(4, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void clearAndAddAll() {
+        LongHashSet set = new LongHashSet();
+        set.addAll(1, 2, 3, 3, 0);
+        assertEquals(4, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1));
+        assertFalse(set.iterator().hasNext());
+        set.add(7);
+        assertArrayEquals(new long[]{7}, set.toArray());
+    }
+
+    @Test
+    void iteratorIsExhausted() {
+        LongHashSet set = new LongHashSet();
+        set.add(5);
+        PrimitiveIterator.OfLong iterator = set.iterator();
+        assertEquals(5, iterator.nextLong());
+        assertThrows(NoSuchElementException.class, iterator::nextLong);
+    }
+
+    private static void assertSameElements(Set<Long> expected, LongHashSet set) {
+        assertEquals(expected.size(), set.size());
+        for (long value : expected) {
+            assertTrue(set.contains(value));
+        }
+        long[] array = set.toArray();
+        Arrays.sort(array);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), array);
+        List<Long> iterated = new ArrayList<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, new HashSet<>(iterated));
+        assertEquals(expected.size(), iterated.size());
+        List<Long> consumed = new ArrayList<>();
+        set.forEachLong(consumed::add);
+        assertEquals(iterated.size(), consumed.size());
+    }
+}
@@ -0,0 +1,73 @@
+package top.spco.spcobot.wiki.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+    @Test
+    void behavesLikeHashMap() {
+        Random random = new Random(2);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 取值范围较小，使插入、覆盖、删除和探测冲突频繁发生
+            long key = random.nextInt(4096) - 2048;
+            switch (random.nextInt(3)) {
+                case 0, 1 -> {
+                    long value = random.nextLong();
+                    assertEquals(expected.put(key, value) != null, map.put(key, value));
+                }
+                default -> assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+            if (i % 997 == 0) {
+                assertSameEntries(expected, map);
+            }
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void handlesSpecialKeys() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertFalse(map.containsKey(key));
+            assertEquals(-5, map.get(key, -5));
+            assertFalse(map.put(key, key + 1));
+            assertTrue(map.put(key, key + 2));
+            assertEquals(key + 2, map.get(key, -5));
+        }
+        assertEquals(4, map.size());
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertFalse(map.remove(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void clear() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(0, 1);
+        map.put(2, 3);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertFalse(map.containsKey(2));
+        map.forEach((key, value) -> fail());
+    }
+
+    private static void assertSameEntries(Map<Long, Long> expected, LongLongHashMap map) {
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> {
+            assertTrue(map.containsKey(key));
+            assertEquals(value, map.get(key, ~value));
+        });
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach((key, value) -> assertNull(actual.put(key, value)));
+        assertEquals(expected, actual);
+    }
+}
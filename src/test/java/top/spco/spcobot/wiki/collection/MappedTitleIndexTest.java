@@ -0,0 +1,201 @@
+package top.spco.spcobot.wiki.collection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTitleIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void buildAndLookup() throws IOException {
+        TreeSet<String> expected = titles(1000);
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), expected);
+        assertEquals(expected.size(), index.size());
+        for (String title : expected) {
+            assertTrue(index.contains(title), title);
+            assertFalse(index.contains(title + "!"), title);
+        }
+        assertFalse(index.contains(""));
+        assertEquals(new ArrayList<>(expected), toList(index.iterator()));
+        assertEquals(new ArrayList<>(expected), toList(MappedTitleIndex.open(directory.resolve("index.bin")).iterator()));
+        assertFalse(index.hasPendingChanges());
+    }
+
+    @Test
+    void prefixAndRange() throws IOException {
+        TreeSet<String> expected = titles(1000);
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), expected);
+        for (String prefix : List.of("", "Talk:", "Talk:Page 1", "User:", "Nope")) {
+            List<String> matching = expected.stream().filter(title -> title.startsWith(prefix)).toList();
+            assertEquals(matching, index.prefix(prefix, Integer.MAX_VALUE), prefix);
+            assertEquals(matching.subList(0, Math.min(5, matching.size())), index.prefix(prefix, 5), prefix);
+        }
+        assertEquals(new ArrayList<>(expected.subSet("Talk:Page 2", "Talk:Page 3")), index.range("Talk:Page 2", "Talk:Page 3", Integer.MAX_VALUE));
+        assertEquals(new ArrayList<>(expected.headSet("Page 5")), index.range(null, "Page 5", Integer.MAX_VALUE));
+        assertEquals(new ArrayList<>(expected.tailSet("User:Page 5")), index.range("User:Page 5", null, Integer.MAX_VALUE));
+        assertEquals(List.of(), index.range("Talk:", "Talk:", 10));
+    }
+
+    @Test
+    void orderUsesCodePoints() throws IOException {
+        String bmp = "\uFFFD";
+        String supplementary = "\uD83D\uDE00";
+        assertTrue(bmp.compareTo(supplementary) > 0);
+        assertTrue(MappedTitleIndex.compare(bmp, supplementary) < 0);
+        assertTrue(MappedTitleIndex.compare("a", "ab") < 0);
+        assertEquals(0, MappedTitleIndex.compare("中文", "中文"));
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), List.of("A", bmp, supplementary));
+        assertEquals(List.of("A", bmp, supplementary), toList(index.iterator()));
+        assertTrue(index.contains(supplementary));
+    }
+
+    @Test
+    void buildRejectsUnsortedInputAndKeepsOldFile() throws IOException {
+        Path file = directory.resolve("index.bin");
+        MappedTitleIndex.build(file, List.of("A", "B"));
+        assertThrows(IllegalArgumentException.class, () -> MappedTitleIndex.build(file, List.of("B", "A")));
+        assertEquals(List.of("A", "B"), toList(MappedTitleIndex.open(file).iterator()));
+        assertEquals(List.of(file), files());
+    }
+
+    @Test
+    void buildSkipsDuplicates() throws IOException {
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), List.of("A", "A", "B", "B", "B"));
+        assertEquals(2, index.size());
+        assertEquals(List.of("A", "B"), toList(index.iterator()));
+    }
+
+    @Test
+    void buildFromTitleList() throws IOException {
+        TreeSet<String> expected = titles(500);
+        List<String> shuffled = new ArrayList<>(expected);
+        shuffled.addAll(expected.headSet("P"));
+        Collections.shuffle(shuffled, new Random(3));
+        MappedTitleList list = MappedTitleList.write(directory.resolve("titles.bin"), shuffled);
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), list);
+        assertEquals(new ArrayList<>(expected), toList(index.iterator()));
+    }
+
+    @Test
+    void builderSortsAndSpills() throws IOException {
+        Path file = directory.resolve("index.bin");
+        // 超过一个临时文件的容量，使构建器归并多个有序段
+        TreeSet<String> expected = new TreeSet<>(MappedTitleIndex.ORDER);
+        Random random = new Random(4);
+        MappedTitleIndex index;
+        try (MappedTitleIndex.Builder builder = MappedTitleIndex.builder(file)) {
+            for (int i = 0; i < 600_000; i++) {
+                String title = "Page " + random.nextInt(400_000);
+                expected.add(title);
+                builder.add(title);
+            }
+            index = builder.build();
+            assertThrows(IllegalStateException.class, () -> builder.add("Late"));
+        }
+        assertEquals(expected.size(), index.size());
+        Iterator<String> actual = index.iterator();
+        for (String title : expected) {
+            assertEquals(title, actual.next());
+        }
+        assertFalse(actual.hasNext());
+        assertEquals(List.of(file), files());
+    }
+
+    @Test
+    void closedBuilderRemovesTemporaryFiles() throws IOException {
+        Path file = directory.resolve("index.bin");
+        try (MappedTitleIndex.Builder builder = MappedTitleIndex.builder(file)) {
+            for (int i = 0; i < 300_000; i++) {
+                builder.add("Page " + i);
+            }
+        }
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    void pendingChanges() throws IOException {
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), List.of("B", "D", "F"));
+        index.add("C");
+        index.add("D");
+        index.remove("F");
+        index.remove("X");
+        index.move("B", "E");
+        assertTrue(index.hasPendingChanges());
+        assertEquals(3, index.size());
+        assertTrue(index.contains("C"));
+        assertFalse(index.contains("B"));
+        assertFalse(index.contains("F"));
+        assertEquals(List.of("C", "D", "E"), toList(index.iterator()));
+        assertEquals(List.of("D", "E"), index.range("D", null, 10));
+        assertEquals(List.of("C"), index.prefix("C", 10));
+
+        index.add("F");
+        index.remove("C");
+        assertEquals(List.of("D", "E", "F"), toList(index.iterator()));
+    }
+
+    @Test
+    void compactOverMappedFile() throws IOException {
+        Path file = directory.resolve("index.bin");
+        MappedTitleIndex index = MappedTitleIndex.build(file, List.of("A", "B", "C"));
+        index.remove("B");
+        index.add("D");
+        MappedTitleIndex compacted = index.compact(file);
+        assertFalse(compacted.hasPendingChanges());
+        assertEquals(List.of("A", "C", "D"), toList(compacted.iterator()));
+        // 旧索引仍然读取被替换前的文件
+        assertEquals(List.of("A", "C", "D"), toList(index.iterator()));
+        assertTrue(index.contains("C"));
+        assertEquals(List.of(file), files());
+    }
+
+    @Test
+    void toTitleList() throws IOException {
+        MappedTitleIndex index = MappedTitleIndex.build(directory.resolve("index.bin"), List.of("A", "B", "C", "D"));
+        MappedTitleList list = index.toTitleList(directory.resolve("titles.bin"), "B", "D");
+        assertEquals(List.of("B", "C"), list);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        MappedTitleList.write(file, List.of("A"));
+        assertThrows(IOException.class, () -> MappedTitleIndex.open(file));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static TreeSet<String> titles(int count) {
+        TreeSet<String> titles = new TreeSet<>(MappedTitleIndex.ORDER);
+        for (int i = 0; i < count; i++) {
+            titles.add("Page " + i);
+            titles.add("Talk:Page " + i);
+            titles.add("User:Page " + i + "/中文");
+        }
+        return titles;
+    }
+
+    private static List<String> toList(Iterator<String> iterator) {
+        List<String> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,97 @@
+package top.spco.spcobot.wiki.collection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTitleListTest {
+    private static final List<String> TITLES = List.of("Main Page", "", "Talk:Foo", "中文标题", "Emoji 😀", "User:Bar/Sub");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndOpen() throws IOException {
+        Path file = directory.resolve("titles.bin");
+        MappedTitleList written = MappedTitleList.write(file, TITLES);
+        assertEquals(TITLES, written);
+        MappedTitleList opened = MappedTitleList.open(file);
+        assertEquals(TITLES.size(), opened.size());
+        for (int i = 0; i < TITLES.size(); i++) {
+            assertEquals(TITLES.get(i), opened.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> opened.get(TITLES.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> opened.get(-1));
+    }
+
+    @Test
+    void writerCountsAndRemovesTemporaryFile() throws IOException {
+        Path file = directory.resolve("titles.bin");
+        try (MappedTitleList.Writer writer = MappedTitleList.create(file)) {
+            for (String title : TITLES) {
+                writer.add(title);
+            }
+            assertEquals(TITLES.size(), writer.count());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+        assertEquals(TITLES, MappedTitleList.open(file));
+    }
+
+    @Test
+    void writerRejectsAddAfterClose() throws IOException {
+        MappedTitleList.Writer writer = MappedTitleList.create(directory.resolve("titles.bin"));
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.add("Foo"));
+    }
+
+    @Test
+    void emptyList() throws IOException {
+        MappedTitleList list = MappedTitleList.write(directory.resolve("empty.bin"), List.of());
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void bytes() throws IOException {
+        MappedTitleList list = MappedTitleList.write(directory.resolve("titles.bin"), TITLES);
+        for (int i = 0; i < TITLES.size(); i++) {
+            ByteBuffer bytes = list.bytes(i);
+            assertEquals(0, bytes.position());
+            assertEquals(ByteBuffer.wrap(TITLES.get(i).getBytes(StandardCharsets.UTF_8)), bytes);
+        }
+        List<String> decoded = new ArrayList<>();
+        list.forEachBytes(bytes -> decoded.add(StandardCharsets.UTF_8.decode(bytes).toString()));
+        assertEquals(TITLES, decoded);
+    }
+
+    @Test
+    void subList() throws IOException {
+        MappedTitleList list = MappedTitleList.write(directory.resolve("titles.bin"), TITLES);
+        MappedTitleList sub = list.subList(2, 5);
+        assertEquals(TITLES.subList(2, 5), sub);
+        assertEquals(TITLES.subList(3, 4), sub.subList(1, 2));
+        assertEquals(ByteBuffer.wrap(TITLES.get(3).getBytes(StandardCharsets.UTF_8)), sub.bytes(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> sub.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(4, 7));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MappedTitleList.open(file));
+        Files.write(file, new byte[3]);
+        assertThrows(IOException.class, () -> MappedTitleList.open(file));
+    }
+}
@@ -0,0 +1,123 @@
+package top.spco.spcobot.wiki.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTest {
+    @Test
+    void findReturnsLeftmostLongestMatch() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("he", "she", "hers", "his"));
+        assertEquals(new AhoCorasick.Match(1, 4, 1), automaton.find("ushers", 0));
+        assertEquals(new AhoCorasick.Match(2, 6, 2), automaton.find("ushers", 2));
+        assertNull(automaton.find("ushers", 4));
+    }
+
+    @Test
+    void findPrefersLongerMatchAtSameStart() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("ab", "abc"));
+        assertEquals(new AhoCorasick.Match(0, 3, 1), automaton.find("abc", 0));
+    }
+
+    @Test
+    void findFirstPrefersEarlierPatternAtSameStart() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("ab", "abc"));
+        assertEquals(new AhoCorasick.Match(0, 2, 0), automaton.findFirst("abc", 0));
+        AhoCorasick reversed = AhoCorasick.compile(List.of("abc", "ab"));
+        assertEquals(new AhoCorasick.Match(0, 3, 0), reversed.findFirst("abc", 0));
+    }
+
+    @Test
+    void findFirstStillPrefersLeftmostStart() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("bcd", "abcde", "c"));
+        assertEquals(new AhoCorasick.Match(1, 6, 1), automaton.findFirst("xabcdex", 0));
+    }
+
+    @Test
+    void overlappingMatchesAreReportedWithoutOverlap() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("aa"));
+        List<AhoCorasick.Match> matches = new ArrayList<>();
+        AhoCorasick.Match match = automaton.find("aaaaa", 0);
+        while (match != null) {
+            matches.add(match);
+            match = automaton.find("aaaaa", match.end());
+        }
+        assertEquals(List.of(new AhoCorasick.Match(0, 2, 0), new AhoCorasick.Match(2, 4, 0)), matches);
+    }
+
+    @Test
+    void ignoreCase() {
+        AhoCorasick sensitive = AhoCorasick.compile(List.of("Foo"));
+        AhoCorasick insensitive = AhoCorasick.compile(List.of("Foo"), true);
+        assertFalse(sensitive.containsAny("xxFOOxx"));
+        assertTrue(insensitive.containsAny("xxFOOxx"));
+        assertEquals(new AhoCorasick.Match(2, 5, 0), insensitive.find("xxfOoxx", 0));
+    }
+
+    @Test
+    void stepDrivesTheAutomatonCharacterByCharacter() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("abc", "bc"));
+        int state = AhoCorasick.ROOT;
+        for (char c : "xabc".toCharArray()) {
+            state = automaton.step(state, c);
+        }
+        assertEquals(3, automaton.matchLength(state));
+        assertEquals(0, automaton.matchPattern(state));
+        assertEquals(-1, automaton.matchPattern(automaton.step(AhoCorasick.ROOT, 'x')));
+    }
+
+    @Test
+    void rejectsEmptyPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> AhoCorasick.compile(List.of("a", "")));
+    }
+
+    @Test
+    void matchesNaiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0, count = 1 + random.nextInt(6); i < count; i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            String text = randomString(random, random.nextInt(30));
+            AhoCorasick automaton = AhoCorasick.compile(patterns);
+            for (int from = 0; from <= text.length(); from++) {
+                assertEquals(naiveFind(patterns, text, from, false), automaton.find(text, from), () -> patterns + " in " + text);
+                assertEquals(naiveFind(patterns, text, from, true), automaton.findFirst(text, from), () -> patterns + " in " + text);
+            }
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 最左的匹配；起始位置相同时 {@code first} 为真则取先添加的模式，否则取最长的模式（长度相同时取先添加的）。
+     */
+    private static AhoCorasick.Match naiveFind(List<String> patterns, String text, int from, boolean first) {
+        for (int start = from; start < text.length(); start++) {
+            AhoCorasick.Match best = null;
+            for (int i = 0; i < patterns.size(); i++) {
+                if (text.startsWith(patterns.get(i), start)) {
+                    AhoCorasick.Match match = new AhoCorasick.Match(start, start + patterns.get(i).length(), i);
+                    if (best == null || (!first && match.end() > best.end())) {
+                        best = match;
+                    }
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+}
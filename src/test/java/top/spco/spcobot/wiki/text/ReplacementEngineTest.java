@@ -0,0 +1,83 @@
+package top.spco.spcobot.wiki.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplacementEngineTest {
+    @Test
+    void earlierRuleWinsAtSameStart() {
+        assertEquals("Xc", ReplacementEngine.builder().literal("ab", "X").literal("abc", "Y").build().replace("abc"));
+        assertEquals("Y", ReplacementEngine.builder().literal("abc", "Y").literal("ab", "X").build().replace("abc"));
+    }
+
+    @Test
+    void leftmostMatchWins() {
+        ReplacementEngine engine = ReplacementEngine.builder().literal("bcd", "Q").literal("abcde", "R").literal("c", "S").build();
+        assertEquals("xRx", engine.replace("xabcdex"));
+    }
+
+    @Test
+    void replacedTextIsNotMatchedAgain() {
+        ReplacementEngine engine = ReplacementEngine.builder().literal("a", "b").literal("b", "c").build();
+        assertEquals("bc", engine.replace("ab"));
+    }
+
+    @Test
+    void overlappingLiteralsAreReplacedOnce() {
+        ReplacementEngine engine = ReplacementEngine.builder().literal("abc", "Y").literal("b", "Z").build();
+        assertEquals("YZ", engine.replace("abcb"));
+        assertEquals("XXa", ReplacementEngine.builder().literal("aa", "X").build().replace("aaaaa"));
+    }
+
+    @Test
+    void regexesAndLiteralsShareOneScan() {
+        ReplacementEngine engine = ReplacementEngine.builder()
+                .regex("(a)b", "[$1]")
+                .regex("c(d)", "<$1>")
+                .literal("e", "E")
+                .build();
+        assertEquals("[a]<d>E[a] <d>", engine.replace("abcdeab cd"));
+        assertTrue(engine.find("zzab"));
+        assertFalse(engine.find("zz"));
+    }
+
+    @Test
+    void groupReferencesStayWithinTheirRule() {
+        ReplacementEngine engine = ReplacementEngine.builder()
+                .regex("(x)(y)", "$2$1")
+                .regex("(a)\\1", "<$1>")
+                .regex("(?<word>q+)", "${word}!")
+                .build();
+        assertEquals("yx <a> qq!", engine.replace("xy aa qq"));
+    }
+
+    @Test
+    void commentsModeRegexesAreCompiledSeparately() {
+        ReplacementEngine engine = ReplacementEngine.builder().regex("(?x) (a) b # comment", "[$1]").literal("c", "C").build();
+        assertEquals("[a]C", engine.replace("abc"));
+        assertEquals("111", ReplacementEngine.builder().regex("(?x)x # c", "1").regex("x+", "2").build().replace("xxx"));
+        assertEquals("2", ReplacementEngine.builder().regex("x+", "2").regex("(?x)x # c", "1").build().replace("xxx"));
+    }
+
+    @Test
+    void noMatchReturnsSameInstance() {
+        String text = "nothing here";
+        assertSame(text, ReplacementEngine.builder().literal("zzz", "y").regex("q+", "r").build().replace(text));
+    }
+
+    @Test
+    void emptyEngine() {
+        ReplacementEngine engine = ReplacementEngine.builder().build();
+        assertTrue(engine.isEmpty());
+        assertEquals(0, engine.size());
+        assertEquals("abc", engine.replace("abc"));
+    }
+
+    @Test
+    void invalidRegexIsRejected() {
+        assertThrows(PatternSyntaxException.class, () -> ReplacementEngine.builder().regex("a(", "b"));
+    }
+}